@@ -2,4 +2,18 @@ dependencies {
     implementation(project(":domain"))
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("com.google.firebase:firebase-admin:_")
-}
\ No newline at end of file
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("io.micrometer:micrometer-core")
+    implementation("io.github.resilience4j:resilience4j-circuitbreaker:_")
+    implementation("io.github.resilience4j:resilience4j-bulkhead:_")
+    implementation("io.github.resilience4j:resilience4j-micrometer:_")
+
+    testImplementation("org.mockito:mockito-core:_")
+    testImplementation("org.assertj:assertj-core:_")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:_")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:_")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -14,7 +14,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 
 @Configuration
-@Profile("!integration-test")
+@Profile("!integration-test & !inmemory & !jdbc")
 public class FirestoreConfig {
 
     @Value("${firebase.config-path}")
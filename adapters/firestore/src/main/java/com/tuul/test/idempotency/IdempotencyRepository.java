@@ -0,0 +1,90 @@
+package com.tuul.test.idempotency;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.idempotency.model.IdempotentOutcome;
+import com.tuul.test.idempotency.port.IdempotencyPort;
+import com.tuul.test.util.FirestoreOperations;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Outcomes are stored under a digest of their key, which may contain characters not allowed in document ids. Expired
+ * documents are ignored on read and deleted by the Firestore TTL policy on {@code expiresAt}.
+ */
+@Repository
+@Profile("!inmemory & !jdbc")
+@ConditionalOnProperty("idempotency.firestore.enabled")
+class IdempotencyRepository implements IdempotencyPort {
+    private static final String COLLECTION_NAME = "idempotencyKeys";
+    private static final String REQUEST = "request";
+    private static final String SUCCEEDED = "succeeded";
+    private static final String ERROR_MESSAGE = "errorMessage";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final Firestore firestore;
+    private final FirestoreOperations operations;
+    private final Clock clock;
+
+    IdempotencyRepository(Firestore firestore, FirestoreOperations operations, Clock clock) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(IdempotencyRepository.class);
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentOutcome> fetch(String key) {
+        var document = FutureUtils.join(operations.lookup(() -> reference(key).get(),
+                "Failed to fetch idempotent outcome in Firestore"));
+        var expiresAt = document.getTimestamp(EXPIRES_AT);
+        if (!document.exists() || expiresAt == null || !expiresAt.toDate().toInstant().isAfter(clock.instant())) {
+            return Optional.empty();
+        }
+
+        return Optional.of(IdempotentOutcome.builder()
+                .request(document.getString(REQUEST))
+                .succeeded(Boolean.TRUE.equals(document.getBoolean(SUCCEEDED)))
+                .errorMessage(document.getString(ERROR_MESSAGE))
+                .build());
+    }
+
+    @Override
+    public void save(String key, IdempotentOutcome outcome, Duration timeToLive) {
+        var expiresAt = clock.instant().plus(timeToLive);
+        Map<String, Object> data = new HashMap<>();
+        data.put(REQUEST, outcome.getRequest());
+        data.put(SUCCEEDED, outcome.isSucceeded());
+        data.put(EXPIRES_AT, Timestamp.ofTimeSecondsAndNanos(expiresAt.getEpochSecond(), expiresAt.getNano()));
+        if (outcome.getErrorMessage() != null) {
+            data.put(ERROR_MESSAGE, outcome.getErrorMessage());
+        }
+
+        FutureUtils.join(operations.write(() -> reference(key).set(data), "Failed to save idempotent outcome in Firestore"));
+    }
+
+    private DocumentReference reference(String key) {
+        var digest = sha256().digest(key.getBytes(StandardCharsets.UTF_8));
+        return firestore.collection(COLLECTION_NAME).document(Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
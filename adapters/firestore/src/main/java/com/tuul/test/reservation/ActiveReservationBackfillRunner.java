@@ -0,0 +1,147 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreProjections;
+import com.tuul.test.util.FirestoreUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes the {@code active} flag on reservations and the {@code activeReservation} pointer on users and vehicles
+ * for reservations saved before the pointers existed. Reservations are read one page at a time. Ended ones are
+ * flagged as they are read, open ones are collected and resolved once every page has been seen: legacy data can hold
+ * several open reservations for one user or vehicle, and only the latest started of them keeps the pointers, the
+ * others are flagged inactive.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory & !jdbc")
+@ConditionalOnProperty("firestore.migration.active-reservation-backfill.enabled")
+class ActiveReservationBackfillRunner implements ApplicationRunner {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final Comparator<OpenReservation> LATEST_FIRST = Comparator
+            .comparing(OpenReservation::startTime, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(open -> open.reference().getId());
+
+    private final Firestore firestore;
+    private final int pageSize;
+
+    ActiveReservationBackfillRunner(Firestore firestore,
+                                    @Value("${firestore.migration.active-reservation-backfill.page-size:200}") int pageSize) {
+        this.firestore = firestore;
+        this.pageSize = Math.min(pageSize, MAX_BATCH_SIZE);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<OpenReservation> open = new ArrayList<>();
+        long read = 0;
+        DocumentSnapshot last = null;
+        while (true) {
+            var page = fetchPage(last);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            var batch = new Batch();
+            for (var reservation : page) {
+                if (reservation.contains(ReservationSchema.END_TIME)) {
+                    batch.update(reservation.getReference(), "active", false);
+                } else {
+                    open.add(new OpenReservation(reservation.getReference(),
+                            reservation.get("user", DocumentReference.class),
+                            reservation.get("vehicle", DocumentReference.class),
+                            ReservationSchema.time(reservation, ReservationSchema.START_TIME)));
+                }
+            }
+            batch.commit();
+            read += page.size();
+            last = page.get(page.size() - 1);
+        }
+
+        var superseded = resolve(open);
+        log.info("Backfilled {} reservations, {} active", read, open.size() - superseded);
+        if (superseded > 0) {
+            log.warn("Flagged {} open reservations inactive, a later one of their user or vehicle is active", superseded);
+        }
+    }
+
+    private List<DocumentSnapshot> fetchPage(DocumentSnapshot last) {
+        var query = firestore.collection(ReservationSchema.COLLECTION_NAME)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize);
+        if (last != null) {
+            query = query.startAfter(last);
+        }
+        return FutureUtils.join(FirestoreUtils.safeFirestoreFuture(
+                FirestoreProjections.queryFields(query, "user", "vehicle", ReservationSchema.START_TIME, ReservationSchema.END_TIME),
+                "Failed to fetch reservations")).getDocuments();
+    }
+
+    private int resolve(List<OpenReservation> open) {
+        open.sort(LATEST_FIRST);
+        Set<DocumentReference> claimed = new HashSet<>();
+        int superseded = 0;
+        var batch = new Batch();
+        for (var reservation : open) {
+            if (claimed.contains(reservation.user()) || claimed.contains(reservation.vehicle())) {
+                batch.update(reservation.reference(), "active", false);
+                superseded++;
+                continue;
+            }
+            claimed.add(reservation.user());
+            claimed.add(reservation.vehicle());
+            batch.update(reservation.reference(), "active", true);
+            batch.update(reservation.user(), "activeReservation", reservation.reference());
+            batch.update(reservation.vehicle(), "activeReservation", reservation.reference());
+        }
+        batch.commit();
+        return superseded;
+    }
+
+    private record OpenReservation(DocumentReference reference, DocumentReference user, DocumentReference vehicle,
+                                   LocalDateTime startTime) {
+    }
+
+    /**
+     * A write batch that commits itself before it would exceed the Firestore limit of 500 writes.
+     */
+    private class Batch {
+        private WriteBatch batch = firestore.batch();
+        private int writes;
+
+        void update(DocumentReference reference, String field, Object value) {
+            if (writes == MAX_BATCH_SIZE) {
+                commit();
+            }
+            batch.update(reference, field, value);
+            writes++;
+        }
+
+        void commit() {
+            if (writes == 0) {
+                return;
+            }
+            FutureUtils.join(FirestoreUtils.safeFirestoreFuture(batch.commit(), "Failed to backfill active reservations"));
+            batch = firestore.batch();
+            writes = 0;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tuul.test.reservation;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tuul.test.reservation.model.Reservation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of each user's active reservation, so clients polling for a running quote cost one Firestore
+ * read per user per TTL. Concurrent misses for the same user share a single load. Saving a reservation evicts it on
+ * this instance once the write has committed, so a read inside the same unit of work cannot cache the old state
+ * again; other instances catch up when the entry expires.
+ */
+@Component
+@Profile("!inmemory & !jdbc")
+class ActiveReservationCache {
+    private static final String CACHE_NAME = "activeReservations";
+
+    private final AsyncCache<UUID, Optional<Reservation>> cache;
+
+    ActiveReservationCache(MeterRegistry meterRegistry,
+                           @Value("${reservation.active-cache.max-size:10000}") long maxSize,
+                           @Value("${reservation.active-cache.expire-after-write:PT5S}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    CompletableFuture<Optional<Reservation>> get(UUID userId, Function<UUID, CompletableFuture<Optional<Reservation>>> loader) {
+        return cache.get(userId, (key, executor) -> loader.apply(key))
+                .thenApply(reservation -> reservation.map(cached -> cached.toBuilder().build()));
+    }
+
+    void invalidate(UUID userId) {
+        cache.synchronous().invalidate(userId);
+    }
+}
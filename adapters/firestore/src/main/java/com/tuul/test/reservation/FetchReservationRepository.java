@@ -1,116 +1,221 @@
 package com.tuul.test.reservation;
 
 import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
 import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
 import com.tuul.test.reservation.port.FetchReservationPort;
-import com.tuul.test.util.FirestoreUtils;
-import lombok.RequiredArgsConstructor;
+import com.tuul.test.util.FirestoreOperations;
+import com.tuul.test.util.FirestoreProjections;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Repository
-@RequiredArgsConstructor
+@Profile("!inmemory & !jdbc")
 class FetchReservationRepository implements FetchReservationPort {
     private final Firestore firestore;
-    private static final String COLLECTION_NAME = "reservations";
+    private final FirestoreOperations operations;
+    private final ActiveReservationCache activeReservationCache;
+    private static final String ACTIVE_RESERVATION = "activeReservation";
+    private static final String[] HISTORY_FIELDS = {"vehicle", ReservationSchema.START_TIME, ReservationSchema.END_TIME,
+            "startingLocation", "endingLocation", ReservationSchema.COST_CENTS, ReservationSchema.LEGACY_COST};
+    private static final String[] EXPORT_FIELDS = {"user", "vehicle", ReservationSchema.START_TIME, ReservationSchema.END_TIME,
+            "startingLocation", "endingLocation", ReservationSchema.COST_CENTS, ReservationSchema.LEGACY_COST};
+    private static final Comparator<Reservation> OLDEST_FIRST = Comparator
+            .comparing(Reservation::getStartTime)
+            .thenComparing(reservation -> reservation.getId().toString());
+
+    private final boolean dualRead;
+
+    FetchReservationRepository(Firestore firestore, FirestoreOperations operations, ActiveReservationCache activeReservationCache,
+                               @Value("${firestore.migration.reservation-schema.dual-read:true}") boolean dualRead) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(FetchReservationRepository.class);
+        this.activeReservationCache = activeReservationCache;
+        this.dualRead = dualRead;
+    }
 
     @Override
     public boolean existsActiveReservationForUserOrVehicle(UUID userId, UUID vehicleId) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var userRef = firestore.document("users/" + userId.toString());
-            var vehicleRef = firestore.document("vehicles/" + vehicleId.toString());
+        return FutureUtils.join(existsActiveReservationForUserOrVehicleAsync(userId, vehicleId));
+    }
 
-            var userQuerySnapshot = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("user", userRef)
-                    .get()
-                    .get();
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId, UUID vehicleId) {
+        return FutureUtils.join(fetchActiveReservationAsync(userId, vehicleId));
+    }
 
-            var vehicleQuerySnapshot = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("vehicle", vehicleRef)
-                    .get()
-                    .get();
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId) {
+        return FutureUtils.join(fetchActiveReservationAsync(userId));
+    }
 
-            var activeUserReservations = userQuerySnapshot.getDocuments().stream()
-                    .filter(doc -> !doc.getData().containsKey("endTime"))
-                    .toList();
+    @Override
+    public List<Reservation> fetchReservations(UUID userId, ReservationCursor after, int limit) {
+        return FutureUtils.join(fetchReservationsAsync(userId, after, limit));
+    }
 
-            var activeVehicleReservations = vehicleQuerySnapshot.getDocuments().stream()
-                    .filter(doc -> !doc.getData().containsKey("endTime"))
-                    .toList();
+    @Override
+    public List<Reservation> fetchReservationsStartedBetween(LocalDateTime from, LocalDateTime until, ReservationCursor after, int limit) {
+        return FutureUtils.join(fetchReservationsStartedBetweenAsync(from, until, after, limit));
+    }
 
-            return !activeUserReservations.isEmpty() || !activeVehicleReservations.isEmpty();
-        }, "Failed to check active reservation in Firestore");
+    @Override
+    public List<Reservation> fetchActiveReservationsStartedBefore(LocalDateTime before, ReservationCursor after, int limit) {
+        return FutureUtils.join(fetchActiveReservationsStartedBeforeAsync(before, after, limit));
     }
 
     @Override
-    public Optional<Reservation> fetchActiveReservation(UUID userId, UUID vehicleId) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var userRef = firestore.document("users/" + userId.toString());
-            var vehicleRef = firestore.document("vehicles/" + vehicleId.toString());
+    public CompletableFuture<Boolean> existsActiveReservationForUserOrVehicleAsync(UUID userId, UUID vehicleId) {
+        var userRef = firestore.document("users/" + userId.toString());
+        var vehicleRef = firestore.document("vehicles/" + vehicleId.toString());
 
-            var reservationQuerySnapshot = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("user", userRef)
-                    .whereEqualTo("vehicle", vehicleRef)
-                    .get()
-                    .get();
+        var references = new DocumentReference[]{userRef, vehicleRef};
 
-            var activeReservations = reservationQuerySnapshot.getDocuments().stream()
-                    .filter(doc -> !doc.getData().containsKey("endTime"))
-                    .toList();
+        return operations.lookup(() -> FirestoreProjections.getAllFields(firestore, references, ACTIVE_RESERVATION),
+                        "Failed to check active reservation in Firestore")
+                .thenApply(snapshots -> snapshots.stream()
+                        .anyMatch(snapshot -> snapshot.get(ACTIVE_RESERVATION) != null));
+    }
 
-            if (activeReservations.size() > 1) {
-                throw new IllegalStateException("Multiple active reservations found.");
-            }
+    @Override
+    public CompletableFuture<Optional<Reservation>> fetchActiveReservationAsync(UUID userId, UUID vehicleId) {
+        return loadActiveReservation(userId)
+                .thenApply(reservation -> reservation.filter(active -> vehicleId.equals(active.getVehicleId())));
+    }
 
-            if (activeReservations.isEmpty()) {
-                return Optional.empty();
-            }
+    @Override
+    public CompletableFuture<Optional<Reservation>> fetchActiveReservationAsync(UUID userId) {
+        return activeReservationCache.get(userId, this::loadActiveReservation);
+    }
 
-            var document = activeReservations.get(0);
-            var reservation = new Reservation();
-            reservation.setId(UUID.fromString(document.getId()));
+    // served by the composite index (user ASC, startTime DESC, __name__ DESC)
+    @Override
+    public CompletableFuture<List<Reservation>> fetchReservationsAsync(UUID userId, ReservationCursor after, int limit) {
+        var userRef = firestore.document("users/" + userId.toString());
+        return queryBySchema(encoding -> {
+            Query query = firestore.collection(ReservationSchema.COLLECTION_NAME)
+                    .whereEqualTo("user", userRef)
+                    .whereGreaterThanOrEqualTo(ReservationSchema.START_TIME, encoding.getLowest())
+                    .orderBy(ReservationSchema.START_TIME, Query.Direction.DESCENDING)
+                    .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING)
+                    .limit(limit);
+            return after == null ? query : query.startAfter(encoding.encode(after.getStartTime()), after.getReservationId().toString());
+        }, HISTORY_FIELDS, OLDEST_FIRST.reversed(), limit, "Failed to fetch reservations in Firestore")
+                .thenApply(reservations -> {
+                    reservations.forEach(reservation -> reservation.setUserId(userId));
+                    return reservations;
+                });
+    }
 
-            DocumentReference fetchedUserRef = document.get("user", DocumentReference.class);
-            DocumentReference fetchedVehicleRef = document.get("vehicle", DocumentReference.class);
+    // ascending (startTime, __name__) is served by the automatic single-field index
+    @Override
+    public CompletableFuture<List<Reservation>> fetchReservationsStartedBetweenAsync(LocalDateTime from, LocalDateTime until,
+                                                                                   ReservationCursor after, int limit) {
+        return queryBySchema(encoding -> {
+            Query query = firestore.collection(ReservationSchema.COLLECTION_NAME)
+                    .whereGreaterThanOrEqualTo(ReservationSchema.START_TIME, encoding.encode(from))
+                    .whereLessThan(ReservationSchema.START_TIME, encoding.encode(until))
+                    .orderBy(ReservationSchema.START_TIME)
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            return after == null ? query : query.startAfter(encoding.encode(after.getStartTime()), after.getReservationId().toString());
+        }, EXPORT_FIELDS, OLDEST_FIRST, limit, "Failed to export reservations from Firestore");
+    }
 
-            if (fetchedUserRef != null) {
-                reservation.setUserId(UUID.fromString(fetchedUserRef.getId()));
-            }
+    // served by the composite index (active ASC, startTime ASC, __name__ ASC)
+    @Override
+    public CompletableFuture<List<Reservation>> fetchActiveReservationsStartedBeforeAsync(LocalDateTime before,
+                                                                                        ReservationCursor after, int limit) {
+        return queryBySchema(encoding -> {
+            Query query = firestore.collection(ReservationSchema.COLLECTION_NAME)
+                    .whereEqualTo("active", true)
+                    .whereGreaterThanOrEqualTo(ReservationSchema.START_TIME, encoding.getLowest())
+                    .whereLessThan(ReservationSchema.START_TIME, encoding.encode(before))
+                    .orderBy(ReservationSchema.START_TIME)
+                    .orderBy(FieldPath.documentId())
+                    .limit(limit);
+            return after == null ? query : query.startAfter(encoding.encode(after.getStartTime()), after.getReservationId().toString());
+        }, EXPORT_FIELDS, OLDEST_FIRST, limit, "Failed to fetch stale reservations in Firestore");
+    }
 
-            if (fetchedVehicleRef != null) {
-                reservation.setVehicleId(UUID.fromString(fetchedVehicleRef.getId()));
-            }
+    // while version 1 documents remain, the same page is queried once per time encoding and the two are merged
+    private CompletableFuture<List<Reservation>> queryBySchema(Function<ReservationSchema.TimeEncoding, Query> queryFor,
+                                                               String[] fields, Comparator<Reservation> order,
+                                                               int limit, String errorMessage) {
+        var current = query(queryFor.apply(ReservationSchema.TimeEncoding.TIMESTAMP), fields, errorMessage);
+        if (!dualRead) {
+            return current;
+        }
+
+        var legacy = query(queryFor.apply(ReservationSchema.TimeEncoding.LEGACY_STRING), fields, errorMessage);
+        return current.thenCombine(legacy, (currentPage, legacyPage) -> Stream.concat(currentPage.stream(), legacyPage.stream())
+                .sorted(order)
+                .limit(limit)
+                .toList());
+    }
 
-            DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
+    private CompletableFuture<List<Reservation>> query(Query query, String[] fields, String errorMessage) {
+        return operations.read(() -> FirestoreProjections.queryFields(query, fields), errorMessage)
+                .thenApply(snapshot -> snapshot.getDocuments().stream()
+                        .map(FetchReservationRepository::toReservation)
+                        .toList());
+    }
 
-            String startTimeStr = document.getString("startTime");
-            if (startTimeStr != null) {
-                reservation.setStartTime(LocalDateTime.parse(startTimeStr, formatter));
-            }
+    private CompletableFuture<Optional<Reservation>> loadActiveReservation(UUID userId) {
+        var userRef = firestore.document("users/" + userId.toString());
+        var errorMessage = "Failed to fetch active reservation in Firestore";
+
+        return operations.lookup(() -> FirestoreProjections.getFields(userRef, ACTIVE_RESERVATION), errorMessage)
+                .thenCompose(userSnapshot -> {
+                    var reservationRef = userSnapshot.get(ACTIVE_RESERVATION, DocumentReference.class);
+                    if (reservationRef == null) {
+                        return CompletableFuture.completedFuture(Optional.<Reservation>empty());
+                    }
+
+                    return operations.lookup(reservationRef::get, errorMessage)
+                            .thenApply(document -> document.exists()
+                                    ? Optional.of(toReservation(document))
+                                    : Optional.empty());
+                });
+    }
 
-            String endTimeStr = document.getString("endTime");
-            if (endTimeStr != null) {
-                reservation.setEndTime(LocalDateTime.parse(endTimeStr, formatter));
-            }
+    private static Reservation toReservation(DocumentSnapshot document) {
+        var reservation = new Reservation();
+        reservation.setId(UUID.fromString(document.getId()));
 
-            reservation.setStartingLocation(document.get("startingLocation", Coordinates.class));
-            reservation.setEndingLocation(document.get("endingLocation", Coordinates.class));
+        DocumentReference fetchedUserRef = document.get("user", DocumentReference.class);
+        DocumentReference fetchedVehicleRef = document.get("vehicle", DocumentReference.class);
 
-            String costStr = document.getString("costOfReservation");
-            if (costStr != null) {
-                reservation.setCostOfReservation(new BigDecimal(costStr));
-            }
+        if (fetchedUserRef != null) {
+            reservation.setUserId(UUID.fromString(fetchedUserRef.getId()));
+        }
 
-            return Optional.of(reservation);
-        }, "Failed to fetch active reservation in Firestore");
-    }
+        if (fetchedVehicleRef != null) {
+            reservation.setVehicleId(UUID.fromString(fetchedVehicleRef.getId()));
+        }
 
+        reservation.setStartTime(ReservationSchema.time(document, ReservationSchema.START_TIME));
+        reservation.setEndTime(ReservationSchema.time(document, ReservationSchema.END_TIME));
+        reservation.setStartingLocation(document.get("startingLocation", Coordinates.class));
+        reservation.setEndingLocation(document.get("endingLocation", Coordinates.class));
+        reservation.setCostOfReservation(ReservationSchema.cost(document));
 
+        return reservation;
+    }
 }
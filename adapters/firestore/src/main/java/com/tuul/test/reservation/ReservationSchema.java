@@ -0,0 +1,102 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Field layout of reservation documents. Version 1 stored times as ISO-8601 strings and the cost as a decimal string;
+ * version 2 stores native timestamps, so time ranges can be queried and read without parsing, and the cost as integer
+ * cents. Local times are encoded as if they were UTC, which keeps their order and round-trips them unchanged. Readers
+ * accept both versions until {@link ReservationSchemaMigrationRunner} has rewritten every version 1 document.
+ */
+@UtilityClass
+class ReservationSchema {
+    static final String COLLECTION_NAME = "reservations";
+    static final String SCHEMA_VERSION = "schemaVersion";
+    static final long CURRENT_VERSION = 2;
+    static final String START_TIME = "startTime";
+    static final String END_TIME = "endTime";
+    static final String COST_CENTS = "costCents";
+    static final String LEGACY_COST = "costOfReservation";
+
+    /**
+     * How a version stores times. Inequality filters only match values of the filter's type, so filtering on
+     * {@link #lowest()} splits a field holding both versions into one query per version.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    enum TimeEncoding {
+        TIMESTAMP(Timestamp.MIN_VALUE, ReservationSchema::toTimestamp),
+        LEGACY_STRING("", LocalDateTime::toString);
+
+        private final Object lowest;
+        private final Function<LocalDateTime, Object> encoder;
+
+        Object encode(LocalDateTime time) {
+            return encoder.apply(time);
+        }
+    }
+
+    static Timestamp toTimestamp(LocalDateTime time) {
+        return Timestamp.ofTimeSecondsAndNanos(time.toEpochSecond(ZoneOffset.UTC), time.getNano());
+    }
+
+    static long toCents(BigDecimal cost) {
+        return cost.movePointRight(2).longValueExact();
+    }
+
+    static LocalDateTime time(DocumentSnapshot document, String field) {
+        var value = document.get(field);
+        if (value instanceof Timestamp timestamp) {
+            return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+        }
+        if (value instanceof String legacy) {
+            return LocalDateTime.parse(legacy, DateTimeFormatter.ISO_DATE_TIME);
+        }
+        return null;
+    }
+
+    static BigDecimal cost(DocumentSnapshot document) {
+        var cents = document.getLong(COST_CENTS);
+        if (cents != null) {
+            return BigDecimal.valueOf(cents, 2);
+        }
+        var legacy = document.getString(LEGACY_COST);
+        return legacy == null ? null : new BigDecimal(legacy);
+    }
+
+    /**
+     * The updates turning a version 1 document into version 2.
+     */
+    static Map<String, Object> upgrade(DocumentSnapshot document) {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put(SCHEMA_VERSION, CURRENT_VERSION);
+
+        var startTime = time(document, START_TIME);
+        if (startTime != null) {
+            updates.put(START_TIME, toTimestamp(startTime));
+        }
+        var endTime = time(document, END_TIME);
+        if (endTime != null) {
+            updates.put(END_TIME, toTimestamp(endTime));
+        }
+        var cost = cost(document);
+        if (cost != null) {
+            updates.put(COST_CENTS, toCents(cost));
+        }
+        updates.put(LEGACY_COST, FieldValue.delete());
+        return updates;
+    }
+}
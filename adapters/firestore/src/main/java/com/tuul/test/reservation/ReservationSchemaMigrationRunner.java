@@ -0,0 +1,96 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.SetOptions;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreProjections;
+import com.tuul.test.util.FirestoreUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rewrites version 1 reservations into the version 2 {@link ReservationSchema}, one batch at a time. Each batch
+ * selects reservations whose start time is still a string, so rewritten documents drop out of the selection and an
+ * interrupted run resumes where it stopped. A document changed since it was read fails its batch's precondition and
+ * the batch is selected again. Progress is recorded in {@code migrations/reservationSchemaV2}.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory & !jdbc")
+@ConditionalOnProperty("firestore.migration.reservation-schema.enabled")
+class ReservationSchemaMigrationRunner implements ApplicationRunner {
+    static final String CHECKPOINT = "migrations/reservationSchemaV2";
+    private static final int MAX_BATCH_SIZE = 499;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Firestore firestore;
+    private final int batchSize;
+
+    ReservationSchemaMigrationRunner(Firestore firestore,
+                                     @Value("${firestore.migration.reservation-schema.batch-size:200}") int batchSize) {
+        this.firestore = firestore;
+        this.batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long migrated = 0;
+        int failedAttempts = 0;
+        while (true) {
+            try {
+                var written = migrateBatch();
+                if (written == 0) {
+                    break;
+                }
+                migrated += written;
+                failedAttempts = 0;
+            } catch (DatabaseAccessException e) {
+                if (++failedAttempts >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Reservation schema migration batch failed, retrying: {}", e.getMessage());
+            }
+        }
+
+        var checkpoint = firestore.document(CHECKPOINT);
+        FutureUtils.join(FirestoreUtils.safeFirestoreFuture(
+                checkpoint.set(Map.of("completedAt", FieldValue.serverTimestamp()), SetOptions.merge()),
+                "Failed to record reservation schema migration"));
+        log.info("Migrated {} reservations to schema version {}", migrated, ReservationSchema.CURRENT_VERSION);
+    }
+
+    private int migrateBatch() {
+        var query = firestore.collection(ReservationSchema.COLLECTION_NAME)
+                .whereGreaterThanOrEqualTo(ReservationSchema.START_TIME, ReservationSchema.TimeEncoding.LEGACY_STRING.getLowest())
+                .orderBy(ReservationSchema.START_TIME)
+                .limit(batchSize);
+        var reservations = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(
+                FirestoreProjections.queryFields(query, ReservationSchema.START_TIME, ReservationSchema.END_TIME, ReservationSchema.LEGACY_COST),
+                "Failed to fetch reservations to migrate"));
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+
+        var batch = firestore.batch();
+        for (var reservation : reservations.getDocuments()) {
+            batch.update(reservation.getReference(), ReservationSchema.upgrade(reservation),
+                    Precondition.updatedAt(reservation.getUpdateTime()));
+        }
+        batch.set(firestore.document(CHECKPOINT), Map.of(
+                "migrated", FieldValue.increment(reservations.size()),
+                "updatedAt", FieldValue.serverTimestamp()
+        ), SetOptions.merge());
+        FutureUtils.join(FirestoreUtils.safeFirestoreFuture(batch.commit(), "Failed to migrate reservations"));
+        return reservations.size();
+    }
+}
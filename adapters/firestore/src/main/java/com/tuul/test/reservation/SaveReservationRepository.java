@@ -1,48 +1,104 @@
 package com.tuul.test.reservation;
 
 import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.reservation.model.Reservation;
 import com.tuul.test.reservation.port.SaveReservationPort;
-import com.tuul.test.util.FirestoreUtils;
-import lombok.RequiredArgsConstructor;
+import com.tuul.test.util.FirestoreOperations;
+import com.tuul.test.util.FirestoreProjections;
+import com.tuul.test.util.FirestoreUnitOfWork;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 @Repository
-@RequiredArgsConstructor
+@Profile("!inmemory & !jdbc")
 class SaveReservationRepository implements SaveReservationPort {
+    private static final String ACTIVE = "active";
+
     private final Firestore firestore;
-    private static final String COLLECTION_NAME = "reservations";
+    private final FirestoreUnitOfWork unitOfWork;
+    private final FirestoreOperations operations;
+    private final ActiveReservationCache activeReservationCache;
+
+    SaveReservationRepository(Firestore firestore, FirestoreUnitOfWork unitOfWork, FirestoreOperations operations,
+                              ActiveReservationCache activeReservationCache) {
+        this.firestore = firestore;
+        this.unitOfWork = unitOfWork;
+        this.operations = operations.forRepository(SaveReservationRepository.class);
+        this.activeReservationCache = activeReservationCache;
+    }
 
     @Override
     public Reservation save(Reservation reservation) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            DocumentReference reservationRef = firestore.collection(COLLECTION_NAME)
-                    .document(reservation.getId().toString());
-
-            Map<String, Object> reservationData = new HashMap<>();
-            reservationData.put("id", reservation.getId().toString());
-            reservationData.put("user", firestore.collection("users").document(reservation.getUserId().toString()));
-            reservationData.put("vehicle", firestore.collection("vehicles").document(reservation.getVehicleId().toString()));
-            reservationData.put("startTime", reservation.getStartTime().toString());
-            reservationData.put("startingLocation", reservation.getStartingLocation());
-
-            if (reservation.getEndTime() != null) {
-                reservationData.put("endTime", reservation.getEndTime().toString());
-            }
-            if (reservation.getEndingLocation() != null) {
-                reservationData.put("endingLocation", reservation.getEndingLocation());
-            }
-            if (reservation.getCostOfReservation() != null) {
-                reservationData.put("costOfReservation", reservation.getCostOfReservation().toString());
-            }
-
-            reservationRef.set(reservationData).get();
-
-            return reservation;
-        }, "Failed to save reservation in Firestore");
+        return FutureUtils.join(saveAsync(reservation));
+    }
+
+    @Override
+    public boolean closeIfActive(Reservation reservation) {
+        var reservationRef = reservationRef(reservation);
+        var stored = FutureUtils.join(operations.lookup(() -> FirestoreProjections.getFields(reservationRef, ACTIVE),
+                "Failed to fetch reservation to close"));
+        if (!Boolean.TRUE.equals(stored.getBoolean(ACTIVE))) {
+            return false;
+        }
+
+        // a STOP landing after this read moves the update time and fails the commit
+        var precondition = Precondition.updatedAt(stored.getUpdateTime());
+        FutureUtils.join(write(reservation, (batch, reservationData) -> batch.update(reservationRef, reservationData, precondition)));
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Reservation> saveAsync(Reservation reservation) {
+        var reservationRef = reservationRef(reservation);
+        return write(reservation, (batch, reservationData) -> batch.set(reservationRef, reservationData));
+    }
+
+    private CompletableFuture<Reservation> write(Reservation reservation, BiConsumer<WriteBatch, Map<String, Object>> reservationWrite) {
+        DocumentReference reservationRef = reservationRef(reservation);
+        DocumentReference userRef = firestore.collection("users").document(reservation.getUserId().toString());
+        DocumentReference vehicleRef = firestore.collection("vehicles").document(reservation.getVehicleId().toString());
+        boolean active = reservation.getEndTime() == null;
+
+        Map<String, Object> reservationData = new HashMap<>();
+        reservationData.put("id", reservation.getId().toString());
+        reservationData.put("user", userRef);
+        reservationData.put("vehicle", vehicleRef);
+        reservationData.put(ACTIVE, active);
+        reservationData.put(ReservationSchema.SCHEMA_VERSION, ReservationSchema.CURRENT_VERSION);
+        reservationData.put(ReservationSchema.START_TIME, ReservationSchema.toTimestamp(reservation.getStartTime()));
+        reservationData.put("startingLocation", reservation.getStartingLocation());
+
+        if (reservation.getEndTime() != null) {
+            reservationData.put(ReservationSchema.END_TIME, ReservationSchema.toTimestamp(reservation.getEndTime()));
+        }
+        if (reservation.getEndingLocation() != null) {
+            reservationData.put("endingLocation", reservation.getEndingLocation());
+        }
+        if (reservation.getCostOfReservation() != null) {
+            reservationData.put(ReservationSchema.COST_CENTS, ReservationSchema.toCents(reservation.getCostOfReservation()));
+        }
+
+        Object activeReservation = active ? reservationRef : FieldValue.delete();
+
+        return unitOfWork.write(batch -> {
+                    reservationWrite.accept(batch, reservationData);
+                    batch.update(userRef, "activeReservation", activeReservation);
+                    batch.update(vehicleRef, "activeReservation", activeReservation);
+                }, () -> activeReservationCache.invalidate(reservation.getUserId()), "Failed to save reservation in Firestore")
+                .thenApply(written -> reservation);
+    }
+
+    private DocumentReference reservationRef(Reservation reservation) {
+        return firestore.collection(ReservationSchema.COLLECTION_NAME).document(reservation.getId().toString());
     }
 }
@@ -0,0 +1,66 @@
+package com.tuul.test.usage;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import com.tuul.test.util.FirestoreOperations;
+import com.tuul.test.util.FirestoreProjections;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+
+@Repository
+@Profile("!inmemory & !jdbc")
+class FetchUsageRepository implements FetchUsagePort {
+    private final Firestore firestore;
+    private final FirestoreOperations operations;
+
+    FetchUsageRepository(Firestore firestore, FirestoreOperations operations) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(FetchUsageRepository.class);
+    }
+
+    // served by the composite index (scope ASC, subject ASC, date ASC)
+    @Override
+    public List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until) {
+        var query = firestore.collection(UsageShards.COLLECTION_NAME)
+                .whereEqualTo(UsageShards.SCOPE, scope.name())
+                .whereEqualTo(UsageShards.SUBJECT, UsageShards.subject(scope, subjectId))
+                .whereGreaterThanOrEqualTo(UsageShards.DATE, from.toString())
+                .whereLessThan(UsageShards.DATE, until.toString());
+
+        var snapshot = FutureUtils.join(operations.read(() -> FirestoreProjections.queryFields(query,
+                        UsageShards.DATE, UsageShards.RIDES, UsageShards.RIDE_SECONDS, UsageShards.REVENUE_CENTS),
+                "Failed to fetch usage in Firestore"));
+
+        Map<LocalDate, DailyUsage> days = new TreeMap<>();
+        for (var shard : snapshot.getDocuments()) {
+            var date = LocalDate.parse(Objects.requireNonNull(shard.getString(UsageShards.DATE)));
+            var day = days.computeIfAbsent(date, ignored -> DailyUsage.builder()
+                    .scope(scope)
+                    .subjectId(subjectId)
+                    .date(date)
+                    .revenue(BigDecimal.ZERO.setScale(2))
+                    .build());
+            day.setRides(day.getRides() + count(shard, UsageShards.RIDES));
+            day.setRideSeconds(day.getRideSeconds() + count(shard, UsageShards.RIDE_SECONDS));
+            day.setRevenue(day.getRevenue().add(BigDecimal.valueOf(count(shard, UsageShards.REVENUE_CENTS), 2)));
+        }
+        return List.copyOf(days.values());
+    }
+
+    private static long count(DocumentSnapshot shard, String field) {
+        var value = shard.getLong(field);
+        return value == null ? 0 : value;
+    }
+}
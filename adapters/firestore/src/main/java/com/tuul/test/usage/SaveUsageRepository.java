@@ -0,0 +1,66 @@
+package com.tuul.test.usage;
+
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.SaveUsagePort;
+import com.tuul.test.util.FirestoreUnitOfWork;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Repository
+@Profile("!inmemory & !jdbc")
+class SaveUsageRepository implements SaveUsagePort {
+    private final Firestore firestore;
+    private final FirestoreUnitOfWork unitOfWork;
+    private final int shards;
+
+    SaveUsageRepository(Firestore firestore, FirestoreUnitOfWork unitOfWork,
+                        @Value("${usage.aggregates.shards:8}") int shards) {
+        this.firestore = firestore;
+        this.unitOfWork = unitOfWork;
+        this.shards = shards;
+    }
+
+    @Override
+    public void recordRide(Reservation reservation) {
+        var date = reservation.getStartTime().toLocalDate();
+        var rideSeconds = Math.max(0, Duration.between(reservation.getStartTime(), reservation.getEndTime()).toSeconds());
+        var revenueCents = reservation.getCostOfReservation() == null
+                ? 0 : reservation.getCostOfReservation().movePointRight(2).longValue();
+        var shard = ThreadLocalRandom.current().nextInt(shards);
+
+        FutureUtils.join(unitOfWork.write(batch -> {
+            increment(batch, UsageScope.VEHICLE, reservation.getVehicleId(), date, shard, rideSeconds, revenueCents);
+            increment(batch, UsageScope.USER, reservation.getUserId(), date, shard, rideSeconds, revenueCents);
+            increment(batch, UsageScope.FLEET, null, date, shard, rideSeconds, revenueCents);
+        }, "Failed to record ride usage in Firestore"));
+    }
+
+    private void increment(WriteBatch batch, UsageScope scope, UUID subjectId, LocalDate date, int shard,
+                           long rideSeconds, long revenueCents) {
+        var subject = UsageShards.subject(scope, subjectId);
+        var shardRef = firestore.collection(UsageShards.COLLECTION_NAME)
+                .document(UsageShards.documentId(scope, subject, date, shard));
+
+        batch.set(shardRef, Map.of(
+                UsageShards.SCOPE, scope.name(),
+                UsageShards.SUBJECT, subject,
+                UsageShards.DATE, date.toString(),
+                UsageShards.RIDES, FieldValue.increment(1),
+                UsageShards.RIDE_SECONDS, FieldValue.increment(rideSeconds),
+                UsageShards.REVENUE_CENTS, FieldValue.increment(revenueCents)
+        ), SetOptions.merge());
+    }
+}
@@ -0,0 +1,34 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.usage.model.UsageScope;
+import lombok.experimental.UtilityClass;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Daily usage is kept as sharded counters: every ride increments one randomly chosen shard document per vehicle, user
+ * and fleet day, so a busy fleet day spreads its writes over several documents instead of contending on one. Reading
+ * a day sums its shards.
+ */
+@UtilityClass
+class UsageShards {
+    static final String COLLECTION_NAME = "usageShards";
+    static final String SCOPE = "scope";
+    static final String SUBJECT = "subject";
+    static final String DATE = "date";
+    static final String RIDES = "rides";
+    static final String RIDE_SECONDS = "rideSeconds";
+    static final String REVENUE_CENTS = "revenueCents";
+
+    private static final String FLEET_SUBJECT = "fleet";
+
+    static String subject(UsageScope scope, UUID subjectId) {
+        return scope == UsageScope.FLEET ? FLEET_SUBJECT : subjectId.toString();
+    }
+
+    static String documentId(UsageScope scope, String subject, LocalDate date, int shard) {
+        return scope.name().toLowerCase(Locale.ROOT) + "_" + subject + "_" + date + "_" + shard;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tuul.test.user;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.Locale;
+
+@UtilityClass
+class EmailIndex {
+    static final String COLLECTION_NAME = "emails";
+    static final String USER_ID = "userId";
+
+    static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.tuul.test.user;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreProjections;
+import com.tuul.test.util.FirestoreUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Creates the {@code emails} index documents for users registered before the index existed. Users whose
+ * normalized email collides with an already indexed user are skipped and logged.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory & !jdbc")
+@RequiredArgsConstructor
+@ConditionalOnProperty("firestore.migration.email-index-backfill.enabled")
+class EmailIndexBackfillRunner implements ApplicationRunner {
+    private final Firestore firestore;
+    private static final String COLLECTION_NAME = "users";
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var query = firestore.collection(COLLECTION_NAME);
+        var users = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(
+                FirestoreProjections.queryFields(query, "email"), "Failed to fetch users"));
+
+        Map<String, String> indexed = new HashMap<>();
+        var batch = firestore.batch();
+        int writes = 0;
+        for (var user : users.getDocuments()) {
+            var email = user.getString("email");
+            if (email == null) {
+                continue;
+            }
+
+            var normalizedEmail = EmailIndex.normalize(email);
+            var existing = indexed.putIfAbsent(normalizedEmail, user.getId());
+            if (existing != null) {
+                log.warn("Skipping user {}, email already indexed for user {}", user.getId(), existing);
+                continue;
+            }
+
+            batch.set(firestore.collection(EmailIndex.COLLECTION_NAME).document(normalizedEmail),
+                    Map.of(EmailIndex.USER_ID, user.getId()));
+            if (++writes == MAX_BATCH_SIZE) {
+                commit(batch);
+                batch = firestore.batch();
+                writes = 0;
+            }
+        }
+
+        if (writes > 0) {
+            commit(batch);
+        }
+        log.info("Indexed emails of {} users", indexed.size());
+    }
+
+    private void commit(WriteBatch batch) {
+        FutureUtils.join(FirestoreUtils.safeFirestoreFuture(batch.commit(), "Failed to backfill email index"));
+    }
+}
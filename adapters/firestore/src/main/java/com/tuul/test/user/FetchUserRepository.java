@@ -1,129 +1,127 @@
 package com.tuul.test.user;
 
-import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
 import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.QueryDocumentSnapshot;
-import com.google.cloud.firestore.QuerySnapshot;
-import com.tuul.test.util.FirestoreUtils;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreOperations;
+import com.tuul.test.util.FirestoreProjections;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.port.FetchUserPort;
-import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Repository
-@RequiredArgsConstructor
+@Profile("!inmemory & !jdbc")
 class FetchUserRepository implements FetchUserPort {
     private final Firestore firestore;
+    private final FirestoreOperations operations;
     private static final String COLLECTION_NAME = "users";
+    private static final String ACTIVE_VEHICLE = "activeVehicle";
+
+    FetchUserRepository(Firestore firestore, FirestoreOperations operations) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(FetchUserRepository.class);
+    }
 
     @Override
     public Optional<User> findByEmail(String email) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            ApiFuture<QuerySnapshot> future = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("email", email)
-                    .limit(1)
-                    .get();
-
-            QuerySnapshot querySnapshot = future.get();
-
-            if (!querySnapshot.isEmpty()) {
-                QueryDocumentSnapshot document = querySnapshot.getDocuments().get(0);
-                User user = User.builder()
-                        .id(UUID.fromString(document.getId()))
-                        .email(document.getString("email"))
-                        .password(document.getString("password"))
-                        .name(document.getString("name"))
-                        .build();
-                return Optional.of(user);
-            }
-
-            return Optional.empty();
-        }, "Failed to fetch user by email.");
+        return FutureUtils.join(findByEmailAsync(email));
     }
 
     @Override
     public Optional<User> fetch(UUID id) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var documentSnapshot = firestore.collection(COLLECTION_NAME)
-                    .document(id.toString())
-                    .get()
-                    .get();
-
-            if (documentSnapshot.exists()) {
-                User user = User.builder()
-                        .id(UUID.fromString(documentSnapshot.getId()))
-                        .email(documentSnapshot.getString("email"))
-                        .password(documentSnapshot.getString("password"))
-                        .name(documentSnapshot.getString("name"))
-                        .build();
-
-                DocumentReference activeVehicleRef = documentSnapshot.get("activeVehicle", DocumentReference.class);
-                if (activeVehicleRef != null) {
-                    String activeVehicleId = activeVehicleRef.getId();
-                    user.setActiveVehicleId(UUID.fromString(activeVehicleId));
-                }
-
-                return Optional.of(user);
-            }
-
-            return Optional.empty();
-        }, "Failed to fetch user from Firestore");
+        return FutureUtils.join(fetchAsync(id));
     }
 
     @Override
-    public boolean existsByEmail(String email) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            QuerySnapshot querySnapshot = firestore.collection(COLLECTION_NAME)
-                    .whereEqualTo("email", email)
-                    .get()
-                    .get();
-
-            return !querySnapshot.isEmpty();
-        }, "Failed to check if user exists by email");
+    public boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId) {
+        return FutureUtils.join(existsActiveVehicleUnderUserAsync(userId, vehicleId));
     }
 
     @Override
-    public boolean existsActiveVehicleById(UUID userId) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var querySnapshot = firestore.collection("users")
-                    .whereEqualTo("id", userId.toString())
-                    .whereNotEqualTo("activeVehicle", null)
-                    .limit(1)
-                    .get()
-                    .get();
-
-            return !querySnapshot.isEmpty();
-        }, "Error checking active vehicle by user ID");
+    public Map<UUID, UUID> fetchActiveVehicleIds(Collection<UUID> userIds) {
+        return FutureUtils.join(fetchActiveVehicleIdsAsync(userIds));
     }
 
     @Override
-    public boolean existsActiveVehicleUnderAnyUsers(UUID vehicleId) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var querySnapshot = firestore.collection("users")
-                    .whereEqualTo("activeVehicle", firestore.document("vehicles/" + vehicleId.toString()))
-                    .limit(1)
-                    .get()
-                    .get();
-
-            return !querySnapshot.isEmpty();
-        }, "Error checking active vehicle under any users");
+    public CompletableFuture<Optional<User>> findByEmailAsync(String email) {
+        var emailRef = firestore.collection(EmailIndex.COLLECTION_NAME)
+                .document(EmailIndex.normalize(email));
+
+        return operations.lookup(emailRef::get, "Failed to fetch user by email.")
+                .thenCompose(emailSnapshot -> {
+                    var userId = emailSnapshot.getString(EmailIndex.USER_ID);
+                    return userId == null
+                            ? CompletableFuture.completedFuture(Optional.<User>empty())
+                            : fetchAsync(UUID.fromString(userId));
+                });
     }
 
     @Override
-    public boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var querySnapshot = firestore.collection("users")
-                    .whereEqualTo("id", userId.toString())
-                    .whereEqualTo("activeVehicle", firestore.document("vehicles/" + vehicleId.toString()))
-                    .limit(1)
-                    .get()
-                    .get();
-
-            return !querySnapshot.isEmpty();
-        }, "Error checking active vehicle under user");
+    public CompletableFuture<Optional<User>> fetchAsync(UUID id) {
+        var userRef = firestore.collection(COLLECTION_NAME)
+                .document(id.toString());
+
+        return operations.lookup(userRef::get, "Failed to fetch user from Firestore")
+                .thenApply(documentSnapshot -> documentSnapshot.exists()
+                        ? Optional.of(toUser(documentSnapshot))
+                        : Optional.empty());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsActiveVehicleUnderUserAsync(UUID userId, UUID vehicleId) {
+        var vehicleRef = firestore.document("vehicles/" + vehicleId.toString());
+        var userRef = firestore.collection(COLLECTION_NAME).document(userId.toString());
+
+        return operations.lookup(() -> FirestoreProjections.getFields(userRef, ACTIVE_VEHICLE), "Error checking active vehicle under user")
+                .thenApply(documentSnapshot -> vehicleRef.equals(documentSnapshot.get(ACTIVE_VEHICLE, DocumentReference.class)));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, UUID>> fetchActiveVehicleIdsAsync(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        var userRefs = userIds.stream()
+                .map(userId -> firestore.collection(COLLECTION_NAME).document(userId.toString()))
+                .toArray(DocumentReference[]::new);
+
+        return operations.lookup(() -> FirestoreProjections.getAllFields(firestore, userRefs, ACTIVE_VEHICLE),
+                        "Error fetching active vehicles of users")
+                .thenApply(documentSnapshots -> {
+                    Map<UUID, UUID> activeVehicleIds = new HashMap<>();
+                    for (var documentSnapshot : documentSnapshots) {
+                        var activeVehicleRef = documentSnapshot.get(ACTIVE_VEHICLE, DocumentReference.class);
+                        if (activeVehicleRef != null) {
+                            activeVehicleIds.put(UUID.fromString(documentSnapshot.getId()), UUID.fromString(activeVehicleRef.getId()));
+                        }
+                    }
+                    return activeVehicleIds;
+                });
+    }
+
+    private User toUser(DocumentSnapshot documentSnapshot) {
+        User user = User.builder()
+                .id(UUID.fromString(documentSnapshot.getId()))
+                .email(documentSnapshot.getString("email"))
+                .password(documentSnapshot.getString("password"))
+                .name(documentSnapshot.getString("name"))
+                .build();
+
+        DocumentReference activeVehicleRef = documentSnapshot.get(ACTIVE_VEHICLE, DocumentReference.class);
+        if (activeVehicleRef != null) {
+            user.setActiveVehicleId(UUID.fromString(activeVehicleRef.getId()));
+        }
+
+        return user;
     }
 }
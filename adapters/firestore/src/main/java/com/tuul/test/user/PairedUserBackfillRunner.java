@@ -0,0 +1,48 @@
+package com.tuul.test.user;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreProjections;
+import com.tuul.test.util.FirestoreUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the {@code pairedUser} back-reference onto vehicles paired before pairing became transactional.
+ */
+@Slf4j
+@Component
+@Profile("!inmemory & !jdbc")
+@RequiredArgsConstructor
+@ConditionalOnProperty("firestore.migration.paired-user-backfill.enabled")
+class PairedUserBackfillRunner implements ApplicationRunner {
+    private final Firestore firestore;
+    private static final String COLLECTION_NAME = "users";
+    private static final int MAX_BATCH_SIZE = 500;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var query = firestore.collection(COLLECTION_NAME)
+                .whereNotEqualTo("activeVehicle", null);
+
+        var pairedUsers = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(
+                FirestoreProjections.queryFields(query, "activeVehicle"), "Failed to fetch paired users"));
+
+        var documents = pairedUsers.getDocuments();
+        for (int from = 0; from < documents.size(); from += MAX_BATCH_SIZE) {
+            var batch = firestore.batch();
+            for (var user : documents.subList(from, Math.min(from + MAX_BATCH_SIZE, documents.size()))) {
+                var vehicleRef = user.get("activeVehicle", DocumentReference.class);
+                batch.update(vehicleRef, "pairedUser", user.getReference());
+            }
+            FutureUtils.join(FirestoreUtils.safeFirestoreFuture(batch.commit(), "Failed to backfill paired users"));
+        }
+        log.info("Backfilled pairedUser on {} vehicles", pairedUsers.size());
+    }
+}
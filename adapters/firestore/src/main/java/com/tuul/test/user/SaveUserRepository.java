@@ -1,73 +1,159 @@
 package com.tuul.test.user;
 
-import com.google.api.core.ApiFuture;
 import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.FieldMask;
 import com.google.cloud.firestore.FieldValue;
 import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.WriteResult;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.TransactionOptions;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreOperations;
 import com.tuul.test.util.FirestoreUtils;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.port.SaveUserPort;
 import com.tuul.test.vehicle.model.ActiveVehicle;
-import lombok.RequiredArgsConstructor;
+import com.tuul.test.vehicle.model.PairingResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Repository
-@RequiredArgsConstructor
+@Profile("!inmemory & !jdbc")
 class SaveUserRepository implements SaveUserPort {
     private final Firestore firestore;
+    private final FirestoreOperations operations;
+    private final TransactionOptions transactionOptions;
     private static final String COLLECTION_NAME = "users";
     private static final String VEHICLES_COLLECTION_NAME = "vehicles";
+    private static final FieldMask PAIRING_MASK = FieldMask.of("activeVehicle", "pairedUser");
+
+    SaveUserRepository(Firestore firestore,
+                       FirestoreOperations operations,
+                       @Value("${firestore.transaction.max-attempts:3}") int maxAttempts) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(SaveUserRepository.class);
+        this.transactionOptions = TransactionOptions.createReadWriteOptionsBuilder()
+                .setNumberOfAttempts(maxAttempts)
+                .build();
+    }
+
+    @Override
+    public Optional<User> registerUser(User user) {
+        return FutureUtils.join(registerUserAsync(user));
+    }
 
     @Override
-    public User registerUser(User user) {
-        return FirestoreUtils.safeFirestoreQuery(() -> {
-            var userId = UUID.randomUUID();
-            user.setId(userId);
-
-            Map<String, Object> userData = Map.of(
-                    "id", userId.toString(),
-                    "email", user.getEmail(),
-                    "password", user.getPassword(),
-                    "name", user.getName()
-            );
-
-            firestore.collection(COLLECTION_NAME)
-                    .document(userId.toString())
-                    .set(userData)
-                    .get();
-
-            return user;
-        }, "Failed to register user in Firestore");
+    public void updatePassword(UUID userId, String password) {
+        FutureUtils.join(updatePasswordAsync(userId, password));
     }
 
     @Override
-    public void saveActiveVehicle(ActiveVehicle activeVehicle) {
-        FirestoreUtils.safeFirestoreQuery(() -> {
-            DocumentReference userRef = firestore.collection(COLLECTION_NAME)
-                    .document(activeVehicle.getUserId().toString());
-
-            DocumentReference vehicleRef = firestore.collection(VEHICLES_COLLECTION_NAME)
-                    .document(activeVehicle.getVehicleId().toString());
-
-            ApiFuture<WriteResult> future = userRef.update("activeVehicle", vehicleRef);
-            future.get();
-            return null;
-        }, "Failed to save active vehicle under user");
+    public PairingResult saveActiveVehicle(ActiveVehicle activeVehicle) {
+        return FutureUtils.join(saveActiveVehicleAsync(activeVehicle));
     }
 
     @Override
-    public void deleteActiveVehicle(ActiveVehicle activeVehicle) {
-        FirestoreUtils.safeFirestoreQuery(() -> {
-            DocumentReference userRef = firestore.collection(COLLECTION_NAME)
-                    .document(activeVehicle.getUserId().toString());
-
-            ApiFuture<WriteResult> future = userRef.update("activeVehicle", FieldValue.delete());
-            future.get();
-            return null;
-        }, "Failed to delete active vehicle under user");
+    public boolean deleteActiveVehicle(ActiveVehicle activeVehicle) {
+        return FutureUtils.join(deleteActiveVehicleAsync(activeVehicle));
+    }
+
+    @Override
+    public CompletableFuture<Optional<User>> registerUserAsync(User user) {
+        var userId = UUID.randomUUID();
+        user.setId(userId);
+
+        Map<String, Object> userData = Map.of(
+                "id", userId.toString(),
+                "email", user.getEmail(),
+                "password", user.getPassword(),
+                "name", user.getName()
+        );
+
+        DocumentReference emailRef = firestore.collection(EmailIndex.COLLECTION_NAME)
+                .document(EmailIndex.normalize(user.getEmail()));
+
+        WriteBatch batch = firestore.batch();
+        batch.create(emailRef, Map.of(EmailIndex.USER_ID, userId.toString()));
+        batch.create(firestore.collection(COLLECTION_NAME).document(userId.toString()), userData);
+
+        var result = new CompletableFuture<Optional<User>>();
+        operations.write(batch::commit, "Failed to register user in Firestore")
+                .whenComplete((writeResults, error) -> {
+                    if (error == null) {
+                        result.complete(Optional.of(user));
+                    } else if (FirestoreUtils.isAlreadyExists(error)) {
+                        result.complete(Optional.empty());
+                    } else {
+                        result.completeExceptionally(error);
+                    }
+                });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<Void> updatePasswordAsync(UUID userId, String password) {
+        var userRef = firestore.collection(COLLECTION_NAME)
+                .document(userId.toString());
+
+        return operations.write(() -> userRef.update("password", password), "Failed to update user password in Firestore")
+                .thenAccept(writeResult -> { });
+    }
+
+    @Override
+    public CompletableFuture<PairingResult> saveActiveVehicleAsync(ActiveVehicle activeVehicle) {
+        DocumentReference userRef = firestore.collection(COLLECTION_NAME)
+                .document(activeVehicle.getUserId().toString());
+
+        DocumentReference vehicleRef = firestore.collection(VEHICLES_COLLECTION_NAME)
+                .document(activeVehicle.getVehicleId().toString());
+
+        Transaction.Function<PairingResult> pairing = transaction -> {
+            var snapshots = transaction.getAll(new DocumentReference[]{userRef, vehicleRef}, PAIRING_MASK).get();
+            var userSnapshot = snapshots.get(0);
+            var vehicleSnapshot = snapshots.get(1);
+
+            if (userSnapshot.get("activeVehicle") != null) {
+                return PairingResult.USER_ALREADY_PAIRED;
+            }
+
+            if (vehicleSnapshot.get("pairedUser") != null) {
+                return PairingResult.VEHICLE_ALREADY_PAIRED;
+            }
+
+            transaction.update(userRef, "activeVehicle", vehicleRef);
+            transaction.update(vehicleRef, "pairedUser", userRef);
+            return PairingResult.PAIRED;
+        };
+
+        return operations.write(() -> firestore.runTransaction(pairing, transactionOptions), "Failed to save active vehicle under user");
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteActiveVehicleAsync(ActiveVehicle activeVehicle) {
+        DocumentReference userRef = firestore.collection(COLLECTION_NAME)
+                .document(activeVehicle.getUserId().toString());
+
+        DocumentReference vehicleRef = firestore.collection(VEHICLES_COLLECTION_NAME)
+                .document(activeVehicle.getVehicleId().toString());
+
+        Transaction.Function<Boolean> unpairing = transaction -> {
+            var userSnapshot = transaction.getAll(new DocumentReference[]{userRef}, PAIRING_MASK).get().get(0);
+
+            if (!vehicleRef.equals(userSnapshot.get("activeVehicle", DocumentReference.class))) {
+                return false;
+            }
+
+            transaction.update(userRef, "activeVehicle", FieldValue.delete());
+            transaction.update(vehicleRef, "pairedUser", FieldValue.delete());
+            return true;
+        };
+
+        return operations.write(() -> firestore.runTransaction(unpairing, transactionOptions), "Failed to delete active vehicle under user");
     }
 }
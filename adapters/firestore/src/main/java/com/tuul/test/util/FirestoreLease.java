@@ -0,0 +1,86 @@
+package com.tuul.test.util;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.TransactionOptions;
+import com.tuul.test.common.port.LeasePort;
+import com.tuul.test.common.util.FutureUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Leases are {@code leases/{name}} documents naming their holder and expiry, taken and released in transactions so
+ * that two instances racing for an expired lease cannot both win it.
+ */
+@Component
+@Profile("!inmemory & !jdbc")
+class FirestoreLease implements LeasePort {
+    private static final String COLLECTION_NAME = "leases";
+    private static final String HOLDER = "holder";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final Firestore firestore;
+    private final FirestoreOperations operations;
+    private final TransactionOptions transactionOptions;
+    private final Clock clock;
+    private final String holder = UUID.randomUUID().toString();
+
+    FirestoreLease(Firestore firestore,
+                   FirestoreOperations operations,
+                   Clock clock,
+                   @Value("${firestore.transaction.max-attempts:3}") int maxAttempts) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(FirestoreLease.class);
+        this.clock = clock;
+        this.transactionOptions = TransactionOptions.createReadWriteOptionsBuilder()
+                .setNumberOfAttempts(maxAttempts)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration duration) {
+        var leaseRef = firestore.collection(COLLECTION_NAME).document(name);
+        var now = clock.instant();
+        var expiresAt = now.plus(duration);
+
+        Transaction.Function<Boolean> acquiring = transaction -> {
+            var lease = transaction.get(leaseRef).get();
+            var currentExpiry = lease.getTimestamp(EXPIRES_AT);
+            if (lease.exists() && !holder.equals(lease.getString(HOLDER))
+                    && currentExpiry != null && currentExpiry.toDate().toInstant().isAfter(now)) {
+                return false;
+            }
+            transaction.set(leaseRef, Map.of(
+                    HOLDER, holder,
+                    EXPIRES_AT, Timestamp.ofTimeSecondsAndNanos(expiresAt.getEpochSecond(), expiresAt.getNano())
+            ));
+            return true;
+        };
+
+        return FutureUtils.join(operations.write(() -> firestore.runTransaction(acquiring, transactionOptions),
+                "Failed to acquire lease " + name));
+    }
+
+    @Override
+    public void release(String name) {
+        var leaseRef = firestore.collection(COLLECTION_NAME).document(name);
+
+        Transaction.Function<Void> releasing = transaction -> {
+            var lease = transaction.get(leaseRef).get();
+            if (holder.equals(lease.getString(HOLDER))) {
+                transaction.delete(leaseRef);
+            }
+            return null;
+        };
+
+        FutureUtils.join(operations.write(() -> firestore.runTransaction(releasing, transactionOptions),
+                "Failed to release lease " + name));
+    }
+}
@@ -0,0 +1,164 @@
+package com.tuul.test.util;
+
+import com.google.api.core.ApiFuture;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Puts a deadline on every Firestore call made on behalf of a request, so a slow RPC fails with a
+ * {@link DatabaseTimeoutException} instead of pinning the calling thread. Idempotent point lookups can be hedged:
+ * when the first attempt has not answered within the observed p95 lookup latency a second one is sent, if the read
+ * bulkhead has a permit left for it, and whichever completes first wins. Each repository gets its own view via
+ * {@link #forRepository(Class)} so that {@link FirestoreResilience} can break circuits and cap concurrency per
+ * repository.
+ */
+@Component
+@Profile("!inmemory & !jdbc")
+public class FirestoreOperations {
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String repository;
+    private final FirestoreResilience resilience;
+    private final Duration readDeadline;
+    private final Duration writeDeadline;
+    private final boolean hedgingEnabled;
+    private final Duration minHedgeDelay;
+    private final Timer lookupLatency;
+    private final Counter hedgedLookups;
+    private final Counter skippedHedges;
+    private final Counter readTimeouts;
+    private final Counter writeTimeouts;
+
+    private volatile long hedgeDelayNanos;
+    private volatile long hedgeDelayRefreshedAt = System.nanoTime();
+
+    FirestoreOperations(FirestoreResilience resilience,
+                        MeterRegistry meterRegistry,
+                        @Value("${firestore.deadline.read:PT2S}") Duration readDeadline,
+                        @Value("${firestore.deadline.write:PT5S}") Duration writeDeadline,
+                        @Value("${firestore.hedging.enabled:false}") boolean hedgingEnabled,
+                        @Value("${firestore.hedging.min-delay:PT0.02S}") Duration minHedgeDelay) {
+        this.repository = "firestore";
+        this.resilience = resilience;
+        this.readDeadline = readDeadline;
+        this.writeDeadline = writeDeadline;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelay = minHedgeDelay;
+        this.hedgeDelayNanos = minHedgeDelay.toNanos();
+        this.lookupLatency = Timer.builder("firestore.lookup.latency")
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        this.hedgedLookups = meterRegistry.counter("firestore.lookup.hedged");
+        this.skippedHedges = meterRegistry.counter("firestore.lookup.hedge.skipped");
+        this.readTimeouts = meterRegistry.counter("firestore.timeouts", "operation", "read");
+        this.writeTimeouts = meterRegistry.counter("firestore.timeouts", "operation", "write");
+    }
+
+    private FirestoreOperations(FirestoreOperations operations, String repository) {
+        this.repository = repository;
+        this.resilience = operations.resilience;
+        this.readDeadline = operations.readDeadline;
+        this.writeDeadline = operations.writeDeadline;
+        this.hedgingEnabled = operations.hedgingEnabled;
+        this.minHedgeDelay = operations.minHedgeDelay;
+        this.hedgeDelayNanos = operations.hedgeDelayNanos;
+        this.lookupLatency = operations.lookupLatency;
+        this.hedgedLookups = operations.hedgedLookups;
+        this.skippedHedges = operations.skippedHedges;
+        this.readTimeouts = operations.readTimeouts;
+        this.writeTimeouts = operations.writeTimeouts;
+    }
+
+    public FirestoreOperations forRepository(Class<?> repositoryClass) {
+        return new FirestoreOperations(this, repositoryClass.getSimpleName());
+    }
+
+    /**
+     * Queries and other reads; the call is issued only when the circuit and the read bulkhead admit it.
+     */
+    public <T> CompletableFuture<T> read(Supplier<ApiFuture<T>> call, String errorMessage) {
+        return resilience.read(repository, () ->
+                withDeadline(FirestoreUtils.safeFirestoreFuture(call.get(), errorMessage), readDeadline, readTimeouts, errorMessage));
+    }
+
+    public <T> CompletableFuture<T> write(Supplier<ApiFuture<T>> call, String errorMessage) {
+        return resilience.write(repository, () ->
+                withDeadline(FirestoreUtils.safeFirestoreFuture(call.get(), errorMessage), writeDeadline, writeTimeouts, errorMessage));
+    }
+
+    /**
+     * Reads that may safely be sent twice, i.e. document gets by reference.
+     */
+    public <T> CompletableFuture<T> lookup(Supplier<ApiFuture<T>> call, String errorMessage) {
+        return resilience.read(repository, () -> hedgedLookup(call, errorMessage));
+    }
+
+    private <T> CompletableFuture<T> hedgedLookup(Supplier<ApiFuture<T>> call, String errorMessage) {
+        var startedAt = System.nanoTime();
+        var primary = FirestoreUtils.safeFirestoreFuture(call.get(), errorMessage);
+        primary.whenComplete((value, error) -> lookupLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        if (!hedgingEnabled) {
+            return withDeadline(primary, readDeadline, readTimeouts, errorMessage);
+        }
+
+        var result = new CompletableFuture<T>();
+        relay(primary, result);
+        var hedgeTimer = FirestoreUtils.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            resilience.tryHedge(repository, () -> FirestoreUtils.safeFirestoreFuture(call.get(), errorMessage))
+                    .ifPresentOrElse(hedge -> {
+                        hedgedLookups.increment();
+                        relay(hedge, result);
+                        result.whenComplete((value, error) -> hedge.cancel(true));
+                    }, skippedHedges::increment);
+        }, Duration.ofNanos(hedgeDelayNanos()));
+        result.whenComplete((value, error) -> {
+            hedgeTimer.cancel(false);
+            primary.cancel(true);
+        });
+        return withDeadline(result, readDeadline, readTimeouts, errorMessage);
+    }
+
+    private long hedgeDelayNanos() {
+        var now = System.nanoTime();
+        if (now - hedgeDelayRefreshedAt > HEDGE_DELAY_REFRESH_NANOS) {
+            hedgeDelayRefreshedAt = now;
+            for (var percentile : lookupLatency.takeSnapshot().percentileValues()) {
+                hedgeDelayNanos = Math.max(minHedgeDelay.toNanos(), (long) percentile.value(TimeUnit.NANOSECONDS));
+            }
+        }
+        return hedgeDelayNanos;
+    }
+
+    private static <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future, Duration deadline,
+                                                         Counter timeouts, String errorMessage) {
+        future.whenComplete((value, error) -> {
+            if (error instanceof DatabaseTimeoutException) {
+                timeouts.increment();
+            }
+        });
+        return FirestoreUtils.withDeadline(future, deadline, errorMessage);
+    }
+
+    private static <T> void relay(CompletableFuture<T> source, CompletableFuture<T> target) {
+        source.whenComplete((value, error) -> {
+            if (error == null) {
+                target.complete(value);
+            } else {
+                target.completeExceptionally(error);
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.tuul.test.util;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QuerySnapshot;
+import lombok.experimental.UtilityClass;
+
+import java.util.List;
+
+@UtilityClass
+public class FirestoreProjections {
+
+    public static ApiFuture<DocumentSnapshot> getFields(DocumentReference reference, String... fields) {
+        return reference.get(FieldMask.of(fields));
+    }
+
+    public static ApiFuture<List<DocumentSnapshot>> getAllFields(Firestore firestore, DocumentReference[] references, String... fields) {
+        return firestore.getAll(references, FieldMask.of(fields));
+    }
+
+    public static ApiFuture<QuerySnapshot> queryFields(Query query, String... fields) {
+        return query.select(fields).get();
+    }
+}
@@ -0,0 +1,146 @@
+package com.tuul.test.util;
+
+import com.tuul.test.common.exception.ServiceOverloadedException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * One circuit breaker per repository, tripped by the failure and slow call rate of its Firestore calls, plus separate
+ * read and write bulkheads capping how many of its calls may be in flight. Rejected calls fail immediately with a
+ * {@link ServiceOverloadedException} instead of queueing request threads behind a degraded Firestore.
+ */
+@Component
+@Profile("!inmemory & !jdbc")
+class FirestoreResilience {
+    private static final String READ = "read";
+    private static final String WRITE = "write";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry meterRegistry;
+    private final Duration openStateRetryAfter;
+    private final Duration bulkheadRetryAfter;
+
+    FirestoreResilience(MeterRegistry meterRegistry,
+                        @Value("${firestore.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+                        @Value("${firestore.resilience.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                        @Value("${firestore.resilience.slow-call-duration:PT1S}") Duration slowCallDuration,
+                        @Value("${firestore.resilience.sliding-window-size:50}") int slidingWindowSize,
+                        @Value("${firestore.resilience.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+                        @Value("${firestore.resilience.wait-duration-in-open-state:PT10S}") Duration waitDurationInOpenState,
+                        @Value("${firestore.resilience.read-concurrency:64}") int readConcurrency,
+                        @Value("${firestore.resilience.write-concurrency:32}") int writeConcurrency,
+                        @Value("${firestore.resilience.bulkhead-retry-after:PT1S}") Duration bulkheadRetryAfter) {
+        this.meterRegistry = meterRegistry;
+        this.openStateRetryAfter = waitDurationInOpenState;
+        this.bulkheadRetryAfter = bulkheadRetryAfter;
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .recordException(error -> !FirestoreUtils.isAlreadyExists(error))
+                .build());
+        this.bulkheads = BulkheadRegistry.of(Map.of(
+                READ, bulkheadConfig(readConcurrency),
+                WRITE, bulkheadConfig(writeConcurrency)
+        ));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    <T> CompletableFuture<T> read(String repository, Supplier<CompletableFuture<T>> call) {
+        return guard(repository, bulkheads.bulkhead(repository + "." + READ, READ), call);
+    }
+
+    <T> CompletableFuture<T> write(String repository, Supplier<CompletableFuture<T>> call) {
+        return guard(repository, bulkheads.bulkhead(repository + "." + WRITE, WRITE), call);
+    }
+
+    /**
+     * Sends a hedged duplicate of a read the circuit breaker already admitted, only if the read bulkhead has a permit
+     * for it, so hedging never pushes in-flight calls past the concurrency limit. The breaker sees the hedged read as
+     * one call and not each attempt.
+     */
+    <T> Optional<CompletableFuture<T>> tryHedge(String repository, Supplier<CompletableFuture<T>> call) {
+        var bulkhead = bulkheads.bulkhead(repository + "." + READ, READ);
+        if (!bulkhead.tryAcquirePermission()) {
+            return Optional.empty();
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            bulkhead.onComplete();
+            throw e;
+        }
+        future.whenComplete((value, error) -> bulkhead.onComplete());
+        return Optional.of(future);
+    }
+
+    private <T> CompletableFuture<T> guard(String repository, Bulkhead bulkhead, Supplier<CompletableFuture<T>> call) {
+        var circuitBreaker = circuitBreakers.circuitBreaker(repository);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            rejected(repository, "circuit_open");
+            return CompletableFuture.failedFuture(
+                    new ServiceOverloadedException("Database is unavailable, please try again later.", openStateRetryAfter));
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            rejected(repository, "bulkhead_full");
+            return CompletableFuture.failedFuture(
+                    new ServiceOverloadedException("Too many concurrent database calls, please try again later.", bulkheadRetryAfter));
+        }
+
+        var startedAt = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            bulkhead.onComplete();
+            circuitBreaker.onError(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS, e);
+            throw e;
+        }
+
+        future.whenComplete((value, error) -> {
+            bulkhead.onComplete();
+            var duration = System.nanoTime() - startedAt;
+            if (error == null) {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            } else {
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, error);
+            }
+        });
+        return future;
+    }
+
+    private void rejected(String repository, String reason) {
+        meterRegistry.counter("firestore.calls.rejected", "repository", repository, "reason", reason).increment();
+    }
+
+    private static BulkheadConfig bulkheadConfig(int maxConcurrentCalls) {
+        return BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+    }
+}
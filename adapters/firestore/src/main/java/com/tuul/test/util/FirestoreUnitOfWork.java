@@ -0,0 +1,86 @@
+package com.tuul.test.util;
+
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.common.util.FutureUtils;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Collects the writes issued by repositories on the current thread into one {@link WriteBatch} that is committed
+ * when the outermost {@link #execute(Runnable)} returns. Outside a unit of work every write commits on its own, and
+ * so does a write issued from another thread while a unit is open, e.g. from an async callback. If the work throws,
+ * its queued writes are discarded. Actions registered with a write run once the commit carrying it has finished, so
+ * caches are evicted after the batch lands rather than when the write is queued.
+ */
+@Component
+@Profile("!inmemory & !jdbc")
+public class FirestoreUnitOfWork implements UnitOfWorkPort {
+    private static final ThreadLocal<PendingWrites> PENDING_WRITES = new ThreadLocal<>();
+
+    private final Firestore firestore;
+    private final FirestoreOperations operations;
+
+    FirestoreUnitOfWork(Firestore firestore, FirestoreOperations operations) {
+        this.firestore = firestore;
+        this.operations = operations.forRepository(FirestoreUnitOfWork.class);
+    }
+
+    @Override
+    public void execute(Runnable work) {
+        if (PENDING_WRITES.get() != null) {
+            work.run();
+            return;
+        }
+
+        var pendingWrites = new PendingWrites(new ArrayList<>(), new ArrayList<>());
+        PENDING_WRITES.set(pendingWrites);
+        try {
+            work.run();
+        } finally {
+            PENDING_WRITES.remove();
+        }
+
+        if (!pendingWrites.writes().isEmpty()) {
+            var batch = firestore.batch();
+            pendingWrites.writes().forEach(writes -> writes.accept(batch));
+            try {
+                FutureUtils.join(operations.write(batch::commit, "Failed to commit unit of work"));
+            } finally {
+                pendingWrites.afterCommit().forEach(Runnable::run);
+            }
+        }
+    }
+
+    public CompletableFuture<Void> write(Consumer<WriteBatch> writes, String errorMessage) {
+        return write(writes, () -> { }, errorMessage);
+    }
+
+    /**
+     * Like {@link #write(Consumer, String)}, and runs {@code afterCommit} once the commit carrying the writes has
+     * finished, whether or not it succeeded.
+     */
+    public CompletableFuture<Void> write(Consumer<WriteBatch> writes, Runnable afterCommit, String errorMessage) {
+        var pendingWrites = PENDING_WRITES.get();
+        if (pendingWrites != null) {
+            pendingWrites.writes().add(writes);
+            pendingWrites.afterCommit().add(afterCommit);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var batch = firestore.batch();
+        writes.accept(batch);
+        return operations.write(batch::commit, errorMessage)
+                .whenComplete((writeResults, error) -> afterCommit.run())
+                .thenAccept(writeResults -> { });
+    }
+
+    private record PendingWrites(List<Consumer<WriteBatch>> writes, List<Runnable> afterCommit) {
+    }
+}
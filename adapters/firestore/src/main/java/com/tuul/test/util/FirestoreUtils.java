@@ -1,18 +1,76 @@
 package com.tuul.test.util;
 
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
 import lombok.experimental.UtilityClass;
 
-import java.util.concurrent.ExecutionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @UtilityClass
 public class FirestoreUtils {
+    static final ScheduledThreadPoolExecutor SCHEDULER = scheduler();
 
-    public static <T> T safeFirestoreQuery(FirestoreQuery<T> query, String errorMessage) {
-        try {
-            return query.execute();
-        } catch (ExecutionException | InterruptedException e) {
-            throw new DatabaseAccessException(errorMessage, e);
+    public static <T> CompletableFuture<T> safeFirestoreFuture(ApiFuture<T> future, String errorMessage) {
+        var result = new CompletableFuture<T>();
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(new DatabaseAccessException(errorMessage, t));
+            }
+
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+        }, MoreExecutors.directExecutor());
+        // a no-op once the RPC finished; otherwise a timed out or cancelled result releases the call
+        result.whenComplete((value, error) -> future.cancel(true));
+        return result;
+    }
+
+    public static <T> CompletableFuture<T> withDeadline(CompletableFuture<T> future, Duration deadline, String errorMessage) {
+        var timeout = schedule(() -> future.completeExceptionally(new DatabaseTimeoutException(errorMessage, deadline)), deadline);
+        // almost every call answers long before its deadline, so drop the timer rather than keep it queued until then
+        future.whenComplete((value, error) -> timeout.cancel(false));
+        return future;
+    }
+
+    /**
+     * Runs {@code task} on the common pool after {@code delay}, like {@link CompletableFuture#delayedExecutor}, but
+     * returns a handle that removes it from the timer queue when cancelled.
+     */
+    static ScheduledFuture<?> schedule(Runnable task, Duration delay) {
+        return SCHEDULER.schedule(() -> ForkJoinPool.commonPool().execute(task), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor scheduler() {
+        var scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            var thread = new Thread(task, "firestore-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    public static boolean isAlreadyExists(Throwable throwable) {
+        for (var cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException
+                    && apiException.getStatusCode().getCode() == StatusCode.Code.ALREADY_EXISTS) {
+                return true;
+            }
         }
+        return false;
     }
 }
@@ -0,0 +1,165 @@
+package com.tuul.test.vehicle;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-through cache in front of {@link FetchVehicleRepository}. A snapshot listener on the vehicles collection
+ * keeps a {@link VehicleCodeIndex} and the cached vehicles current across instances, so codes resolve in memory
+ * and unknown codes are rejected without a read. Until the initial snapshot arrives, or after the listener fails,
+ * lookups by code fall back to Firestore and the TTL bounds staleness. A failed listener is registered again after
+ * an exponential backoff, and the index turns live once the new listener delivers its initial snapshot. Listener
+ * updates replace cached vehicles, including reads still in flight, so a slower read never overwrites a newer state.
+ */
+@Slf4j
+@Primary
+@Repository
+@Profile("!inmemory & !jdbc")
+@ConditionalOnProperty(value = "vehicle.cache.enabled", matchIfMissing = true)
+class CachingFetchVehicleRepository implements FetchVehiclePort, DisposableBean {
+    private final FetchVehicleRepository delegate;
+    private final AsyncCache<UUID, Vehicle> byId;
+    private final VehicleCodeIndex codeIndex = new VehicleCodeIndex();
+    private final Counter unknownCodes;
+    private final Firestore firestore;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile ListenerRegistration listenerRegistration;
+    private volatile boolean destroyed;
+
+    CachingFetchVehicleRepository(FetchVehicleRepository delegate,
+                                  Firestore firestore,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${vehicle.cache.max-size:1000}") long maxSize,
+                                  @Value("${vehicle.cache.expire-after-write:PT5M}") Duration expireAfterWrite,
+                                  @Value("${vehicle.cache.listener.initial-backoff:PT1S}") Duration initialBackoff,
+                                  @Value("${vehicle.cache.listener.max-backoff:PT1M}") Duration maxBackoff) {
+        this.delegate = delegate;
+        this.firestore = firestore;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "vehiclesById");
+        Gauge.builder("vehicle.code.index.size", codeIndex, VehicleCodeIndex::size).register(meterRegistry);
+        this.unknownCodes = meterRegistry.counter("vehicle.code.index.unknown");
+
+        subscribe();
+    }
+
+    @Override
+    public Optional<Vehicle> findByCode(String code) {
+        return FutureUtils.join(findByCodeAsync(code));
+    }
+
+    @Override
+    public Optional<Vehicle> fetch(UUID id) {
+        return FutureUtils.join(fetchAsync(id));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Vehicle>> findByCodeAsync(String code) {
+        if (codeIndex.isLive()) {
+            var id = codeIndex.find(code);
+            if (id.isEmpty()) {
+                unknownCodes.increment();
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            return fetchAsync(id.get());
+        }
+        return delegate.findByCodeAsync(code)
+                .thenApply(vehicle -> {
+                    // never replace an entry the snapshot listener may have refreshed while this read was in flight
+                    vehicle.ifPresent(found -> byId.asMap().putIfAbsent(found.getId(), CompletableFuture.completedFuture(found)));
+                    return vehicle;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Optional<Vehicle>> fetchAsync(UUID id) {
+        // the read in flight is the cache entry, so a listener update replacing it wins over the older read result
+        return byId.get(id, (key, executor) -> delegate.fetchAsync(key).thenApply(vehicle -> vehicle.orElse(null)))
+                .thenApply(Optional::ofNullable);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        listenerRegistration.remove();
+    }
+
+    private synchronized void subscribe() {
+        if (destroyed) {
+            return;
+        }
+        listenerRegistration = firestore.collection(FetchVehicleRepository.COLLECTION_NAME)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        onListenerError(error);
+                        return;
+                    }
+                    consecutiveFailures.set(0);
+                    onSnapshot(snapshot);
+                });
+    }
+
+    private void onListenerError(Exception error) {
+        codeIndex.reset();
+        byId.synchronous().invalidateAll();
+        if (destroyed) {
+            return;
+        }
+
+        var failures = Math.min(consecutiveFailures.getAndIncrement(), 30);
+        var backoff = initialBackoff.multipliedBy(1L << failures);
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        log.error("Vehicle snapshot listener failed, falling back to Firestore lookups and resubscribing in {} ms",
+                backoff.toMillis(), error);
+        CompletableFuture.delayedExecutor(backoff.toMillis(), TimeUnit.MILLISECONDS).execute(this::subscribe);
+    }
+
+    private void onSnapshot(QuerySnapshot snapshot) {
+        for (var change : snapshot.getDocumentChanges()) {
+            var vehicle = VehicleMapper.toVehicle(change.getDocument());
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                codeIndex.remove(vehicle.getId());
+                byId.synchronous().invalidate(vehicle.getId());
+            } else {
+                codeIndex.put(vehicle.getId(), vehicle.getCode());
+                byId.asMap().computeIfPresent(vehicle.getId(), (id, cached) -> CompletableFuture.completedFuture(vehicle));
+            }
+        }
+        codeIndex.markLive();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tuul.test.vehicle;
+
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.util.FirestoreUnitOfWork;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Repository
+@Profile("!inmemory & !jdbc")
+@RequiredArgsConstructor
+class SaveVehicleRepository implements SaveVehiclePort {
+    private final Firestore firestore;
+    private final FirestoreUnitOfWork unitOfWork;
+
+    @Override
+    public void updatePoweredOn(UUID vehicleId, boolean poweredOn) {
+        FutureUtils.join(updatePoweredOnAsync(vehicleId, poweredOn));
+    }
+
+    @Override
+    public CompletableFuture<Void> updatePoweredOnAsync(UUID vehicleId, boolean poweredOn) {
+        var vehicleRef = firestore.collection(FetchVehicleRepository.COLLECTION_NAME).document(vehicleId.toString());
+
+        return unitOfWork.write(batch -> batch.update(vehicleRef, "poweredOn", poweredOn),
+                "Failed to update vehicle power state");
+    }
+}
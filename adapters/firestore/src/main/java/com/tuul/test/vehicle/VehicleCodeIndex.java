@@ -0,0 +1,55 @@
+package com.tuul.test.vehicle;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Code to id index over the whole vehicles collection. Only trusted once {@link #isLive()}, i.e. after the
+ * listener delivered the initial snapshot, at which point a missing code means the vehicle does not exist.
+ */
+class VehicleCodeIndex {
+    private final Map<String, UUID> idsByCode = new ConcurrentHashMap<>();
+    private final Map<UUID, String> codesById = new ConcurrentHashMap<>();
+    private volatile boolean live;
+
+    boolean isLive() {
+        return live;
+    }
+
+    Optional<UUID> find(String code) {
+        return Optional.ofNullable(idsByCode.get(code));
+    }
+
+    int size() {
+        return idsByCode.size();
+    }
+
+    void put(UUID id, String code) {
+        var previousCode = code != null ? codesById.put(id, code) : codesById.remove(id);
+        if (previousCode != null && !previousCode.equals(code)) {
+            idsByCode.remove(previousCode, id);
+        }
+        if (code != null) {
+            idsByCode.put(code, id);
+        }
+    }
+
+    void remove(UUID id) {
+        var previousCode = codesById.remove(id);
+        if (previousCode != null) {
+            idsByCode.remove(previousCode, id);
+        }
+    }
+
+    void markLive() {
+        live = true;
+    }
+
+    void reset() {
+        live = false;
+        idsByCode.clear();
+        codesById.clear();
+    }
+}
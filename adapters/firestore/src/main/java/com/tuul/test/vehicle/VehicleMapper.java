@@ -0,0 +1,32 @@
+package com.tuul.test.vehicle;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.vehicle.model.Vehicle;
+import lombok.experimental.UtilityClass;
+
+import java.util.UUID;
+
+@UtilityClass
+class VehicleMapper {
+
+    static Vehicle toVehicle(DocumentSnapshot documentSnapshot) {
+        return Vehicle.builder()
+                .id(UUID.fromString(documentSnapshot.getId()))
+                .code(documentSnapshot.getString("vehicleCode"))
+                .stateOfCharge(getDoubleOrZero(documentSnapshot, "stateOfCharge"))
+                .coordinates(Coordinates.builder()
+                        .latitude(getDoubleOrZero(documentSnapshot, "coordinates.latitude"))
+                        .longitude(getDoubleOrZero(documentSnapshot, "coordinates.longitude"))
+                        .build())
+                .poweredOn(Boolean.TRUE.equals(documentSnapshot.getBoolean("poweredOn")))
+                .odometer(getDoubleOrZero(documentSnapshot, "odometer"))
+                .estimatedRange(getDoubleOrZero(documentSnapshot, "estimatedRange"))
+                .build();
+    }
+
+    private static double getDoubleOrZero(DocumentSnapshot documentSnapshot, String field) {
+        var value = documentSnapshot.getDouble(field);
+        return value != null ? value : 0.0;
+    }
+}
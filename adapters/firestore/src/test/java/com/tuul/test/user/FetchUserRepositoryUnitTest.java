@@ -0,0 +1,94 @@
+package com.tuul.test.user;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldMask;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.util.FirestoreOperations;
+import com.tuul.test.util.FirestoreUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FetchUserRepositoryUnitTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID UNPAIRED_USER_ID = UUID.randomUUID();
+    private static final UUID MISSING_USER_ID = UUID.randomUUID();
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+    private final Firestore firestore = mock(Firestore.class);
+    private final CollectionReference users = mock(CollectionReference.class);
+    private final FirestoreOperations operations = mock(FirestoreOperations.class);
+
+    private FetchUserRepository repository;
+
+    @BeforeEach
+    void setup() {
+        when(firestore.collection("users")).thenReturn(users);
+        when(users.document(anyString())).thenAnswer(invocation -> reference(invocation.getArgument(0)));
+        when(operations.forRepository(FetchUserRepository.class)).thenReturn(operations);
+        when(operations.<List<DocumentSnapshot>>lookup(any(), anyString())).thenAnswer(invocation -> {
+            Supplier<ApiFuture<List<DocumentSnapshot>>> call = invocation.getArgument(0);
+            return FirestoreUtils.safeFirestoreFuture(call.get(), invocation.getArgument(1));
+        });
+        repository = new FetchUserRepository(firestore, operations);
+    }
+
+    @Nested
+    class when_fetching_active_vehicles_of_users {
+
+        @Test
+        void given_users_with_and_without_active_vehicle_then_map_only_paired_ones_in_one_get_all() {
+            var snapshots = List.of(
+                    snapshot(USER_ID, reference(VEHICLE_ID.toString())),
+                    snapshot(UNPAIRED_USER_ID, null),
+                    snapshot(MISSING_USER_ID, null));
+            when(firestore.getAll(any(DocumentReference[].class), any(FieldMask.class)))
+                    .thenReturn(ApiFutures.immediateFuture(snapshots));
+
+            var activeVehicleIds = repository.fetchActiveVehicleIds(List.of(USER_ID, UNPAIRED_USER_ID, MISSING_USER_ID));
+
+            assertThat(activeVehicleIds).isEqualTo(Map.of(USER_ID, VEHICLE_ID));
+            verify(firestore).getAll(argThat(references -> references.length == 3), any(FieldMask.class));
+        }
+
+        @Test
+        void given_no_user_ids_then_returns_empty_without_a_read() {
+            assertThat(repository.fetchActiveVehicleIds(List.of())).isEmpty();
+
+            verifyNoInteractions(firestore);
+            verify(operations, never()).lookup(any(), anyString());
+        }
+    }
+
+    private static DocumentReference reference(String id) {
+        var reference = mock(DocumentReference.class);
+        when(reference.getId()).thenReturn(id);
+        return reference;
+    }
+
+    // a user id with no document comes back as a snapshot that does not exist and so has no fields
+    private static DocumentSnapshot snapshot(UUID userId, DocumentReference activeVehicle) {
+        var snapshot = mock(DocumentSnapshot.class);
+        when(snapshot.getId()).thenReturn(userId.toString());
+        when(snapshot.get("activeVehicle", DocumentReference.class)).thenReturn(activeVehicle);
+        return snapshot;
+    }
+}
@@ -0,0 +1,211 @@
+package com.tuul.test.util;
+
+import com.google.api.core.SettableApiFuture;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
+import com.tuul.test.common.util.FutureUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FirestoreOperationsUnitTest {
+
+    private static final Duration READ_DEADLINE = Duration.ofMillis(500);
+    private static final Duration MIN_HEDGE_DELAY = Duration.ofMillis(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<SettableApiFuture<String>> attempts = new CopyOnWriteArrayList<>();
+
+    @Nested
+    class when_firestore_does_not_answer {
+
+        @Test
+        void given_read_past_deadline_then_throws_timeout_and_cancels_call() {
+            var operations = operations(false, MIN_HEDGE_DELAY);
+
+            assertThatThrownBy(() -> FutureUtils.join(operations.read(FirestoreOperationsUnitTest.this::attempt, "read failed")))
+                    .isInstanceOf(DatabaseTimeoutException.class)
+                    .hasMessageStartingWith("read failed");
+            assertThat(attempts.get(0).isCancelled()).isTrue();
+            assertThat(meterRegistry.get("firestore.timeouts").tag("operation", "read").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void given_answer_within_deadline_then_returns_value() {
+            var operations = operations(false, MIN_HEDGE_DELAY);
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            attempts.get(0).set("value");
+
+            assertThat(FutureUtils.join(result)).isEqualTo("value");
+        }
+
+        @Test
+        void given_answer_within_deadline_then_drop_its_deadline_timer() {
+            var operations = operations(false, MIN_HEDGE_DELAY);
+            var pendingTimers = FirestoreUtils.SCHEDULER.getQueue().size();
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            attempts.get(0).set("value");
+
+            assertThat(FutureUtils.join(result)).isEqualTo("value");
+            assertThat(FirestoreUtils.SCHEDULER.getQueue()).hasSizeLessThanOrEqualTo(pendingTimers);
+        }
+
+        @Test
+        void given_hedged_lookup_past_deadline_then_throws_timeout_and_cancels_both_attempts() {
+            var operations = operations(true, MIN_HEDGE_DELAY);
+
+            assertThatThrownBy(() -> FutureUtils.join(operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed")))
+                    .isInstanceOf(DatabaseTimeoutException.class);
+            assertThat(attempts).hasSize(2).allMatch(SettableApiFuture::isCancelled);
+        }
+    }
+
+    @Nested
+    class when_hedging_lookups {
+
+        @Test
+        void given_first_attempt_slower_than_hedge_delay_then_send_second_attempt() {
+            var operations = operations(true, MIN_HEDGE_DELAY);
+
+            operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            awaitAttempts(2);
+            assertThat(meterRegistry.get("firestore.lookup.hedged").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        void given_hedge_answers_first_then_return_it_and_cancel_first_attempt() {
+            var operations = operations(true, MIN_HEDGE_DELAY);
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+            awaitAttempts(2);
+
+            attempts.get(1).set("hedge");
+
+            assertThat(FutureUtils.join(result)).isEqualTo("hedge");
+            assertThat(attempts.get(0).isCancelled()).isTrue();
+        }
+
+        @Test
+        void given_first_attempt_answers_after_hedge_sent_then_return_it_and_cancel_hedge() {
+            var operations = operations(true, MIN_HEDGE_DELAY);
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+            awaitAttempts(2);
+
+            attempts.get(0).set("first");
+
+            assertThat(FutureUtils.join(result)).isEqualTo("first");
+            assertThat(attempts.get(1).isCancelled()).isTrue();
+        }
+
+        @Test
+        void given_first_attempt_answers_before_hedge_delay_then_send_no_hedge() throws InterruptedException {
+            var operations = operations(true, MIN_HEDGE_DELAY);
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+            attempts.get(0).set("first");
+
+            assertThat(FutureUtils.join(result)).isEqualTo("first");
+            Thread.sleep(MIN_HEDGE_DELAY.toMillis() * 5);
+            assertThat(attempts).hasSize(1);
+            assertThat(meterRegistry.get("firestore.lookup.hedged").counter().count()).isZero();
+        }
+
+        @Test
+        void given_read_bulkhead_full_then_skip_hedge() throws InterruptedException {
+            var operations = operations(true, MIN_HEDGE_DELAY, 1);
+
+            var result = operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            Thread.sleep(MIN_HEDGE_DELAY.toMillis() * 5);
+            assertThat(attempts).hasSize(1);
+            assertThat(meterRegistry.get("firestore.lookup.hedge.skipped").counter().count()).isEqualTo(1);
+            attempts.get(0).set("first");
+            assertThat(FutureUtils.join(result)).isEqualTo("first");
+        }
+
+        @Test
+        void given_hedge_in_flight_then_it_holds_its_own_read_permit() {
+            var operations = operations(true, MIN_HEDGE_DELAY, 2);
+            operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+            awaitAttempts(2);
+
+            assertThatThrownBy(() -> FutureUtils.join(operations.read(FirestoreOperationsUnitTest.this::attempt, "read failed")))
+                    .isInstanceOf(ServiceOverloadedException.class);
+
+            attempts.get(1).set("hedge");
+            operations.read(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            assertThat(attempts).hasSize(3);
+        }
+
+        @Test
+        void given_hedging_disabled_then_send_single_attempt() throws InterruptedException {
+            var operations = operations(false, MIN_HEDGE_DELAY);
+
+            operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            Thread.sleep(MIN_HEDGE_DELAY.toMillis() * 5);
+            assertThat(attempts).hasSize(1);
+        }
+
+        @Test
+        void given_p95_latency_below_min_delay_then_hedge_after_min_delay() throws InterruptedException {
+            var minDelay = Duration.ofMillis(300);
+            var operations = operations(true, minDelay);
+            for (int i = 0; i < 20; i++) {
+                SettableApiFuture<String> fast = SettableApiFuture.create();
+                fast.set("fast");
+                operations.lookup(() -> fast, "read failed").join();
+            }
+            // the hedge delay is recomputed from the observed p95 at most once a second
+            Thread.sleep(1100);
+
+            operations.lookup(FirestoreOperationsUnitTest.this::attempt, "read failed");
+
+            Thread.sleep(minDelay.toMillis() / 2);
+            assertThat(attempts).hasSize(1);
+            awaitAttempts(2);
+        }
+    }
+
+    private FirestoreOperations operations(boolean hedgingEnabled, Duration minHedgeDelay) {
+        return operations(hedgingEnabled, minHedgeDelay, 64);
+    }
+
+    private FirestoreOperations operations(boolean hedgingEnabled, Duration minHedgeDelay, int readConcurrency) {
+        var resilience = new FirestoreResilience(meterRegistry, 50, 80, Duration.ofSeconds(1), 50, 20,
+                Duration.ofSeconds(10), readConcurrency, 32, Duration.ofSeconds(1));
+        return new FirestoreOperations(resilience, meterRegistry, READ_DEADLINE, Duration.ofSeconds(5),
+                hedgingEnabled, minHedgeDelay).forRepository(FirestoreOperationsUnitTest.class);
+    }
+
+    private SettableApiFuture<String> attempt() {
+        SettableApiFuture<String> attempt = SettableApiFuture.create();
+        attempts.add(attempt);
+        return attempt;
+    }
+
+    private void awaitAttempts(int count) {
+        var deadline = Instant.now().plus(READ_DEADLINE);
+        while (attempts.size() < count) {
+            if (Instant.now().isAfter(deadline)) {
+                fail("Expected " + count + " attempts but saw " + attempts.size());
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
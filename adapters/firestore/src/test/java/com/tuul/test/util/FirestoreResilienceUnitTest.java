@@ -0,0 +1,178 @@
+package com.tuul.test.util;
+
+import com.google.api.gax.rpc.AlreadyExistsException;
+import com.google.api.gax.rpc.StatusCode;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FirestoreResilienceUnitTest {
+
+    private static final String REPOSITORY = "FetchVehicleRepository";
+    private static final int WINDOW = 4;
+    private static final Duration OPEN_STATE = Duration.ofSeconds(10);
+    private static final Duration BULKHEAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Nested
+    class when_circuit_breaks {
+
+        @Test
+        void given_failure_rate_above_threshold_then_reject_without_calling_firestore() {
+            var resilience = resilience(OPEN_STATE);
+            for (int i = 0; i < WINDOW; i++) {
+                resilience.read(REPOSITORY, () -> failed(new DatabaseAccessException("Failed to fetch", null)));
+            }
+
+            assertOverloaded(resilience.read(REPOSITORY, this::succeeded), OPEN_STATE);
+            assertThat(calls).hasValue(0);
+            assertThat(rejected("circuit_open")).isEqualTo(1);
+        }
+
+        @Test
+        void given_slow_call_rate_above_threshold_then_reject() throws InterruptedException {
+            var resilience = resilience(OPEN_STATE);
+            for (int i = 0; i < WINDOW; i++) {
+                var slow = new CompletableFuture<String>();
+                resilience.read(REPOSITORY, () -> slow);
+                Thread.sleep(60);
+                slow.complete("slow");
+            }
+
+            assertOverloaded(resilience.write(REPOSITORY, this::succeeded), OPEN_STATE);
+            assertThat(rejected("circuit_open")).isEqualTo(1);
+        }
+
+        @Test
+        void given_already_exists_errors_then_do_not_count_them_as_failures() {
+            var resilience = resilience(OPEN_STATE);
+            var statusCode = mock(StatusCode.class);
+            when(statusCode.getCode()).thenReturn(StatusCode.Code.ALREADY_EXISTS);
+            var alreadyExists = new DatabaseAccessException("Failed to register user",
+                    new AlreadyExistsException(new RuntimeException("exists"), statusCode, false));
+            for (int i = 0; i < WINDOW * 2; i++) {
+                resilience.write(REPOSITORY, () -> failed(alreadyExists));
+            }
+
+            assertThat(resilience.write(REPOSITORY, this::succeeded).join()).isEqualTo("ok");
+            assertThat(calls).hasValue(1);
+        }
+
+        @Test
+        void given_one_repository_tripped_then_keep_others_closed() {
+            var resilience = resilience(OPEN_STATE);
+            for (int i = 0; i < WINDOW; i++) {
+                resilience.read(REPOSITORY, () -> failed(new DatabaseAccessException("Failed to fetch", null)));
+            }
+
+            assertThat(resilience.read("FetchUserRepository", this::succeeded).join()).isEqualTo("ok");
+        }
+    }
+
+    @Nested
+    class when_bulkhead_full {
+
+        @Test
+        void given_call_in_flight_then_reject_next_call_with_bulkhead_tags() {
+            var resilience = resilience(OPEN_STATE);
+            var inFlight = new CompletableFuture<String>();
+            resilience.read(REPOSITORY, () -> inFlight);
+
+            assertOverloaded(resilience.read(REPOSITORY, this::succeeded), BULKHEAD_RETRY_AFTER);
+            assertThat(rejected("bulkhead_full")).isEqualTo(1);
+            assertThat(rejected("circuit_open")).isZero();
+
+            inFlight.complete("ok");
+            assertThat(resilience.read(REPOSITORY, this::succeeded).join()).isEqualTo("ok");
+        }
+
+        @Test
+        void given_reads_in_flight_then_writes_have_their_own_bulkhead() {
+            var resilience = resilience(OPEN_STATE);
+            resilience.read(REPOSITORY, CompletableFuture::new);
+
+            assertThat(resilience.write(REPOSITORY, this::succeeded).join()).isEqualTo("ok");
+        }
+
+        @Test
+        void given_half_open_circuit_then_bulkhead_rejections_release_its_permits() throws InterruptedException {
+            var openState = Duration.ofMillis(50);
+            var resilience = resilience(openState);
+            for (int i = 0; i < WINDOW; i++) {
+                resilience.read(REPOSITORY, () -> failed(new DatabaseAccessException("Failed to fetch", null)));
+            }
+            Thread.sleep(openState.toMillis() * 2);
+            resilience.read(REPOSITORY, CompletableFuture::new);
+
+            // more rejections than the half-open circuit has permits to hand out
+            for (int i = 0; i < 20; i++) {
+                assertOverloaded(resilience.read(REPOSITORY, this::succeeded), BULKHEAD_RETRY_AFTER);
+            }
+            assertThat(rejected("bulkhead_full")).isEqualTo(20);
+            assertThat(rejected("circuit_open")).isZero();
+        }
+    }
+
+    @Nested
+    class when_call_throws {
+
+        @Test
+        void given_supplier_throws_then_release_bulkhead_permit() {
+            var resilience = resilience(OPEN_STATE);
+
+            assertThatThrownBy(() -> resilience.read(REPOSITORY, () -> {
+                throw new IllegalStateException("Failed to build query");
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(resilience.read(REPOSITORY, this::succeeded).join()).isEqualTo("ok");
+            assertThat(rejected("bulkhead_full")).isZero();
+        }
+    }
+
+    private FirestoreResilience resilience(Duration waitDurationInOpenState) {
+        return new FirestoreResilience(meterRegistry, 50, 50, Duration.ofMillis(50), WINDOW, WINDOW,
+                waitDurationInOpenState, 1, 1, BULKHEAD_RETRY_AFTER);
+    }
+
+    private CompletableFuture<String> succeeded() {
+        calls.incrementAndGet();
+        return CompletableFuture.completedFuture("ok");
+    }
+
+    private static CompletableFuture<String> failed(Throwable error) {
+        return CompletableFuture.failedFuture(error);
+    }
+
+    private double rejected(String reason) {
+        var counter = meterRegistry.find("firestore.calls.rejected")
+                .tag("repository", REPOSITORY)
+                .tag("reason", reason)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void assertOverloaded(CompletableFuture<?> future, Duration retryAfter) {
+        var error = catchThrowable(future::join);
+
+        assertThat(error).isInstanceOf(CompletionException.class).hasCauseInstanceOf(ServiceOverloadedException.class);
+        assertThat(((ServiceOverloadedException) error.getCause()).getRetryAfter()).isEqualTo(retryAfter);
+    }
+}
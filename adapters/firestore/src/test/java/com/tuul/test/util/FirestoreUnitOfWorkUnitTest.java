@@ -0,0 +1,165 @@
+package com.tuul.test.util;
+
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FirestoreUnitOfWorkUnitTest {
+
+    private final Firestore firestore = mock(Firestore.class);
+    private final List<WriteBatch> batches = new CopyOnWriteArrayList<>();
+    private final List<String> applied = new CopyOnWriteArrayList<>();
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private volatile boolean commitFails;
+
+    private FirestoreUnitOfWork unitOfWork;
+
+    @BeforeEach
+    void setup() {
+        when(firestore.batch()).thenAnswer(invocation -> {
+            var batch = mock(WriteBatch.class);
+            when(batch.commit()).thenAnswer(commit -> {
+                events.add("commit");
+                return commitFails
+                        ? ApiFutures.immediateFailedFuture(new IllegalStateException("unavailable"))
+                        : ApiFutures.immediateFuture(List.of());
+            });
+            batches.add(batch);
+            return batch;
+        });
+        var meterRegistry = new SimpleMeterRegistry();
+        var resilience = new FirestoreResilience(meterRegistry, 50, 80, Duration.ofSeconds(1), 50, 20,
+                Duration.ofSeconds(10), 64, 32, Duration.ofSeconds(1));
+        var operations = new FirestoreOperations(resilience, meterRegistry, Duration.ofSeconds(2), Duration.ofSeconds(5),
+                false, Duration.ofMillis(20));
+        unitOfWork = new FirestoreUnitOfWork(firestore, operations);
+    }
+
+    @Nested
+    class when_executing_unit_of_work {
+
+        @Test
+        void given_nested_units_then_commit_all_writes_in_one_batch() {
+            unitOfWork.execute(() -> {
+                write("reservation");
+                unitOfWork.execute(() -> write("vehicle"));
+                write("usage");
+                assertThat(batches).isEmpty();
+            });
+
+            assertThat(batches).hasSize(1);
+            verify(batches.get(0)).commit();
+            assertThat(applied).containsExactly("reservation", "vehicle", "usage");
+        }
+
+        @Test
+        void given_no_writes_then_commit_nothing() {
+            unitOfWork.execute(() -> { });
+
+            verify(firestore, never()).batch();
+        }
+
+        @Test
+        void given_work_throws_then_discard_queued_writes() {
+            assertThatThrownBy(() -> unitOfWork.execute(() -> {
+                write("reservation");
+                throw new IllegalStateException("failed");
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(batches).isEmpty();
+            assertThat(applied).isEmpty();
+
+            write("vehicle");
+            assertThat(batches).hasSize(1);
+            assertThat(applied).containsExactly("vehicle");
+        }
+
+        @Test
+        void given_write_from_another_thread_then_it_commits_on_its_own() {
+            unitOfWork.execute(() -> {
+                write("reservation");
+                CompletableFuture.runAsync(() -> write("callback")).join();
+                assertThat(applied).containsExactly("callback");
+            });
+
+            assertThat(batches).hasSize(2);
+            assertThat(applied).containsExactly("callback", "reservation");
+        }
+    }
+
+    @Nested
+    class when_registering_after_commit_action {
+
+        @Test
+        void given_write_in_unit_of_work_then_run_action_after_outermost_commit() {
+            unitOfWork.execute(() -> {
+                unitOfWork.execute(() -> unitOfWork.write(batch -> { }, () -> events.add("evict"), "Failed to save").join());
+                assertThat(events).isEmpty();
+            });
+
+            assertThat(events).containsExactly("commit", "evict");
+        }
+
+        @Test
+        void given_commit_fails_then_still_run_action() {
+            commitFails = true;
+
+            assertThatThrownBy(() -> unitOfWork.execute(() ->
+                    unitOfWork.write(batch -> { }, () -> events.add("evict"), "Failed to save").join()))
+                    .isInstanceOf(DatabaseAccessException.class);
+            assertThat(events).containsExactly("commit", "evict");
+        }
+
+        @Test
+        void given_work_throws_then_skip_action() {
+            assertThatThrownBy(() -> unitOfWork.execute(() -> {
+                unitOfWork.write(batch -> { }, () -> events.add("evict"), "Failed to save").join();
+                throw new IllegalStateException("failed");
+            })).isInstanceOf(IllegalStateException.class);
+
+            assertThat(events).isEmpty();
+        }
+
+        @Test
+        void given_write_outside_unit_of_work_then_run_action_after_its_commit() {
+            unitOfWork.write(batch -> { }, () -> events.add("evict"), "Failed to save").join();
+
+            assertThat(events).containsExactly("commit", "evict");
+        }
+    }
+
+    @Nested
+    class when_writing_outside_unit_of_work {
+
+        @Test
+        void given_two_writes_then_commit_each_in_its_own_batch() {
+            write("reservation");
+            write("vehicle");
+
+            assertThat(batches).hasSize(2);
+            batches.forEach(batch -> verify(batch).commit());
+            assertThat(applied).containsExactly("reservation", "vehicle");
+        }
+    }
+
+    private void write(String name) {
+        unitOfWork.write(batch -> applied.add(name), "Failed to write " + name).join();
+    }
+}
@@ -0,0 +1,133 @@
+package com.tuul.test.vehicle;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.EventListener;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.tuul.test.vehicle.model.Vehicle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CachingFetchVehicleRepositoryUnitTest {
+
+    private final FetchVehicleRepository delegate = mock(FetchVehicleRepository.class);
+    private final Firestore firestore = mock(Firestore.class);
+    private final CollectionReference vehicles = mock(CollectionReference.class);
+    private final ListenerRegistration registration = mock(ListenerRegistration.class);
+    private final List<EventListener<QuerySnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    private CachingFetchVehicleRepository repository;
+
+    @BeforeEach
+    void setup() {
+        when(firestore.collection(FetchVehicleRepository.COLLECTION_NAME)).thenReturn(vehicles);
+        when(vehicles.addSnapshotListener(any())).thenAnswer(invocation -> {
+            listeners.add(invocation.getArgument(0));
+            return registration;
+        });
+        when(delegate.findByCodeAsync("code1")).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        repository = new CachingFetchVehicleRepository(delegate, firestore, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(5), Duration.ofMillis(10), Duration.ofMillis(50));
+    }
+
+    @Nested
+    class when_listener_fails {
+
+        @Test
+        void given_live_index_then_fall_back_to_firestore_and_resubscribe() {
+            listeners.get(0).onEvent(emptySnapshot(), null);
+            assertThat(repository.findByCode("code1")).isEmpty();
+            verify(delegate, never()).findByCodeAsync(any());
+
+            listeners.get(0).onEvent(null, mock(FirestoreException.class));
+
+            assertThat(repository.findByCode("code1")).isEmpty();
+            verify(delegate).findByCodeAsync("code1");
+            verify(vehicles, timeout(1000).times(2)).addSnapshotListener(any());
+
+            listeners.get(1).onEvent(emptySnapshot(), null);
+            repository.findByCode("code1");
+            verify(delegate, times(1)).findByCodeAsync("code1");
+        }
+
+        @Test
+        void given_repository_destroyed_then_do_not_resubscribe() throws InterruptedException {
+            repository.destroy();
+
+            listeners.get(0).onEvent(null, mock(FirestoreException.class));
+            Thread.sleep(100);
+
+            verify(vehicles, times(1)).addSnapshotListener(any());
+            verify(registration).remove();
+        }
+    }
+
+    @Nested
+    class when_reading_through {
+        private final UUID vehicleId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+
+        @Test
+        void given_listener_update_before_read_completes_then_keep_the_update() {
+            var read = new CompletableFuture<Optional<Vehicle>>();
+            when(delegate.fetchAsync(vehicleId)).thenReturn(read);
+            var inFlight = repository.fetchAsync(vehicleId);
+
+            listeners.get(0).onEvent(modifiedSnapshot(vehicleId, true), null);
+            read.complete(Optional.of(Vehicle.builder().id(vehicleId).code("code1").poweredOn(false).build()));
+
+            assertThat(inFlight.join()).get().extracting(Vehicle::isPoweredOn).isEqualTo(false);
+            assertThat(repository.fetch(vehicleId)).get().extracting(Vehicle::isPoweredOn).isEqualTo(true);
+            verify(delegate, times(1)).fetchAsync(vehicleId);
+        }
+
+        @Test
+        void given_vehicle_read_before_then_serve_it_without_another_read() {
+            var vehicle = Vehicle.builder().id(vehicleId).code("code1").build();
+            when(delegate.fetchAsync(vehicleId)).thenReturn(CompletableFuture.completedFuture(Optional.of(vehicle)));
+
+            repository.fetch(vehicleId);
+
+            assertThat(repository.fetch(vehicleId)).contains(vehicle);
+            verify(delegate, times(1)).fetchAsync(vehicleId);
+        }
+    }
+
+    private static QuerySnapshot modifiedSnapshot(UUID vehicleId, boolean poweredOn) {
+        var document = mock(QueryDocumentSnapshot.class);
+        when(document.getId()).thenReturn(vehicleId.toString());
+        when(document.getString("vehicleCode")).thenReturn("code1");
+        when(document.getBoolean("poweredOn")).thenReturn(poweredOn);
+        var change = mock(DocumentChange.class);
+        when(change.getType()).thenReturn(DocumentChange.Type.MODIFIED);
+        when(change.getDocument()).thenReturn(document);
+        var snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocumentChanges()).thenReturn(List.of(change));
+        return snapshot;
+    }
+
+    private static QuerySnapshot emptySnapshot() {
+        var snapshot = mock(QuerySnapshot.class);
+        when(snapshot.getDocumentChanges()).thenReturn(List.of());
+        return snapshot;
+    }
+}
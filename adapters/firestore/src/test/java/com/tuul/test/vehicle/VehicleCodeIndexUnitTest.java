@@ -0,0 +1,112 @@
+package com.tuul.test.vehicle;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class VehicleCodeIndexUnitTest {
+
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID OTHER_VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
+    private final VehicleCodeIndex index = new VehicleCodeIndex();
+
+    @Nested
+    class when_initial_snapshot_not_delivered {
+
+        @Test
+        void given_new_index_then_not_live() {
+            index.put(VEHICLE_ID, "code1");
+
+            assertThat(index.isLive()).isFalse();
+        }
+    }
+
+    @Nested
+    class when_live {
+
+        @Test
+        void given_indexed_code_then_find_vehicle_id() {
+            index.put(VEHICLE_ID, "code1");
+            index.markLive();
+
+            assertThat(index.isLive()).isTrue();
+            assertThat(index.find("code1")).contains(VEHICLE_ID);
+        }
+
+        @Test
+        void given_unknown_code_then_find_nothing() {
+            index.put(VEHICLE_ID, "code1");
+            index.markLive();
+
+            assertThat(index.find("unknown")).isEmpty();
+        }
+
+        @Test
+        void given_vehicle_code_changed_then_old_code_no_longer_resolves() {
+            index.put(VEHICLE_ID, "code1");
+            index.put(VEHICLE_ID, "code2");
+
+            assertThat(index.find("code1")).isEmpty();
+            assertThat(index.find("code2")).contains(VEHICLE_ID);
+            assertThat(index.size()).isEqualTo(1);
+        }
+
+        @Test
+        void given_code_moved_to_another_vehicle_then_removing_old_vehicle_keeps_it() {
+            index.put(VEHICLE_ID, "code1");
+            index.put(OTHER_VEHICLE_ID, "code1");
+
+            index.remove(VEHICLE_ID);
+
+            assertThat(index.find("code1")).contains(OTHER_VEHICLE_ID);
+        }
+    }
+
+    @Nested
+    class when_removing {
+
+        @Test
+        void given_indexed_vehicle_then_code_no_longer_resolves() {
+            index.put(VEHICLE_ID, "code1");
+            index.put(OTHER_VEHICLE_ID, "code2");
+
+            index.remove(VEHICLE_ID);
+
+            assertThat(index.find("code1")).isEmpty();
+            assertThat(index.find("code2")).contains(OTHER_VEHICLE_ID);
+            assertThat(index.size()).isEqualTo(1);
+        }
+
+        @Test
+        void given_unknown_vehicle_then_index_unchanged() {
+            index.put(VEHICLE_ID, "code1");
+
+            index.remove(OTHER_VEHICLE_ID);
+
+            assertThat(index.find("code1")).contains(VEHICLE_ID);
+        }
+    }
+
+    @Nested
+    class when_resetting {
+
+        @Test
+        void given_live_index_then_clear_it_and_stop_trusting_it() {
+            index.put(VEHICLE_ID, "code1");
+            index.markLive();
+
+            index.reset();
+
+            assertThat(index.isLive()).isFalse();
+            assertThat(index.find("code1")).isEmpty();
+            assertThat(index.size()).isZero();
+        }
+    }
+}
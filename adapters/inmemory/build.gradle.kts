@@ -0,0 +1,12 @@
+dependencies {
+    implementation(project(":domain"))
+    implementation("org.springframework.boot:spring-boot-starter")
+
+    testImplementation("org.assertj:assertj-core:_")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:_")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:_")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -0,0 +1,90 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.store.InMemoryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemoryFetchReservationRepository implements FetchReservationPort {
+    private static final Comparator<Reservation> OLDEST_FIRST = Comparator
+            .comparing(Reservation::getStartTime)
+            .thenComparing(Reservation::getId);
+    private static final Comparator<Reservation> NEWEST_FIRST = OLDEST_FIRST.reversed();
+
+    private final InMemoryStore store;
+
+    @Override
+    public boolean existsActiveReservationForUserOrVehicle(UUID userId, UUID vehicleId) {
+        return store.getActiveReservationIdsByUserId().containsKey(userId)
+                || store.getActiveReservationIdsByVehicleId().containsKey(vehicleId);
+    }
+
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId, UUID vehicleId) {
+        return fetchActiveReservation(userId)
+                .filter(reservation -> reservation.getVehicleId().equals(vehicleId));
+    }
+
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId) {
+        return Optional.ofNullable(store.getActiveReservationIdsByUserId().get(userId))
+                .map(store.getReservations()::get)
+                .map(reservation -> reservation.toBuilder().build());
+    }
+
+    @Override
+    public List<Reservation> fetchReservations(UUID userId, ReservationCursor after, int limit) {
+        var cursor = toReservation(after);
+        return store.getReservations().values().stream()
+                .filter(reservation -> reservation.getUserId().equals(userId))
+                .filter(reservation -> cursor == null || NEWEST_FIRST.compare(reservation, cursor) > 0)
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(reservation -> reservation.toBuilder().build())
+                .toList();
+    }
+
+    @Override
+    public List<Reservation> fetchReservationsStartedBetween(LocalDateTime from, LocalDateTime until, ReservationCursor after, int limit) {
+        var cursor = toReservation(after);
+        return store.getReservations().values().stream()
+                .filter(reservation -> !reservation.getStartTime().isBefore(from) && reservation.getStartTime().isBefore(until))
+                .filter(reservation -> cursor == null || OLDEST_FIRST.compare(reservation, cursor) > 0)
+                .sorted(OLDEST_FIRST)
+                .limit(limit)
+                .map(reservation -> reservation.toBuilder().build())
+                .toList();
+    }
+
+    @Override
+    public List<Reservation> fetchActiveReservationsStartedBefore(LocalDateTime before, ReservationCursor after, int limit) {
+        var cursor = toReservation(after);
+        return store.getActiveReservationIdsByUserId().values().stream()
+                .map(store.getReservations()::get)
+                .filter(reservation -> reservation.getStartTime().isBefore(before))
+                .filter(reservation -> cursor == null || OLDEST_FIRST.compare(reservation, cursor) > 0)
+                .sorted(OLDEST_FIRST)
+                .limit(limit)
+                .map(reservation -> reservation.toBuilder().build())
+                .toList();
+    }
+
+    private static Reservation toReservation(ReservationCursor cursor) {
+        return cursor == null ? null : Reservation.builder()
+                .startTime(cursor.getStartTime())
+                .id(cursor.getReservationId())
+                .build();
+    }
+}
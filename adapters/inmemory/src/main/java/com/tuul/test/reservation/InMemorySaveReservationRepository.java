@@ -0,0 +1,41 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.store.InMemoryStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemorySaveReservationRepository implements SaveReservationPort {
+    private final InMemoryStore store;
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        var id = reservation.getId();
+        store.getReservations().put(id, reservation.toBuilder().build());
+
+        if (reservation.getEndTime() == null) {
+            store.getActiveReservationIdsByUserId().put(reservation.getUserId(), id);
+            store.getActiveReservationIdsByVehicleId().put(reservation.getVehicleId(), id);
+        } else {
+            store.getActiveReservationIdsByUserId().remove(reservation.getUserId(), id);
+            store.getActiveReservationIdsByVehicleId().remove(reservation.getVehicleId(), id);
+        }
+        return reservation;
+    }
+
+    @Override
+    public boolean closeIfActive(Reservation reservation) {
+        var id = reservation.getId();
+        if (!store.getActiveReservationIdsByUserId().remove(reservation.getUserId(), id)) {
+            return false;
+        }
+        store.getActiveReservationIdsByVehicleId().remove(reservation.getVehicleId(), id);
+        store.getReservations().put(id, reservation.toBuilder().build());
+        return true;
+    }
+}
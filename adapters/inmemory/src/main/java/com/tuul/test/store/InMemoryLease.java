@@ -0,0 +1,22 @@
+package com.tuul.test.store;
+
+import com.tuul.test.common.port.LeasePort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// in-memory storage lives in a single instance, which therefore always holds every lease
+@Component
+@Profile("inmemory")
+class InMemoryLease implements LeasePort {
+
+    @Override
+    public boolean tryAcquire(String name, Duration duration) {
+        return true;
+    }
+
+    @Override
+    public void release(String name) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.tuul.test.store;
+
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.user.model.User;
+import com.tuul.test.vehicle.model.Vehicle;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-local storage behind the in-memory adapters, indexed the same way the Firestore documents are so that
+ * every port operation is a hash lookup.
+ */
+@Getter
+@Component
+@Profile("inmemory")
+public class InMemoryStore {
+    private static final double BASE_LATITUDE = 59.4370;
+    private static final double BASE_LONGITUDE = 24.7535;
+
+    private final Map<UUID, User> users = new ConcurrentHashMap<>();
+    private final Map<String, UUID> userIdsByEmail = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> activeVehicleIdsByUserId = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Vehicle> vehicles = new ConcurrentHashMap<>();
+    private final Map<String, UUID> vehicleIdsByCode = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> pairedUserIdsByVehicleId = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> activeReservationIdsByUserId = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> activeReservationIdsByVehicleId = new ConcurrentHashMap<>();
+
+    private final Map<String, DailyUsage> dailyUsage = new ConcurrentHashMap<>();
+
+    public InMemoryStore(@Value("${inmemory.seed.vehicles:100}") int seedVehicles) {
+        var random = new Random(seedVehicles);
+        for (int i = 1; i <= seedVehicles; i++) {
+            var vehicle = Vehicle.builder()
+                    .id(UUID.randomUUID())
+                    .code("code" + i)
+                    .stateOfCharge(20 + random.nextInt(81))
+                    .coordinates(Coordinates.builder()
+                            .latitude(BASE_LATITUDE + (random.nextDouble() - 0.5) / 50)
+                            .longitude(BASE_LONGITUDE + (random.nextDouble() - 0.5) / 25)
+                            .build())
+                    .build();
+            vehicles.put(vehicle.getId(), vehicle);
+            vehicleIdsByCode.put(vehicle.getCode(), vehicle.getId());
+        }
+    }
+
+    public static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String dailyUsageKey(UsageScope scope, UUID subjectId, LocalDate date) {
+        return scope + "/" + subjectId + "/" + date;
+    }
+}
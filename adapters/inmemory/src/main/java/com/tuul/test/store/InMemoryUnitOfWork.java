@@ -0,0 +1,15 @@
+package com.tuul.test.store;
+
+import com.tuul.test.common.port.UnitOfWorkPort;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@Profile("inmemory")
+class InMemoryUnitOfWork implements UnitOfWorkPort {
+
+    @Override
+    public void execute(Runnable work) {
+        work.run();
+    }
+}
@@ -0,0 +1,30 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemoryFetchUsageRepository implements FetchUsagePort {
+    private final InMemoryStore store;
+
+    @Override
+    public List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until) {
+        return from.datesUntil(until)
+                .map(date -> store.getDailyUsage().get(InMemoryStore.dailyUsageKey(scope, subjectId, date)))
+                .filter(Objects::nonNull)
+                .map(day -> day.toBuilder().build())
+                .toList();
+    }
+}
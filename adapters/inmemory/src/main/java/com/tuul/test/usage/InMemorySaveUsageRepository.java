@@ -0,0 +1,50 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.SaveUsagePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemorySaveUsageRepository implements SaveUsagePort {
+    private final InMemoryStore store;
+
+    @Override
+    public void recordRide(Reservation reservation) {
+        var date = reservation.getStartTime().toLocalDate();
+        var rideSeconds = Math.max(0, Duration.between(reservation.getStartTime(), reservation.getEndTime()).toSeconds());
+        var revenue = reservation.getCostOfReservation() == null ? BigDecimal.ZERO : reservation.getCostOfReservation();
+
+        increment(UsageScope.VEHICLE, reservation.getVehicleId(), date, rideSeconds, revenue);
+        increment(UsageScope.USER, reservation.getUserId(), date, rideSeconds, revenue);
+        increment(UsageScope.FLEET, null, date, rideSeconds, revenue);
+    }
+
+    private void increment(UsageScope scope, UUID subjectId, LocalDate date, long rideSeconds, BigDecimal revenue) {
+        store.getDailyUsage().merge(InMemoryStore.dailyUsageKey(scope, subjectId, date),
+                DailyUsage.builder()
+                        .scope(scope)
+                        .subjectId(subjectId)
+                        .date(date)
+                        .rides(1)
+                        .rideSeconds(rideSeconds)
+                        .revenue(revenue)
+                        .build(),
+                (day, ride) -> day.toBuilder()
+                        .rides(day.getRides() + ride.getRides())
+                        .rideSeconds(day.getRideSeconds() + ride.getRideSeconds())
+                        .revenue(day.getRevenue().add(ride.getRevenue()))
+                        .build());
+    }
+}
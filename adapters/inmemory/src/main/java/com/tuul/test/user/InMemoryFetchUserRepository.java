@@ -0,0 +1,52 @@
+package com.tuul.test.user;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.port.FetchUserPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemoryFetchUserRepository implements FetchUserPort {
+    private final InMemoryStore store;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(store.getUserIdsByEmail().get(InMemoryStore.normalizeEmail(email)))
+                .flatMap(this::fetch);
+    }
+
+    @Override
+    public Optional<User> fetch(UUID id) {
+        return Optional.ofNullable(store.getUsers().get(id))
+                .map(user -> user.toBuilder()
+                        .activeVehicleId(store.getActiveVehicleIdsByUserId().get(id))
+                        .build());
+    }
+
+    @Override
+    public boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId) {
+        return vehicleId.equals(store.getActiveVehicleIdsByUserId().get(userId));
+    }
+
+    @Override
+    public Map<UUID, UUID> fetchActiveVehicleIds(Collection<UUID> userIds) {
+        Map<UUID, UUID> activeVehicleIds = new HashMap<>();
+        for (var userId : userIds) {
+            var vehicleId = store.getActiveVehicleIdsByUserId().get(userId);
+            if (vehicleId != null) {
+                activeVehicleIds.put(userId, vehicleId);
+            }
+        }
+        return activeVehicleIds;
+    }
+}
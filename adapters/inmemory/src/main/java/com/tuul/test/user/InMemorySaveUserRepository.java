@@ -0,0 +1,63 @@
+package com.tuul.test.user;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.port.SaveUserPort;
+import com.tuul.test.vehicle.model.ActiveVehicle;
+import com.tuul.test.vehicle.model.PairingResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemorySaveUserRepository implements SaveUserPort {
+    private final InMemoryStore store;
+
+    @Override
+    public Optional<User> registerUser(User user) {
+        var userId = UUID.randomUUID();
+        if (store.getUserIdsByEmail().putIfAbsent(InMemoryStore.normalizeEmail(user.getEmail()), userId) != null) {
+            return Optional.empty();
+        }
+        user.setId(userId);
+        store.getUsers().put(userId, user.toBuilder().build());
+        return Optional.of(user);
+    }
+
+    @Override
+    public void updatePassword(UUID userId, String password) {
+        store.getUsers().computeIfPresent(userId, (id, user) -> user.toBuilder().password(password).build());
+    }
+
+    @Override
+    public PairingResult saveActiveVehicle(ActiveVehicle activeVehicle) {
+        var userId = activeVehicle.getUserId();
+        var vehicleId = activeVehicle.getVehicleId();
+
+        if (store.getActiveVehicleIdsByUserId().putIfAbsent(userId, vehicleId) != null) {
+            return PairingResult.USER_ALREADY_PAIRED;
+        }
+        if (store.getPairedUserIdsByVehicleId().putIfAbsent(vehicleId, userId) != null) {
+            store.getActiveVehicleIdsByUserId().remove(userId, vehicleId);
+            return PairingResult.VEHICLE_ALREADY_PAIRED;
+        }
+        return PairingResult.PAIRED;
+    }
+
+    @Override
+    public boolean deleteActiveVehicle(ActiveVehicle activeVehicle) {
+        var userId = activeVehicle.getUserId();
+        var vehicleId = activeVehicle.getVehicleId();
+
+        if (!store.getActiveVehicleIdsByUserId().remove(userId, vehicleId)) {
+            return false;
+        }
+        store.getPairedUserIdsByVehicleId().remove(vehicleId, userId);
+        return true;
+    }
+}
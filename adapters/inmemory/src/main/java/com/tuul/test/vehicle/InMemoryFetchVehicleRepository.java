@@ -0,0 +1,29 @@
+package com.tuul.test.vehicle;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemoryFetchVehicleRepository implements FetchVehiclePort {
+    private final InMemoryStore store;
+
+    @Override
+    public Optional<Vehicle> findByCode(String code) {
+        return Optional.ofNullable(store.getVehicleIdsByCode().get(code))
+                .flatMap(this::fetch);
+    }
+
+    @Override
+    public Optional<Vehicle> fetch(UUID id) {
+        return Optional.ofNullable(store.getVehicles().get(id));
+    }
+}
@@ -0,0 +1,21 @@
+package com.tuul.test.vehicle;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+@Profile("inmemory")
+@RequiredArgsConstructor
+class InMemorySaveVehicleRepository implements SaveVehiclePort {
+    private final InMemoryStore store;
+
+    @Override
+    public void updatePoweredOn(UUID vehicleId, boolean poweredOn) {
+        store.getVehicles().computeIfPresent(vehicleId, (id, vehicle) -> vehicle.toBuilder().poweredOn(poweredOn).build());
+    }
+}
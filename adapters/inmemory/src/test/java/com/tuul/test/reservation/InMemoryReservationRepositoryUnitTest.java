@@ -0,0 +1,160 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.store.InMemoryStore;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryReservationRepositoryUnitTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID OTHER_VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private final InMemoryStore store = new InMemoryStore(0);
+    private final InMemorySaveReservationRepository saveReservationRepository = new InMemorySaveReservationRepository(store);
+    private final InMemoryFetchReservationRepository fetchReservationRepository = new InMemoryFetchReservationRepository(store);
+
+    @Nested
+    class when_saving_reservation {
+
+        @Test
+        void given_started_reservation_then_it_is_active_for_user_and_vehicle() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, OTHER_VEHICLE_ID)).isTrue();
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(OTHER_USER_ID, VEHICLE_ID)).isTrue();
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID, VEHICLE_ID)).contains(reservation);
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID, OTHER_VEHICLE_ID)).isEmpty();
+        }
+
+        @Test
+        void given_finished_reservation_then_frees_user_and_vehicle() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+
+            saveReservationRepository.save(finish(reservation));
+
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).isFalse();
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID)).isEmpty();
+        }
+
+        @Test
+        void given_saved_reservation_then_mutating_it_does_not_change_store() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+
+            reservation.setEndTime(START_TIME.plusMinutes(5));
+
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID)).get()
+                    .extracting(Reservation::getEndTime).isNull();
+        }
+    }
+
+    @Nested
+    class when_closing_reservation_if_active {
+
+        @Test
+        void given_active_reservation_then_close_it() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+
+            var closed = saveReservationRepository.closeIfActive(finish(reservation));
+
+            assertThat(closed).isTrue();
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).isFalse();
+            assertThat(fetchReservationRepository.fetchReservations(USER_ID, null, 10)).containsExactly(finish(reservation));
+        }
+
+        @Test
+        void given_reservation_already_stopped_then_keep_it() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+            var stopped = saveReservationRepository.save(finish(reservation));
+
+            var closed = saveReservationRepository.closeIfActive(reservation.toBuilder()
+                    .endTime(START_TIME.plusHours(12))
+                    .build());
+
+            assertThat(closed).isFalse();
+            assertThat(fetchReservationRepository.fetchReservations(USER_ID, null, 10)).containsExactly(stopped);
+        }
+    }
+
+    @Nested
+    class when_listing_reservations {
+
+        @Test
+        void given_user_history_then_page_it_newest_first() {
+            var first = saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME)));
+            var second = saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME.plusHours(1))));
+            var third = saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME.plusHours(2))));
+            saveReservationRepository.save(finish(reservation(OTHER_USER_ID, VEHICLE_ID, START_TIME.plusHours(3))));
+
+            var page = fetchReservationRepository.fetchReservations(USER_ID, null, 2);
+            var next = fetchReservationRepository.fetchReservations(USER_ID, cursor(page.get(1)), 2);
+
+            assertThat(page).containsExactly(third, second);
+            assertThat(next).containsExactly(first);
+        }
+
+        @Test
+        void given_time_range_then_page_reservations_started_in_it_oldest_first() {
+            saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME.minusHours(1))));
+            var first = saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME)));
+            var second = saveReservationRepository.save(finish(reservation(OTHER_USER_ID, VEHICLE_ID, START_TIME.plusHours(1))));
+            saveReservationRepository.save(finish(reservation(USER_ID, VEHICLE_ID, START_TIME.plusHours(2))));
+
+            var page = fetchReservationRepository.fetchReservationsStartedBetween(START_TIME, START_TIME.plusHours(2), null, 1);
+            var next = fetchReservationRepository.fetchReservationsStartedBetween(START_TIME, START_TIME.plusHours(2), cursor(page.get(0)), 10);
+
+            assertThat(page).containsExactly(first);
+            assertThat(next).containsExactly(second);
+        }
+
+        @Test
+        void given_active_and_finished_reservations_then_list_only_active_started_before() {
+            var stale = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID, START_TIME));
+            saveReservationRepository.save(reservation(OTHER_USER_ID, OTHER_VEHICLE_ID, START_TIME.plusHours(2)));
+            saveReservationRepository.save(finish(reservation(UUID.randomUUID(), VEHICLE_ID, START_TIME.minusHours(1))));
+
+            var active = fetchReservationRepository.fetchActiveReservationsStartedBefore(START_TIME.plusHours(1), null, 10);
+
+            assertThat(active).containsExactly(stale);
+        }
+    }
+
+    private static Reservation reservation(UUID userId, UUID vehicleId, LocalDateTime startTime) {
+        return Reservation.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .vehicleId(vehicleId)
+                .startTime(startTime)
+                .startingLocation(Coordinates.builder().latitude(59.437).longitude(24.7535).build())
+                .build();
+    }
+
+    private static Reservation finish(Reservation reservation) {
+        return reservation.toBuilder()
+                .endTime(reservation.getStartTime().plusMinutes(5))
+                .endingLocation(Coordinates.builder().latitude(59.44).longitude(24.75).build())
+                .costOfReservation(new BigDecimal("3.50"))
+                .build();
+    }
+
+    private static ReservationCursor cursor(Reservation reservation) {
+        return ReservationCursor.builder()
+                .startTime(reservation.getStartTime())
+                .reservationId(reservation.getId())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.tuul.test.store;
+
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.vehicle.model.Vehicle;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryStoreUnitTest {
+
+    @Nested
+    class when_seeding_vehicles {
+
+        @Test
+        void given_seed_count_then_every_vehicle_is_indexed_by_its_code() {
+            var store = new InMemoryStore(3);
+
+            assertThat(store.getVehicles()).hasSize(3);
+            assertThat(store.getVehicleIdsByCode()).containsOnlyKeys("code1", "code2", "code3");
+            store.getVehicleIdsByCode().forEach((code, id) ->
+                    assertThat(store.getVehicles().get(id)).extracting(Vehicle::getCode).isEqualTo(code));
+        }
+
+        @Test
+        void given_zero_seed_count_then_store_is_empty() {
+            var store = new InMemoryStore(0);
+
+            assertThat(store.getVehicles()).isEmpty();
+            assertThat(store.getVehicleIdsByCode()).isEmpty();
+        }
+    }
+
+    @Nested
+    class when_building_keys {
+
+        @Test
+        void given_email_with_case_and_whitespace_then_normalize_it() {
+            assertThat(InMemoryStore.normalizeEmail(" John.Doe@Example.com ")).isEqualTo("john.doe@example.com");
+        }
+
+        @Test
+        void given_same_subject_on_different_days_then_daily_usage_keys_differ() {
+            var subjectId = UUID.randomUUID();
+            var date = LocalDate.of(2025, 1, 1);
+
+            assertThat(InMemoryStore.dailyUsageKey(UsageScope.USER, subjectId, date))
+                    .isEqualTo(InMemoryStore.dailyUsageKey(UsageScope.USER, subjectId, date))
+                    .isNotEqualTo(InMemoryStore.dailyUsageKey(UsageScope.USER, subjectId, date.plusDays(1)));
+        }
+    }
+}
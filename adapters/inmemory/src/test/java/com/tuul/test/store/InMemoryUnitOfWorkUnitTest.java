@@ -0,0 +1,45 @@
+package com.tuul.test.store;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryUnitOfWorkUnitTest {
+
+    private final InMemoryUnitOfWork unitOfWork = new InMemoryUnitOfWork();
+
+    @Nested
+    class when_executing {
+
+        @Test
+        void given_nested_work_then_run_it_in_order_on_calling_thread() {
+            List<String> steps = new ArrayList<>();
+            var caller = Thread.currentThread();
+
+            unitOfWork.execute(() -> {
+                steps.add("outer");
+                unitOfWork.execute(() -> {
+                    assertThat(Thread.currentThread()).isSameAs(caller);
+                    steps.add("inner");
+                });
+            });
+
+            assertThat(steps).containsExactly("outer", "inner");
+        }
+
+        @Test
+        void given_failing_work_then_propagate_the_exception() {
+            assertThatThrownBy(() -> unitOfWork.execute(() -> {
+                throw new IllegalStateException("failed");
+            })).isInstanceOf(IllegalStateException.class).hasMessage("failed");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tuul.test.user;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.user.model.User;
+import com.tuul.test.vehicle.model.ActiveVehicle;
+import com.tuul.test.vehicle.model.PairingResult;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryUserRepositoryUnitTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID OTHER_VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+
+    private final InMemoryStore store = new InMemoryStore(0);
+    private final InMemorySaveUserRepository saveUserRepository = new InMemorySaveUserRepository(store);
+    private final InMemoryFetchUserRepository fetchUserRepository = new InMemoryFetchUserRepository(store);
+
+    @Nested
+    class when_register_user {
+
+        @Test
+        void given_new_email_then_user_can_be_found_by_normalized_email() {
+            var registered = saveUserRepository.registerUser(user(EMAIL));
+
+            assertThat(registered).isPresent();
+            assertThat(fetchUserRepository.findByEmail(" John.Doe@Example.com ")).isPresent()
+                    .get().extracting(User::getId).isEqualTo(registered.get().getId());
+        }
+
+        @Test
+        void given_email_registered_with_different_case_then_returns_empty() {
+            saveUserRepository.registerUser(user(EMAIL));
+
+            assertThat(saveUserRepository.registerUser(user(EMAIL.toUpperCase()))).isEmpty();
+        }
+
+        @Test
+        void given_stored_user_then_mutating_returned_user_does_not_change_store() {
+            var registered = saveUserRepository.registerUser(user(EMAIL)).orElseThrow();
+
+            registered.setName("Jane Doe");
+
+            assertThat(fetchUserRepository.fetch(registered.getId())).get().extracting(User::getName).isEqualTo("John Doe");
+        }
+    }
+
+    @Nested
+    class when_update_password {
+
+        @Test
+        void given_registered_user_then_store_new_password() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+
+            saveUserRepository.updatePassword(userId, "rehashedPassword");
+
+            assertThat(fetchUserRepository.fetch(userId)).get().extracting(User::getPassword).isEqualTo("rehashedPassword");
+        }
+    }
+
+    @Nested
+    class when_pairing_vehicle {
+
+        @Test
+        void given_unpaired_user_and_vehicle_then_pairs() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+
+            assertThat(saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID))).isEqualTo(PairingResult.PAIRED);
+            assertThat(fetchUserRepository.existsActiveVehicleUnderUser(userId, VEHICLE_ID)).isTrue();
+            assertThat(fetchUserRepository.fetch(userId)).get().extracting(User::getActiveVehicleId).isEqualTo(VEHICLE_ID);
+        }
+
+        @Test
+        void given_user_already_paired_then_returns_user_already_paired() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+            saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID));
+
+            assertThat(saveUserRepository.saveActiveVehicle(activeVehicle(userId, OTHER_VEHICLE_ID)))
+                    .isEqualTo(PairingResult.USER_ALREADY_PAIRED);
+        }
+
+        @Test
+        void given_vehicle_paired_with_another_user_then_returns_vehicle_already_paired() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+            var otherUserId = saveUserRepository.registerUser(user("jane.doe@example.com")).orElseThrow().getId();
+            saveUserRepository.saveActiveVehicle(activeVehicle(otherUserId, VEHICLE_ID));
+
+            assertThat(saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID)))
+                    .isEqualTo(PairingResult.VEHICLE_ALREADY_PAIRED);
+            assertThat(fetchUserRepository.existsActiveVehicleUnderUser(userId, VEHICLE_ID)).isFalse();
+        }
+
+        @Test
+        void given_paired_vehicle_then_unpair_frees_it_for_another_user() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+            var otherUserId = saveUserRepository.registerUser(user("jane.doe@example.com")).orElseThrow().getId();
+            saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID));
+
+            assertThat(saveUserRepository.deleteActiveVehicle(activeVehicle(userId, VEHICLE_ID))).isTrue();
+            assertThat(saveUserRepository.deleteActiveVehicle(activeVehicle(userId, VEHICLE_ID))).isFalse();
+            assertThat(saveUserRepository.saveActiveVehicle(activeVehicle(otherUserId, VEHICLE_ID))).isEqualTo(PairingResult.PAIRED);
+        }
+    }
+
+    @Nested
+    class when_fetching_active_vehicles_of_users {
+
+        @Test
+        void given_users_with_and_without_active_vehicle_then_map_only_paired_ones() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+            var otherUserId = saveUserRepository.registerUser(user("jane.doe@example.com")).orElseThrow().getId();
+            var unpairedUserId = saveUserRepository.registerUser(user("jim.doe@example.com")).orElseThrow().getId();
+            saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID));
+            saveUserRepository.saveActiveVehicle(activeVehicle(otherUserId, OTHER_VEHICLE_ID));
+
+            assertThat(fetchUserRepository.fetchActiveVehicleIds(List.of(userId, otherUserId, unpairedUserId)))
+                    .isEqualTo(Map.of(userId, VEHICLE_ID, otherUserId, OTHER_VEHICLE_ID));
+        }
+
+        @Test
+        void given_unknown_user_ids_then_leave_them_out() {
+            var userId = saveUserRepository.registerUser(user(EMAIL)).orElseThrow().getId();
+            saveUserRepository.saveActiveVehicle(activeVehicle(userId, VEHICLE_ID));
+
+            assertThat(fetchUserRepository.fetchActiveVehicleIds(List.of(userId, UUID.randomUUID())))
+                    .isEqualTo(Map.of(userId, VEHICLE_ID));
+        }
+
+        @Test
+        void given_no_user_ids_then_returns_empty() {
+            assertThat(fetchUserRepository.fetchActiveVehicleIds(List.of())).isEmpty();
+        }
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).password("hashedPassword").name("John Doe").build();
+    }
+
+    private static ActiveVehicle activeVehicle(UUID userId, UUID vehicleId) {
+        return ActiveVehicle.builder().userId(userId).vehicleId(vehicleId).build();
+    }
+}
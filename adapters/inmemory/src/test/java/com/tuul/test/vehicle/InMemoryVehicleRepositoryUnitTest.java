@@ -0,0 +1,61 @@
+package com.tuul.test.vehicle;
+
+import com.tuul.test.store.InMemoryStore;
+import com.tuul.test.vehicle.model.Vehicle;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryVehicleRepositoryUnitTest {
+
+    private final InMemoryStore store = new InMemoryStore(2);
+    private final InMemoryFetchVehicleRepository fetchVehicleRepository = new InMemoryFetchVehicleRepository(store);
+    private final InMemorySaveVehicleRepository saveVehicleRepository = new InMemorySaveVehicleRepository(store);
+
+    @Nested
+    class when_fetching_vehicle {
+
+        @Test
+        void given_seeded_code_then_find_vehicle_by_code_and_id() {
+            var vehicle = fetchVehicleRepository.findByCode("code1").orElseThrow();
+
+            assertThat(vehicle.getCode()).isEqualTo("code1");
+            assertThat(fetchVehicleRepository.fetch(vehicle.getId())).contains(vehicle);
+        }
+
+        @Test
+        void given_unknown_code_or_id_then_returns_empty() {
+            assertThat(fetchVehicleRepository.findByCode("unknown")).isEmpty();
+            assertThat(fetchVehicleRepository.fetch(UUID.randomUUID())).isEmpty();
+        }
+    }
+
+    @Nested
+    class when_updating_powered_on {
+
+        @Test
+        void given_seeded_vehicle_then_store_new_state() {
+            var vehicleId = fetchVehicleRepository.findByCode("code1").orElseThrow().getId();
+
+            saveVehicleRepository.updatePoweredOn(vehicleId, true);
+
+            assertThat(fetchVehicleRepository.fetch(vehicleId)).get().extracting(Vehicle::isPoweredOn).isEqualTo(true);
+            assertThat(fetchVehicleRepository.findByCode("code2")).get().extracting(Vehicle::isPoweredOn).isEqualTo(false);
+        }
+
+        @Test
+        void given_unknown_vehicle_then_do_not_create_it() {
+            var vehicleId = UUID.randomUUID();
+
+            saveVehicleRepository.updatePoweredOn(vehicleId, true);
+
+            assertThat(fetchVehicleRepository.fetch(vehicleId)).isEmpty();
+        }
+    }
+}
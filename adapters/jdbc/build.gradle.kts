@@ -0,0 +1,14 @@
+dependencies {
+    implementation(project(":domain"))
+    implementation("org.springframework.boot:spring-boot-starter-jdbc")
+    runtimeOnly("com.h2database:h2:_")
+
+    testImplementation("com.h2database:h2:_")
+    testImplementation("org.assertj:assertj-core:_")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:_")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:_")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -0,0 +1,65 @@
+package com.tuul.test.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+@Configuration
+@Profile("jdbc")
+public class JdbcConfig {
+
+    @Bean
+    public HikariDataSource dataSource(@Value("${jdbc.datasource.url:jdbc:h2:mem:tuul;DB_CLOSE_DELAY=-1}") String url,
+                                       @Value("${jdbc.datasource.username:sa}") String username,
+                                       @Value("${jdbc.datasource.password:}") String password,
+                                       @Value("${jdbc.datasource.maximum-pool-size:10}") int maximumPoolSize) {
+        var config = new HikariConfig();
+        config.setPoolName("jdbc-adapter");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maximumPoolSize);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public DataSourceInitializer schemaInitializer(DataSource dataSource,
+                                                   @Value("${jdbc.seed-vehicles:true}") boolean seedVehicles) {
+        var populator = new ResourceDatabasePopulator(new ClassPathResource("db/jdbc/schema.sql"));
+        if (seedVehicles) {
+            populator.addScript(new ClassPathResource("db/jdbc/vehicles.sql"));
+        }
+
+        var initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(populator);
+        return initializer;
+    }
+
+    @Bean
+    public NamedParameterJdbcTemplate namedParameterJdbcTemplate(DataSource dataSource) {
+        return new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    @Bean
+    public TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,131 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcFetchReservationRepository implements FetchReservationPort {
+    private static final RowMapper<Reservation> RESERVATION_ROW_MAPPER = (resultSet, rowNum) -> Reservation.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .userId(resultSet.getObject("user_id", UUID.class))
+            .vehicleId(resultSet.getObject("vehicle_id", UUID.class))
+            .startTime(resultSet.getObject("start_time", LocalDateTime.class))
+            .endTime(resultSet.getObject("end_time", LocalDateTime.class))
+            .startingLocation(coordinates(resultSet, "starting_latitude", "starting_longitude"))
+            .endingLocation(coordinates(resultSet, "ending_latitude", "ending_longitude"))
+            .costOfReservation(resultSet.getObject("cost_of_reservation", BigDecimal.class))
+            .build();
+
+    private static final String RESERVATION_COLUMNS = "id, user_id, vehicle_id, start_time, end_time, "
+            + "starting_latitude, starting_longitude, ending_latitude, ending_longitude, cost_of_reservation";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean existsActiveReservationForUserOrVehicle(UUID userId, UUID vehicleId) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> !jdbcTemplate.queryForList(
+                "SELECT 1 FROM reservations WHERE active_user_id = :userId OR active_vehicle_id = :vehicleId",
+                Map.of("userId", userId, "vehicleId", vehicleId),
+                Integer.class
+        ).isEmpty(), "Failed to check active reservation");
+    }
+
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId, UUID vehicleId) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM reservations WHERE active_user_id = :userId AND vehicle_id = :vehicleId",
+                Map.of("userId", userId, "vehicleId", vehicleId),
+                RESERVATION_ROW_MAPPER
+        ).stream().findFirst(), "Failed to fetch active reservation");
+    }
+
+    @Override
+    public Optional<Reservation> fetchActiveReservation(UUID userId) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM reservations WHERE active_user_id = :userId",
+                Map.of("userId", userId),
+                RESERVATION_ROW_MAPPER
+        ).stream().findFirst(), "Failed to fetch active reservation");
+    }
+
+    @Override
+    public List<Reservation> fetchReservations(UUID userId, ReservationCursor after, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", limit);
+        var keyset = "";
+        if (after != null) {
+            parameters.addValue("startTime", after.getStartTime()).addValue("reservationId", after.getReservationId());
+            keyset = " AND (start_time < :startTime OR (start_time = :startTime AND id < :reservationId))";
+        }
+        var sql = "SELECT " + RESERVATION_COLUMNS + " FROM reservations WHERE user_id = :userId" + keyset
+                + " ORDER BY start_time DESC, id DESC LIMIT :limit";
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(sql, parameters, RESERVATION_ROW_MAPPER),
+                "Failed to fetch reservations");
+    }
+
+    @Override
+    public List<Reservation> fetchReservationsStartedBetween(LocalDateTime from, LocalDateTime until, ReservationCursor after, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("until", until)
+                .addValue("limit", limit);
+        var keyset = "";
+        if (after != null) {
+            parameters.addValue("startTime", after.getStartTime()).addValue("reservationId", after.getReservationId());
+            keyset = " AND (start_time > :startTime OR (start_time = :startTime AND id > :reservationId))";
+        }
+        var sql = "SELECT " + RESERVATION_COLUMNS + " FROM reservations WHERE start_time >= :from AND start_time < :until" + keyset
+                + " ORDER BY start_time, id LIMIT :limit";
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(sql, parameters, RESERVATION_ROW_MAPPER),
+                "Failed to export reservations");
+    }
+
+    @Override
+    public List<Reservation> fetchActiveReservationsStartedBefore(LocalDateTime before, ReservationCursor after, int limit) {
+        var parameters = new MapSqlParameterSource()
+                .addValue("before", before)
+                .addValue("limit", limit);
+        var keyset = "";
+        if (after != null) {
+            parameters.addValue("startTime", after.getStartTime()).addValue("reservationId", after.getReservationId());
+            keyset = " AND (start_time > :startTime OR (start_time = :startTime AND id > :reservationId))";
+        }
+        var sql = "SELECT " + RESERVATION_COLUMNS + " FROM reservations WHERE active_user_id IS NOT NULL AND start_time < :before" + keyset
+                + " ORDER BY start_time, id LIMIT :limit";
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(sql, parameters, RESERVATION_ROW_MAPPER),
+                "Failed to fetch stale reservations");
+    }
+
+    private static Coordinates coordinates(ResultSet resultSet, String latitudeColumn, String longitudeColumn) throws SQLException {
+        var latitude = resultSet.getObject(latitudeColumn, Double.class);
+        var longitude = resultSet.getObject(longitudeColumn, Double.class);
+        if (latitude == null || longitude == null) {
+            return null;
+        }
+        return Coordinates.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcSaveReservationRepository implements SaveReservationPort {
+    private static final String UPDATE_SQL = """
+            UPDATE reservations
+            SET end_time = :endTime, ending_latitude = :endingLatitude, ending_longitude = :endingLongitude,
+                cost_of_reservation = :costOfReservation, active_user_id = :activeUserId, active_vehicle_id = :activeVehicleId
+            WHERE id = :id""";
+    private static final String INSERT_SQL = """
+            INSERT INTO reservations (id, user_id, vehicle_id, start_time, end_time, starting_latitude, starting_longitude,
+                                      ending_latitude, ending_longitude, cost_of_reservation, active_user_id, active_vehicle_id)
+            VALUES (:id, :userId, :vehicleId, :startTime, :endTime, :startingLatitude, :startingLongitude,
+                    :endingLatitude, :endingLongitude, :costOfReservation, :activeUserId, :activeVehicleId)""";
+
+    private static final String CLOSE_SQL = UPDATE_SQL + " AND active_user_id IS NOT NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        var parameters = parameters(reservation);
+        return JdbcAdapterUtils.safeJdbcCall(() -> {
+            try {
+                if (jdbcTemplate.update(UPDATE_SQL, parameters) == 0) {
+                    jdbcTemplate.update(INSERT_SQL, parameters);
+                }
+            } catch (DuplicateKeyException e) {
+                throw new BusinessViolationException("Vehicle or user already has active reservation.");
+            }
+            return reservation;
+        }, "Failed to save reservation");
+    }
+
+    @Override
+    public boolean closeIfActive(Reservation reservation) {
+        var parameters = parameters(reservation);
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.update(CLOSE_SQL, parameters) == 1,
+                "Failed to close reservation");
+    }
+
+    private MapSqlParameterSource parameters(Reservation reservation) {
+        var active = reservation.getEndTime() == null;
+        var startingLocation = reservation.getStartingLocation();
+        var endingLocation = reservation.getEndingLocation();
+
+        var parameters = new MapSqlParameterSource()
+                .addValue("id", reservation.getId())
+                .addValue("userId", reservation.getUserId())
+                .addValue("vehicleId", reservation.getVehicleId())
+                .addValue("startTime", reservation.getStartTime())
+                .addValue("endTime", reservation.getEndTime())
+                .addValue("startingLatitude", startingLocation != null ? startingLocation.getLatitude() : null)
+                .addValue("startingLongitude", startingLocation != null ? startingLocation.getLongitude() : null)
+                .addValue("endingLatitude", endingLocation != null ? endingLocation.getLatitude() : null)
+                .addValue("endingLongitude", endingLocation != null ? endingLocation.getLongitude() : null)
+                .addValue("costOfReservation", reservation.getCostOfReservation())
+                .addValue("activeUserId", active ? reservation.getUserId() : null)
+                .addValue("activeVehicleId", active ? reservation.getVehicleId() : null);
+        return parameters;
+    }
+}
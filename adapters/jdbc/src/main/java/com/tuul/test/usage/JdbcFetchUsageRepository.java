@@ -0,0 +1,45 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcFetchUsageRepository implements FetchUsagePort {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query("""
+                        SELECT usage_date, rides, ride_seconds, revenue FROM daily_usage
+                        WHERE scope = :scope AND subject = :subject AND usage_date >= :from AND usage_date < :until
+                        ORDER BY usage_date""",
+                Map.of("scope", scope.name(), "subject", subject(subjectId), "from", from, "until", until),
+                (resultSet, rowNum) -> DailyUsage.builder()
+                        .scope(scope)
+                        .subjectId(subjectId)
+                        .date(resultSet.getObject("usage_date", LocalDate.class))
+                        .rides(resultSet.getLong("rides"))
+                        .rideSeconds(resultSet.getLong("ride_seconds"))
+                        .revenue(resultSet.getObject("revenue", BigDecimal.class))
+                        .build()
+        ), "Failed to fetch usage");
+    }
+
+    static String subject(UUID subjectId) {
+        return subjectId == null ? "" : subjectId.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.SaveUsagePort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcSaveUsageRepository implements SaveUsagePort {
+    private static final String MERGE_SQL = """
+            MERGE INTO daily_usage target
+            USING (VALUES (CAST(:scope AS VARCHAR(16)), CAST(:subject AS VARCHAR(36)), CAST(:usageDate AS DATE)))
+                AS source (scope, subject, usage_date)
+            ON target.scope = source.scope AND target.subject = source.subject AND target.usage_date = source.usage_date
+            WHEN MATCHED THEN UPDATE SET rides = target.rides + 1, ride_seconds = target.ride_seconds + :rideSeconds,
+                                         revenue = target.revenue + :revenue
+            WHEN NOT MATCHED THEN INSERT (scope, subject, usage_date, rides, ride_seconds, revenue)
+                                  VALUES (:scope, :subject, :usageDate, 1, :rideSeconds, :revenue)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void recordRide(Reservation reservation) {
+        var rideSeconds = Math.max(0, Duration.between(reservation.getStartTime(), reservation.getEndTime()).toSeconds());
+        var revenue = reservation.getCostOfReservation() == null ? BigDecimal.ZERO : reservation.getCostOfReservation();
+
+        // the vehicle, user and fleet rows go to the database in one batched round trip
+        var increments = new SqlParameterSource[]{
+                increment(UsageScope.VEHICLE, reservation.getVehicleId(), reservation, rideSeconds, revenue),
+                increment(UsageScope.USER, reservation.getUserId(), reservation, rideSeconds, revenue),
+                increment(UsageScope.FLEET, null, reservation, rideSeconds, revenue)
+        };
+        JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.batchUpdate(MERGE_SQL, increments), "Failed to record ride usage");
+    }
+
+    private static SqlParameterSource increment(UsageScope scope, UUID subjectId, Reservation reservation,
+                                                long rideSeconds, BigDecimal revenue) {
+        return new MapSqlParameterSource()
+                .addValue("scope", scope.name())
+                .addValue("subject", JdbcFetchUsageRepository.subject(subjectId))
+                .addValue("usageDate", reservation.getStartTime().toLocalDate())
+                .addValue("rideSeconds", rideSeconds)
+                .addValue("revenue", revenue);
+    }
+}
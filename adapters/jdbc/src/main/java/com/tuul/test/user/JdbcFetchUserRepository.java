@@ -0,0 +1,68 @@
+package com.tuul.test.user;
+
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.port.FetchUserPort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcFetchUserRepository implements FetchUserPort {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM users WHERE normalized_email = :email",
+                Map.of("email", UserRowMapper.normalizeEmail(email)),
+                UserRowMapper.INSTANCE
+        ).stream().findFirst(), "Failed to fetch user by email.");
+    }
+
+    @Override
+    public Optional<User> fetch(UUID id) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM users WHERE id = :id",
+                Map.of("id", id),
+                UserRowMapper.INSTANCE
+        ).stream().findFirst(), "Failed to fetch user");
+    }
+
+    @Override
+    public boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> !jdbcTemplate.queryForList(
+                "SELECT 1 FROM users WHERE id = :userId AND active_vehicle_id = :vehicleId",
+                Map.of("userId", userId, "vehicleId", vehicleId),
+                Integer.class
+        ).isEmpty(), "Error checking active vehicle under user");
+    }
+
+    @Override
+    public Map<UUID, UUID> fetchActiveVehicleIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return JdbcAdapterUtils.safeJdbcCall(() -> {
+            Map<UUID, UUID> activeVehicleIds = new HashMap<>();
+            jdbcTemplate.query(
+                    "SELECT id, active_vehicle_id FROM users WHERE id IN (:userIds) AND active_vehicle_id IS NOT NULL",
+                    Map.of("userIds", userIds),
+                    resultSet -> {
+                        activeVehicleIds.put(resultSet.getObject("id", UUID.class),
+                                resultSet.getObject("active_vehicle_id", UUID.class));
+                    });
+            return activeVehicleIds;
+        }, "Error fetching active vehicles of users");
+    }
+}
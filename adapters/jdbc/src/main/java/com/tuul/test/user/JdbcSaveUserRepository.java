@@ -0,0 +1,77 @@
+package com.tuul.test.user;
+
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.port.SaveUserPort;
+import com.tuul.test.util.JdbcAdapterUtils;
+import com.tuul.test.vehicle.model.ActiveVehicle;
+import com.tuul.test.vehicle.model.PairingResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcSaveUserRepository implements SaveUserPort {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<User> registerUser(User user) {
+        var userId = UUID.randomUUID();
+
+        return JdbcAdapterUtils.safeJdbcCall(() -> {
+            try {
+                jdbcTemplate.update("""
+                                INSERT INTO users (id, email, normalized_email, password, name)
+                                VALUES (:id, :email, :normalizedEmail, :password, :name)""",
+                        Map.of(
+                                "id", userId,
+                                "email", user.getEmail(),
+                                "normalizedEmail", UserRowMapper.normalizeEmail(user.getEmail()),
+                                "password", user.getPassword(),
+                                "name", user.getName()
+                        ));
+            } catch (DuplicateKeyException e) {
+                return Optional.empty();
+            }
+            user.setId(userId);
+            return Optional.of(user);
+        }, "Failed to register user");
+    }
+
+    @Override
+    public void updatePassword(UUID userId, String password) {
+        JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.update(
+                "UPDATE users SET password = :password WHERE id = :id",
+                Map.of("id", userId, "password", password)
+        ), "Failed to update user password");
+    }
+
+    @Override
+    public PairingResult saveActiveVehicle(ActiveVehicle activeVehicle) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> {
+            try {
+                var updated = jdbcTemplate.update(
+                        "UPDATE users SET active_vehicle_id = :vehicleId WHERE id = :userId AND active_vehicle_id IS NULL",
+                        Map.of("userId", activeVehicle.getUserId(), "vehicleId", activeVehicle.getVehicleId()));
+                return updated == 1 ? PairingResult.PAIRED : PairingResult.USER_ALREADY_PAIRED;
+            } catch (DuplicateKeyException e) {
+                return PairingResult.VEHICLE_ALREADY_PAIRED;
+            }
+        }, "Failed to save active vehicle under user");
+    }
+
+    @Override
+    public boolean deleteActiveVehicle(ActiveVehicle activeVehicle) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.update(
+                "UPDATE users SET active_vehicle_id = NULL WHERE id = :userId AND active_vehicle_id = :vehicleId",
+                Map.of("userId", activeVehicle.getUserId(), "vehicleId", activeVehicle.getVehicleId())
+        ) == 1, "Failed to delete active vehicle under user");
+    }
+}
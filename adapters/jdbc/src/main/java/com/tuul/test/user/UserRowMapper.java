@@ -0,0 +1,28 @@
+package com.tuul.test.user;
+
+import com.tuul.test.user.model.User;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.UUID;
+
+class UserRowMapper implements RowMapper<User> {
+    static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public User mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        return User.builder()
+                .id(resultSet.getObject("id", UUID.class))
+                .email(resultSet.getString("email"))
+                .password(resultSet.getString("password"))
+                .name(resultSet.getString("name"))
+                .activeVehicleId(resultSet.getObject("active_vehicle_id", UUID.class))
+                .build();
+    }
+}
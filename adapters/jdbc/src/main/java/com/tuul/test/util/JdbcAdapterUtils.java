@@ -0,0 +1,19 @@
+package com.tuul.test.util;
+
+import com.tuul.test.common.exception.DatabaseAccessException;
+import lombok.experimental.UtilityClass;
+import org.springframework.dao.DataAccessException;
+
+import java.util.function.Supplier;
+
+@UtilityClass
+public class JdbcAdapterUtils {
+
+    public static <T> T safeJdbcCall(Supplier<T> call, String errorMessage) {
+        try {
+            return call.get();
+        } catch (DataAccessException e) {
+            throw new DatabaseAccessException(errorMessage, e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tuul.test.util;
+
+import com.tuul.test.common.port.LeasePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcLease implements LeasePort {
+    private static final String RENEW_SQL = """
+            UPDATE leases SET holder = :holder, expires_at = :expiresAt
+            WHERE name = :name AND (holder = :holder OR expires_at <= :now)""";
+    private static final String INSERT_SQL = "INSERT INTO leases (name, holder, expires_at) VALUES (:name, :holder, :expiresAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final String holder = UUID.randomUUID().toString();
+
+    @Override
+    public boolean tryAcquire(String name, Duration duration) {
+        var now = LocalDateTime.now(clock);
+        var parameters = new MapSqlParameterSource()
+                .addValue("name", name)
+                .addValue("holder", holder)
+                .addValue("now", now)
+                .addValue("expiresAt", now.plus(duration));
+
+        return JdbcAdapterUtils.safeJdbcCall(() -> {
+            if (jdbcTemplate.update(RENEW_SQL, parameters) > 0) {
+                return true;
+            }
+            try {
+                jdbcTemplate.update(INSERT_SQL, parameters);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }, "Failed to acquire lease " + name);
+    }
+
+    @Override
+    public void release(String name) {
+        JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.update(
+                "DELETE FROM leases WHERE name = :name AND holder = :holder",
+                Map.of("name", name, "holder", holder)
+        ), "Failed to release lease " + name);
+    }
+}
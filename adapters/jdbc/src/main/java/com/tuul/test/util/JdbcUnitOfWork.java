@@ -0,0 +1,19 @@
+package com.tuul.test.util;
+
+import com.tuul.test.common.port.UnitOfWorkPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcUnitOfWork implements UnitOfWorkPort {
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void execute(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+}
@@ -0,0 +1,53 @@
+package com.tuul.test.vehicle;
+
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.util.JdbcAdapterUtils;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcFetchVehicleRepository implements FetchVehiclePort {
+    private static final RowMapper<Vehicle> VEHICLE_ROW_MAPPER = (resultSet, rowNum) -> Vehicle.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .code(resultSet.getString("vehicle_code"))
+            .stateOfCharge(resultSet.getDouble("state_of_charge"))
+            .coordinates(Coordinates.builder()
+                    .latitude(resultSet.getDouble("latitude"))
+                    .longitude(resultSet.getDouble("longitude"))
+                    .build())
+            .poweredOn(resultSet.getBoolean("powered_on"))
+            .odometer(resultSet.getDouble("odometer"))
+            .estimatedRange(resultSet.getDouble("estimated_range"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Vehicle> findByCode(String code) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM vehicles WHERE vehicle_code = :code",
+                Map.of("code", code),
+                VEHICLE_ROW_MAPPER
+        ).stream().findFirst(), "Error fetching vehicle");
+    }
+
+    @Override
+    public Optional<Vehicle> fetch(UUID id) {
+        return JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.query(
+                "SELECT * FROM vehicles WHERE id = :id",
+                Map.of("id", id),
+                VEHICLE_ROW_MAPPER
+        ).stream().findFirst(), "Error fetching vehicle");
+    }
+}
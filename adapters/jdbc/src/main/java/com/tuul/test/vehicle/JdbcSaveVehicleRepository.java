@@ -0,0 +1,26 @@
+package com.tuul.test.vehicle;
+
+import com.tuul.test.util.JdbcAdapterUtils;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+class JdbcSaveVehicleRepository implements SaveVehiclePort {
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void updatePoweredOn(UUID vehicleId, boolean poweredOn) {
+        JdbcAdapterUtils.safeJdbcCall(() -> jdbcTemplate.update(
+                "UPDATE vehicles SET powered_on = :poweredOn WHERE id = :id",
+                Map.of("id", vehicleId, "poweredOn", poweredOn)
+        ), "Failed to update vehicle power state");
+    }
+}
@@ -0,0 +1,65 @@
+CREATE TABLE IF NOT EXISTS users (
+    id                UUID PRIMARY KEY,
+    email             VARCHAR(320) NOT NULL,
+    normalized_email  VARCHAR(320) NOT NULL,
+    password          VARCHAR(100) NOT NULL,
+    name              VARCHAR(255) NOT NULL,
+    active_vehicle_id UUID
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_normalized_email ON users (normalized_email);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_users_active_vehicle ON users (active_vehicle_id);
+
+CREATE TABLE IF NOT EXISTS vehicles (
+    id              UUID PRIMARY KEY,
+    vehicle_code    VARCHAR(64)      NOT NULL,
+    state_of_charge DOUBLE PRECISION NOT NULL DEFAULT 0,
+    latitude        DOUBLE PRECISION NOT NULL DEFAULT 0,
+    longitude       DOUBLE PRECISION NOT NULL DEFAULT 0,
+    powered_on      BOOLEAN          NOT NULL DEFAULT FALSE,
+    odometer        DOUBLE PRECISION NOT NULL DEFAULT 0,
+    estimated_range DOUBLE PRECISION NOT NULL DEFAULT 0
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_vehicles_code ON vehicles (vehicle_code);
+
+-- active_user_id and active_vehicle_id are only set while the reservation is open; unique indexes ignore NULLs,
+-- which gives a partial unique index on active reservations on databases without WHERE clauses on indexes
+CREATE TABLE IF NOT EXISTS reservations (
+    id                  UUID PRIMARY KEY,
+    user_id             UUID      NOT NULL REFERENCES users (id),
+    vehicle_id          UUID      NOT NULL REFERENCES vehicles (id),
+    start_time          TIMESTAMP NOT NULL,
+    end_time            TIMESTAMP,
+    starting_latitude   DOUBLE PRECISION,
+    starting_longitude  DOUBLE PRECISION,
+    ending_latitude     DOUBLE PRECISION,
+    ending_longitude    DOUBLE PRECISION,
+    cost_of_reservation DECIMAL(10, 2),
+    active_user_id      UUID,
+    active_vehicle_id   UUID
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_active_user ON reservations (active_user_id);
+CREATE UNIQUE INDEX IF NOT EXISTS ux_reservations_active_vehicle ON reservations (active_vehicle_id);
+CREATE INDEX IF NOT EXISTS ix_reservations_user_start_time ON reservations (user_id, start_time, id);
+CREATE INDEX IF NOT EXISTS ix_reservations_start_time ON reservations (start_time, id);
+
+-- one row per vehicle, user and fleet day, incremented in the transaction that ends a ride; the fleet row has an
+-- empty subject
+CREATE TABLE IF NOT EXISTS daily_usage (
+    scope        VARCHAR(16)    NOT NULL,
+    subject      VARCHAR(36)    NOT NULL,
+    usage_date   DATE           NOT NULL,
+    rides        BIGINT         NOT NULL,
+    ride_seconds BIGINT         NOT NULL,
+    revenue      DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (scope, subject, usage_date)
+);
+
+-- a named lease belongs to its holder until it expires; holders are application instances
+CREATE TABLE IF NOT EXISTS leases (
+    name       VARCHAR(64) PRIMARY KEY,
+    holder     VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP   NOT NULL
+);
@@ -0,0 +1,19 @@
+INSERT INTO vehicles (id, vehicle_code, state_of_charge, latitude, longitude)
+SELECT CAST('550e8400-e29b-41d4-a716-446655440000' AS UUID), 'code1', 85, 59.437, 24.7535
+WHERE NOT EXISTS (SELECT 1 FROM vehicles WHERE vehicle_code = 'code1');
+
+INSERT INTO vehicles (id, vehicle_code, state_of_charge, latitude, longitude)
+SELECT CAST('550e8400-e29b-41d4-a716-446655440001' AS UUID), 'code2', 60, 59.4382, 24.745
+WHERE NOT EXISTS (SELECT 1 FROM vehicles WHERE vehicle_code = 'code2');
+
+INSERT INTO vehicles (id, vehicle_code, state_of_charge, latitude, longitude)
+SELECT CAST('550e8400-e29b-41d4-a716-446655440002' AS UUID), 'code3', 40, 59.4321, 24.758
+WHERE NOT EXISTS (SELECT 1 FROM vehicles WHERE vehicle_code = 'code3');
+
+INSERT INTO vehicles (id, vehicle_code, state_of_charge, latitude, longitude)
+SELECT CAST('550e8400-e29b-41d4-a716-446655440003' AS UUID), 'code4', 95, 59.4361, 24.7605
+WHERE NOT EXISTS (SELECT 1 FROM vehicles WHERE vehicle_code = 'code4');
+
+INSERT INTO vehicles (id, vehicle_code, state_of_charge, latitude, longitude)
+SELECT CAST('550e8400-e29b-41d4-a716-446655440004' AS UUID), 'code5', 72, 59.439, 24.752
+WHERE NOT EXISTS (SELECT 1 FROM vehicles WHERE vehicle_code = 'code5');
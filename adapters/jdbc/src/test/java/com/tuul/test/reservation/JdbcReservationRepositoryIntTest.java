@@ -0,0 +1,140 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.reservation.model.Reservation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class JdbcReservationRepositoryIntTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID OTHER_VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440001");
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .setType(EmbeddedDatabaseType.H2)
+            .addScripts("db/jdbc/schema.sql", "db/jdbc/vehicles.sql")
+            .build();
+    private final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(database);
+    private final JdbcSaveReservationRepository saveReservationRepository = new JdbcSaveReservationRepository(jdbcTemplate);
+    private final JdbcFetchReservationRepository fetchReservationRepository = new JdbcFetchReservationRepository(jdbcTemplate);
+
+    @BeforeEach
+    void insertUsers() {
+        for (var userId : new UUID[]{USER_ID, OTHER_USER_ID}) {
+            jdbcTemplate.update("""
+                            INSERT INTO users (id, email, normalized_email, password, name)
+                            VALUES (:id, :email, :email, 'hashedPassword', 'John Doe')""",
+                    Map.of("id", userId, "email", userId + "@example.com"));
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Nested
+    class when_saving_reservation {
+
+        @Test
+        void given_started_reservation_then_it_is_active_for_user_and_vehicle() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID));
+
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, OTHER_VEHICLE_ID)).isTrue();
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(OTHER_USER_ID, VEHICLE_ID)).isTrue();
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID, VEHICLE_ID)).contains(reservation);
+        }
+
+        @Test
+        void given_vehicle_already_reserved_then_throws_business_violation() {
+            saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID));
+
+            assertThatThrownBy(() -> saveReservationRepository.save(reservation(OTHER_USER_ID, VEHICLE_ID)))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Vehicle or user already has active reservation.");
+        }
+
+        @Test
+        void given_finished_reservation_then_frees_user_and_vehicle() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID));
+
+            saveReservationRepository.save(reservation.toBuilder()
+                    .endTime(START_TIME.plusMinutes(5))
+                    .endingLocation(Coordinates.builder().latitude(59.44).longitude(24.75).build())
+                    .costOfReservation(new BigDecimal("3.50"))
+                    .build());
+
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).isFalse();
+            assertThat(fetchReservationRepository.fetchActiveReservation(USER_ID, VEHICLE_ID)).isEmpty();
+            saveReservationRepository.save(reservation(OTHER_USER_ID, VEHICLE_ID));
+        }
+    }
+
+    @Nested
+    class when_closing_reservation_if_active {
+
+        @Test
+        void given_active_reservation_then_close_it() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID));
+
+            var closed = saveReservationRepository.closeIfActive(close(reservation, START_TIME.plusHours(12)));
+
+            assertThat(closed).isTrue();
+            assertThat(fetchReservationRepository.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).isFalse();
+            assertThat(fetchReservationRepository.fetchReservations(USER_ID, null, 10)).singleElement()
+                    .extracting(Reservation::getEndTime).isEqualTo(START_TIME.plusHours(12));
+        }
+
+        @Test
+        void given_reservation_already_stopped_then_keep_it() {
+            var reservation = saveReservationRepository.save(reservation(USER_ID, VEHICLE_ID));
+            saveReservationRepository.save(close(reservation, START_TIME.plusMinutes(5)));
+
+            var closed = saveReservationRepository.closeIfActive(close(reservation, START_TIME.plusHours(12)));
+
+            assertThat(closed).isFalse();
+            assertThat(fetchReservationRepository.fetchReservations(USER_ID, null, 10)).singleElement()
+                    .extracting(Reservation::getEndTime).isEqualTo(START_TIME.plusMinutes(5));
+        }
+    }
+
+    private static Reservation close(Reservation reservation, LocalDateTime endTime) {
+        return reservation.toBuilder()
+                .endTime(endTime)
+                .endingLocation(Coordinates.builder().latitude(59.44).longitude(24.75).build())
+                .costOfReservation(new BigDecimal("3.50"))
+                .build();
+    }
+
+    private static Reservation reservation(UUID userId, UUID vehicleId) {
+        return Reservation.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .vehicleId(vehicleId)
+                .startTime(START_TIME)
+                .startingLocation(Coordinates.builder().latitude(59.437).longitude(24.7535).build())
+                .build();
+    }
+}
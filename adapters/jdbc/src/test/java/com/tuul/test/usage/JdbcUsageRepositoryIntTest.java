@@ -0,0 +1,94 @@
+package com.tuul.test.usage;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class JdbcUsageRepositoryIntTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .setType(EmbeddedDatabaseType.H2)
+            .addScripts("db/jdbc/schema.sql")
+            .build();
+    private final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(database);
+    private final JdbcSaveUsageRepository saveUsageRepository = new JdbcSaveUsageRepository(jdbcTemplate);
+    private final JdbcFetchUsageRepository fetchUsageRepository = new JdbcFetchUsageRepository(jdbcTemplate);
+
+    @AfterEach
+    void shutdown() {
+        database.shutdown();
+    }
+
+    @Nested
+    class when_recording_rides {
+
+        @Test
+        void given_first_ride_of_the_day_then_insert_vehicle_user_and_fleet_rows() {
+            saveUsageRepository.recordRide(ride(USER_ID, 10, "4.00"));
+
+            for (var usage : new DailyUsage[]{
+                    usage(UsageScope.VEHICLE, VEHICLE_ID), usage(UsageScope.USER, USER_ID), usage(UsageScope.FLEET, null)}) {
+                assertThat(usage.getRides()).isEqualTo(1);
+                assertThat(usage.getRideSeconds()).isEqualTo(600);
+                assertThat(usage.getRevenue()).isEqualByComparingTo("4.00");
+            }
+        }
+
+        @Test
+        void given_rides_of_different_users_then_add_them_up_per_scope() {
+            saveUsageRepository.recordRide(ride(USER_ID, 10, "4.00"));
+            saveUsageRepository.recordRide(ride(OTHER_USER_ID, 5, "3.50"));
+
+            assertThat(usage(UsageScope.USER, USER_ID).getRides()).isEqualTo(1);
+            assertThat(usage(UsageScope.USER, OTHER_USER_ID).getRides()).isEqualTo(1);
+            var fleet = usage(UsageScope.FLEET, null);
+            assertThat(fleet.getRides()).isEqualTo(2);
+            assertThat(fleet.getRideSeconds()).isEqualTo(900);
+            assertThat(fleet.getRevenue()).isEqualByComparingTo("7.50");
+            assertThat(usage(UsageScope.VEHICLE, VEHICLE_ID)).isEqualTo(fleet.toBuilder()
+                    .scope(UsageScope.VEHICLE).subjectId(VEHICLE_ID).build());
+        }
+    }
+
+    private DailyUsage usage(UsageScope scope, UUID subjectId) {
+        var usage = fetchUsageRepository.fetchDailyUsage(scope, subjectId, DAY, DAY.plusDays(1));
+        assertThat(usage).hasSize(1);
+        return usage.get(0);
+    }
+
+    private static Reservation ride(UUID userId, int minutes, String cost) {
+        var startTime = LocalDateTime.of(DAY, LocalTime.NOON);
+        return Reservation.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .vehicleId(VEHICLE_ID)
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(minutes))
+                .costOfReservation(new BigDecimal(cost))
+                .build();
+    }
+}
@@ -4,9 +4,19 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-security")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     implementation("javax.validation:validation-api:_")
     implementation("org.hibernate.validator:hibernate-validator:_")
 
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:_")
-}
\ No newline at end of file
+
+    testImplementation("org.mockito:mockito-core:_")
+    testImplementation("org.assertj:assertj-core:_")
+    testImplementation("org.junit.jupiter:junit-jupiter-api:_")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:_")
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
@@ -1,8 +1,11 @@
 package com.tuul.test;
 
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
 import com.tuul.test.common.exception.UnexpectedStateException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -33,6 +36,20 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), errorMessage));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    ResponseEntity<ErrorResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage()));
+    }
+
+    @ExceptionHandler(DatabaseTimeoutException.class)
+    ResponseEntity<ErrorResponse> handleDatabaseTimeoutException(DatabaseTimeoutException ex) {
+        log.warn("Database call timed out: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT.value(), "The request timed out, please try again."));
+    }
+
     @ExceptionHandler(UnexpectedStateException.class)
     ResponseEntity<ErrorResponse> handleUnexpectedStateException(UnexpectedStateException ex) {
         return handleGenericException(ex);
@@ -1,21 +1,26 @@
 package com.tuul.test.auth.config;
 
-import com.tuul.test.auth.service.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final AuthService authService;
+    public static final String OPERATOR_ROLE = "OPERATOR";
+    private static final List<GrantedAuthority> OPERATOR_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_" + OPERATOR_ROLE));
+
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -26,10 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
 
-            if (authService.validateJwtToken(jwt)) {
-                String userId = authService.getUserIdFromJwtToken(jwt);
+            var authenticatedUser = verifiedTokenCache.verify(jwt);
 
-                var authentication = new UsernamePasswordAuthenticationToken(userId, null, null);
+            if (authenticatedUser.isPresent()) {
+                var authorities = authenticatedUser.get().isOperator() ? OPERATOR_AUTHORITIES : List.<GrantedAuthority>of();
+                var authentication = new UsernamePasswordAuthenticationToken(authenticatedUser.get(), null, authorities);
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             } else {
@@ -0,0 +1,79 @@
+package com.tuul.test.auth.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.auth.service.AuthService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+@Component
+public class VerifiedTokenCache {
+    private static final String CACHE_NAME = "jwtVerifiedTokens";
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(VerifiedTokenCache::sha256);
+
+    private final AuthService authService;
+    private final Clock clock;
+    private final Cache<String, AuthenticatedUser> cache;
+
+    public VerifiedTokenCache(AuthService authService,
+                              Clock clock,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.enabled:true}") boolean enabled,
+                              @Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.authService = authService;
+        this.clock = clock;
+        if (enabled) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfter(Expiry.creating((String digest, AuthenticatedUser user) ->
+                            Duration.between(Instant.now(clock), user.getExpiresAt())))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (cache == null) {
+            return authService.verifyJwtToken(token);
+        }
+
+        var digest = digest(token);
+        var cached = cache.getIfPresent(digest);
+        if (cached != null && cached.getExpiresAt().isAfter(Instant.now(clock))) {
+            return Optional.of(cached);
+        }
+
+        var verified = authService.verifyJwtToken(token);
+        verified.ifPresent(user -> cache.put(digest, user));
+        return verified;
+    }
+
+    private static String digest(String token) {
+        var hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.tuul.test.auth.config;
 
-import com.tuul.test.auth.service.AuthService;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,7 +23,7 @@ import java.util.List;
 @Configuration
 @RequiredArgsConstructor
 public class WebSecurityConfig {
-    private final AuthService authService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
@@ -38,9 +37,10 @@ public class WebSecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/user", "/user/login", "/swagger-ui.html", "swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/operator/**").hasRole(JwtAuthenticationFilter.OPERATOR_ROLE)
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(authService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(verifiedTokenCache), UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint((request, response, authException) -> {
                             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized: Token missing or invalid");
@@ -0,0 +1,15 @@
+package com.tuul.test.operator.controller;
+
+import com.tuul.test.usage.model.UsageScope;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+record DailyUsageDto(UsageScope scope,
+                     UUID subjectId,
+                     LocalDate date,
+                     long rides,
+                     long rideSeconds,
+                     BigDecimal revenue) {
+}
@@ -0,0 +1,77 @@
+package com.tuul.test.operator.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuul.test.reservation.service.ReservationService;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.service.UsageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Tag(name = "Operator Controller", description = "API for operator activities")
+@RestController
+@RequestMapping("operator")
+@RequiredArgsConstructor
+class OperatorController {
+    private final ReservationService reservationService;
+    private final UsageService usageService;
+    private final OperatorDtoMapper operatorDtoMapper;
+    private final ObjectMapper objectMapper;
+
+    @Operation(summary = "Export reservations",
+            description = "Streams the reservations started in [from, until), oldest first, as NDJSON or CSV. Operators only.")
+    @GetMapping("/reservations/export")
+    ResponseEntity<StreamingResponseBody> exportReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        // opened before the response is committed, so an invalid range is still answered with 400
+        var reservations = reservationService.exportReservations(from, until);
+
+        StreamingResponseBody body = outputStream -> {
+            try (reservations) {
+                var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                if (format == ExportFormat.CSV) {
+                    writer.write(ReservationExportRowDto.CSV_HEADER);
+                    writer.write('\n');
+                }
+                for (var iterator = reservations.iterator(); iterator.hasNext(); ) {
+                    var row = operatorDtoMapper.toExportRow(iterator.next());
+                    writer.write(format == ExportFormat.CSV ? row.toCsv() : objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+                writer.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    @Operation(summary = "Fetch daily usage",
+            description = "Returns rides, ride time and revenue per day in [from, until) for a vehicle, a user or the whole fleet. Operators only.")
+    @GetMapping("/usage")
+    ResponseEntity<List<DailyUsageDto>> fetchDailyUsage(
+            @RequestParam UsageScope scope,
+            @RequestParam(required = false) UUID subjectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate until) {
+        var dailyUsage = usageService.fetchDailyUsage(scope, subjectId, from, until);
+        return ResponseEntity.ok(operatorDtoMapper.toDto(dailyUsage));
+    }
+}
@@ -0,0 +1,21 @@
+package com.tuul.test.operator.controller;
+
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.usage.model.DailyUsage;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+interface OperatorDtoMapper {
+    @Mapping(target = "startingLatitude", source = "startingLocation.latitude")
+    @Mapping(target = "startingLongitude", source = "startingLocation.longitude")
+    @Mapping(target = "endingLatitude", source = "endingLocation.latitude")
+    @Mapping(target = "endingLongitude", source = "endingLocation.longitude")
+    ReservationExportRowDto toExportRow(Reservation reservation);
+
+    DailyUsageDto toDto(DailyUsage dailyUsage);
+
+    List<DailyUsageDto> toDto(List<DailyUsage> dailyUsage);
+}
@@ -0,0 +1,30 @@
+package com.tuul.test.operator.controller;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+record ReservationExportRowDto(UUID id,
+                               UUID userId,
+                               UUID vehicleId,
+                               LocalDateTime startTime,
+                               LocalDateTime endTime,
+                               Double startingLatitude,
+                               Double startingLongitude,
+                               Double endingLatitude,
+                               Double endingLongitude,
+                               BigDecimal costOfReservation) {
+    static final String CSV_HEADER = "id,userId,vehicleId,startTime,endTime,"
+            + "startingLatitude,startingLongitude,endingLatitude,endingLongitude,costOfReservation";
+
+    // every value is a UUID, ISO-8601 timestamp or number, so none needs quoting
+    String toCsv() {
+        return csv(id) + ',' + csv(userId) + ',' + csv(vehicleId) + ',' + csv(startTime) + ',' + csv(endTime) + ','
+                + csv(startingLatitude) + ',' + csv(startingLongitude) + ',' + csv(endingLatitude) + ','
+                + csv(endingLongitude) + ',' + csv(costOfReservation == null ? null : costOfReservation.toPlainString());
+    }
+
+    private static String csv(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package com.tuul.test.user.controller;
+
+import com.tuul.test.common.model.Coordinates;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+record ReservationDto(UUID id,
+                      UUID vehicleId,
+                      LocalDateTime startTime,
+                      LocalDateTime endTime,
+                      Coordinates startingLocation,
+                      Coordinates endingLocation,
+                      BigDecimal costOfReservation) {
+}
@@ -0,0 +1,6 @@
+package com.tuul.test.user.controller;
+
+import java.util.List;
+
+record ReservationPageDto(List<ReservationDto> reservations, String nextCursor) {
+}
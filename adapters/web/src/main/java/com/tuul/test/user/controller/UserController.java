@@ -1,5 +1,7 @@
 package com.tuul.test.user.controller;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.reservation.service.ReservationService;
 import com.tuul.test.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -7,11 +9,12 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
-import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "User Controller", description = "API for user activities")
@@ -20,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 class UserController {
     private final UserService userService;
+    private final ReservationService reservationService;
     private final UserDtoMapper userDtoMapper;
 
     @Operation(summary = "Register a new user", description = "Creates a new user and returns the user with an ID.")
@@ -41,9 +45,20 @@ class UserController {
 
     @Operation(summary = "Fetch user details", description = "Fetches user details along with active vehicle data.")
     @GetMapping("/details")
-    ResponseEntity<UserDetailsDto> fetchUserDetails(@RequestHeader("Authorization") String token) {
-        var userWithDetails = userService.fetchDetails(token);
+    ResponseEntity<UserDetailsDto> fetchUserDetails(@AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        var userWithDetails = userService.fetchDetails(authenticatedUser);
         var dto = userDtoMapper.toDto(userWithDetails);
         return ResponseEntity.ok(dto);
     }
+
+    @Operation(summary = "Fetch reservation history",
+            description = "Fetches the user's reservations, newest first, one page at a time. Pass the returned cursor to fetch the next page.")
+    @GetMapping("/reservations")
+    ResponseEntity<ReservationPageDto> fetchReservations(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        var page = reservationService.fetchHistory(authenticatedUser, cursor, limit);
+        var dto = userDtoMapper.toDto(page);
+        return ResponseEntity.ok(dto);
+    }
 }
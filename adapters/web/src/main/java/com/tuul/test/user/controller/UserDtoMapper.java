@@ -1,6 +1,8 @@
 package com.tuul.test.user.controller;
 
 import com.tuul.test.auth.model.Token;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationPage;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.model.UserWithDetails;
 import com.tuul.test.vehicle.model.Vehicle;
@@ -22,6 +24,10 @@ interface UserDtoMapper {
     @Mapping(target = "activeVehicle", source = "activeVehicle", qualifiedByName = "mapActiveVehicle")
     UserDetailsDto toDto(UserWithDetails userWithDetails);
 
+    ReservationDto toDto(Reservation reservation);
+
+    ReservationPageDto toDto(ReservationPage reservationPage);
+
     @Named("mapActiveVehicle")
     default ActiveVehicleDto mapActiveVehicle(Vehicle vehicle) {
         if (vehicle == null) {
@@ -0,0 +1,137 @@
+package com.tuul.test.vehicle.controller;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.idempotency.model.IdempotentOutcome;
+import com.tuul.test.idempotency.port.IdempotencyPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers, per user and {@code Idempotency-Key}, how a vehicle request ended, so a client retrying over a flaky
+ * network gets the original outcome back without the retry reaching the ports again. A retry arriving while the
+ * original is still running on this instance waits for it. Outcomes live in process for the TTL and, when an
+ * {@link IdempotencyPort} is configured, in Firestore as well, where other instances and restarts find them. Only
+ * successes and business rule violations are remembered; any other failure leaves the key free for a real retry.
+ */
+@Slf4j
+@Component
+class IdempotencyStore {
+    static final int MAX_KEY_LENGTH = 255;
+    private static final String CACHE_NAME = "idempotentOutcomes";
+
+    private final AsyncCache<String, IdempotentOutcome> outcomes;
+    private final IdempotencyPort idempotencyPort;
+    private final Duration timeToLive;
+    private final Counter memoryReplays;
+    private final Counter persistedReplays;
+
+    IdempotencyStore(ObjectProvider<IdempotencyPort> idempotencyPort,
+                     MeterRegistry meterRegistry,
+                     @Value("${idempotency.max-size:100000}") long maxSize,
+                     @Value("${idempotency.time-to-live:PT24H}") Duration timeToLive) {
+        this.idempotencyPort = idempotencyPort.getIfAvailable();
+        this.timeToLive = timeToLive;
+        this.outcomes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, outcomes, CACHE_NAME);
+        this.memoryReplays = meterRegistry.counter("idempotency.replays", "tier", "memory");
+        this.persistedReplays = meterRegistry.counter("idempotency.replays", "tier", "persistent");
+    }
+
+    /**
+     * Runs {@code action} the first time {@code key} is seen and replays its outcome afterwards; without a key the
+     * action simply runs. {@code request} names the operation and its arguments.
+     */
+    void execute(AuthenticatedUser authenticatedUser, String key, String request, Runnable action) {
+        if (key == null) {
+            action.run();
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessViolationException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        var userKey = authenticatedUser.getUserId() + ":" + key;
+        var pending = new CompletableFuture<IdempotentOutcome>();
+        var inFlight = outcomes.asMap().putIfAbsent(userKey, pending);
+        if (inFlight != null) {
+            memoryReplays.increment();
+            respond(FutureUtils.join(inFlight), request);
+            return;
+        }
+
+        IdempotentOutcome outcome;
+        try {
+            var persisted = fetchPersisted(userKey);
+            if (persisted.isPresent()) {
+                persistedReplays.increment();
+                outcome = persisted.get();
+            } else {
+                outcome = run(request, action);
+                persist(userKey, outcome);
+            }
+        } catch (RuntimeException e) {
+            // a failed future is dropped from the cache, so the key can be retried
+            pending.completeExceptionally(e);
+            throw e;
+        }
+        pending.complete(outcome);
+        respond(outcome, request);
+    }
+
+    private Optional<IdempotentOutcome> fetchPersisted(String userKey) {
+        return idempotencyPort == null ? Optional.empty() : idempotencyPort.fetch(userKey);
+    }
+
+    // the request has already taken effect, so failing to persist its outcome must not fail it
+    private void persist(String userKey, IdempotentOutcome outcome) {
+        if (idempotencyPort == null) {
+            return;
+        }
+        try {
+            idempotencyPort.save(userKey, outcome, timeToLive);
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist idempotent outcome: {}", e.getMessage());
+        }
+    }
+
+    private static IdempotentOutcome run(String request, Runnable action) {
+        try {
+            action.run();
+            return IdempotentOutcome.builder()
+                    .request(request)
+                    .succeeded(true)
+                    .build();
+        } catch (BusinessViolationException e) {
+            return IdempotentOutcome.builder()
+                    .request(request)
+                    .errorMessage(e.getMessage())
+                    .build();
+        }
+    }
+
+    private static void respond(IdempotentOutcome outcome, String request) {
+        if (!outcome.getRequest().equals(request)) {
+            throw new BusinessViolationException("Idempotency-Key was already used for a different request.");
+        }
+        if (!outcome.isSucceeded()) {
+            throw new BusinessViolationException(outcome.getErrorMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tuul.test.vehicle.controller;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+record RideQuoteDto(UUID reservationId,
+                    UUID vehicleId,
+                    LocalDateTime startTime,
+                    LocalDateTime quotedAt,
+                    BigDecimal cost) {
+}
@@ -1,12 +1,15 @@
 package com.tuul.test.vehicle.controller;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.vehicle.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -18,33 +21,50 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("vehicle")
 @RequiredArgsConstructor
 public class VehicleController {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final VehicleService vehicleService;
+    private final VehicleDtoMapper vehicleDtoMapper;
+    private final IdempotencyStore idempotencyStore;
 
     @Operation(summary = "Pair a vehicle with user", description = "Pairs the vehicle with code to user and returns the vehicle data.")
     @PostMapping("pair")
     public ResponseEntity<Void> pairVehicle(
-            @RequestHeader("Authorization") String token,
+            @AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid PairVehicleDto pairVehicleDto) {
 
-        vehicleService.pair(token, pairVehicleDto.code());
+        idempotencyStore.execute(authenticatedUser, idempotencyKey, "pair " + pairVehicleDto.code(),
+                () -> vehicleService.pair(authenticatedUser, pairVehicleDto.code()));
         return ResponseEntity.ok().build();
     }
 
     @Operation(summary = "Unpair a vehicle from user", description = "Deletes the active vehicle under the user.")
     @DeleteMapping("pair")
     public ResponseEntity<Void> unpairVehicle(
-            @RequestHeader("Authorization") String token,
+            @AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid PairVehicleDto pairVehicleDto) {
 
-        vehicleService.unpair(token, pairVehicleDto.code());
+        idempotencyStore.execute(authenticatedUser, idempotencyKey, "unpair " + pairVehicleDto.code(),
+                () -> vehicleService.unpair(authenticatedUser, pairVehicleDto.code()));
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/command")
     public ResponseEntity<Void> sendVehicleCommand(
-            @RequestHeader("Authorization") String token,
+            @AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody VehicleCommandDto vehicleCommandDto) {
-        vehicleService.sendCommand(token, vehicleCommandDto.code(), vehicleCommandDto.command());
+        idempotencyStore.execute(authenticatedUser, idempotencyKey,
+                "command " + vehicleCommandDto.code() + " " + vehicleCommandDto.command(),
+                () -> vehicleService.sendCommand(authenticatedUser, vehicleCommandDto.code(), vehicleCommandDto.command()));
         return ResponseEntity.ok().build();
     }
+
+    @Operation(summary = "Quote the active ride", description = "Returns the running cost of the user's active reservation.")
+    @GetMapping("ride/quote")
+    public ResponseEntity<RideQuoteDto> quoteRide(@AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        return ResponseEntity.ok(vehicleDtoMapper.toDto(vehicleService.quoteRide(authenticatedUser)));
+    }
 }
@@ -0,0 +1,9 @@
+package com.tuul.test.vehicle.controller;
+
+import com.tuul.test.reservation.model.RideQuote;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+interface VehicleDtoMapper {
+    RideQuoteDto toDto(RideQuote rideQuote);
+}
@@ -0,0 +1,88 @@
+package com.tuul.test.auth.config;
+
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.auth.service.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class VerifiedTokenCacheUnitTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final Instant NOW = Instant.parse("2025-02-11T12:00:00Z");
+    private static final AuthenticatedUser USER = AuthenticatedUser.builder()
+            .userId(UUID.randomUUID())
+            .expiresAt(NOW.plusSeconds(3600))
+            .build();
+
+    private final AuthService authService = mock(AuthService.class);
+    private final Clock clock = mock(Clock.class);
+
+    @BeforeEach
+    void setup() {
+        when(clock.instant()).thenReturn(NOW);
+    }
+
+    @Nested
+    class when_cache_enabled {
+        private final VerifiedTokenCache cache = new VerifiedTokenCache(authService, clock, new SimpleMeterRegistry(), true, 100);
+
+        @Test
+        void given_verified_token_then_later_calls_skip_verification() {
+            when(authService.verifyJwtToken(TOKEN)).thenReturn(Optional.of(USER));
+
+            cache.verify(TOKEN);
+            var verified = cache.verify(TOKEN);
+
+            assertThat(verified).contains(USER);
+            verify(authService, times(1)).verifyJwtToken(TOKEN);
+        }
+
+        @Test
+        void given_token_past_its_expiry_then_verify_again() {
+            when(authService.verifyJwtToken(TOKEN)).thenReturn(Optional.of(USER), Optional.empty());
+            cache.verify(TOKEN);
+            when(clock.instant()).thenReturn(USER.getExpiresAt());
+
+            var verified = cache.verify(TOKEN);
+
+            assertThat(verified).isEmpty();
+            verify(authService, times(2)).verifyJwtToken(TOKEN);
+        }
+
+        @Test
+        void given_invalid_token_then_do_not_cache_it() {
+            when(authService.verifyJwtToken(TOKEN)).thenReturn(Optional.empty(), Optional.of(USER));
+
+            assertThat(cache.verify(TOKEN)).isEmpty();
+            assertThat(cache.verify(TOKEN)).contains(USER);
+            verify(authService, times(2)).verifyJwtToken(TOKEN);
+        }
+    }
+
+    @Nested
+    class when_cache_disabled {
+        private final VerifiedTokenCache cache = new VerifiedTokenCache(authService, clock, new SimpleMeterRegistry(), false, 100);
+
+        @Test
+        void given_repeated_token_then_verify_every_time() {
+            when(authService.verifyJwtToken(TOKEN)).thenReturn(Optional.of(USER));
+
+            assertThat(cache.verify(TOKEN)).contains(USER);
+            assertThat(cache.verify(TOKEN)).contains(USER);
+            verify(authService, times(2)).verifyJwtToken(TOKEN);
+        }
+    }
+}
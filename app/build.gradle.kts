@@ -1,6 +1,9 @@
 dependencies {
+	implementation(project(":domain"))
 	implementation(project(":adapters:web"))
 	implementation(project(":adapters:firestore"))
+	implementation(project(":adapters:inmemory"))
+	implementation(project(":adapters:jdbc"))
 	implementation("org.springframework.boot:spring-boot-starter:_")
 
 	testImplementation("org.springframework.boot:spring-boot-starter-test:_") {
@@ -0,0 +1,28 @@
+package com.tuul.test.config;
+
+import com.tuul.test.pricing.model.Tariff;
+import com.tuul.test.pricing.port.FetchTariffsPort;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(PricingConfig.PricingProperties.class)
+public class PricingConfig {
+
+    @Bean
+    public FetchTariffsPort fetchTariffsPort(PricingProperties pricingProperties) {
+        return pricingProperties::getTariffs;
+    }
+
+    @Data
+    @ConfigurationProperties("pricing")
+    public static class PricingProperties {
+        private List<Tariff> tariffs = new ArrayList<>();
+    }
+}
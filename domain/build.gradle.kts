@@ -1,6 +1,12 @@
+plugins {
+    id("me.champeau.jmh")
+}
+
 dependencies {
     implementation("org.springframework:spring-context:_")
     implementation("org.springframework.security:spring-security-crypto:_")
+    implementation("io.micrometer:micrometer-core")
+    implementation("org.slf4j:slf4j-api")
     implementation("io.jsonwebtoken:jjwt-api:_")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:_")
     runtimeOnly("io.jsonwebtoken:jjwt-jackson:_")
@@ -15,4 +21,10 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+}
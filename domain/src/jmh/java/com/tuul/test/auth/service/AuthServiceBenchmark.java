@@ -0,0 +1,75 @@
+package com.tuul.test.auth.service;
+
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.auth.model.Token;
+import com.tuul.test.user.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AuthServiceBenchmark {
+    private static final String SECRET_KEY = "S+QXTyzSAuY+rmTl05TCewS5F9UngYoYFvZ3UrR76yFZ+HXsuN1QJmaIDOw/Nx/yTWUuLOiy/yV/FQhsVLK36A==";
+    private static final long EXPIRATION_MS = 3600000;
+
+    private final Clock clock = Clock.systemUTC();
+    private AuthServiceImpl authService;
+    private User user;
+    private String bearerToken;
+
+    @Setup
+    public void setup() {
+        authService = new AuthServiceImpl(clock, SECRET_KEY, EXPIRATION_MS, Set.of());
+        user = User.builder().id(UUID.randomUUID()).email("bench@example.com").build();
+        bearerToken = "Bearer " + authService.generateJwtToken(user).getToken();
+    }
+
+    @Benchmark
+    public Token sign() {
+        return authService.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> verify() {
+        return authService.verifyJwtToken(bearerToken);
+    }
+
+    @Benchmark
+    public String signWithPerCallKey() {
+        Instant now = Instant.now(clock);
+        return Jwts.builder()
+                .setSubject(user.getId().toString())
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusMillis(EXPIRATION_MS)))
+                .signWith(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verifyWithPerCallParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+                .setClock(() -> Date.from(Instant.now(clock)))
+                .build()
+                .parseClaimsJws(bearerToken.replace("Bearer ", "").trim())
+                .getBody();
+    }
+}
@@ -0,0 +1,84 @@
+package com.tuul.test.pricing.service;
+
+import com.tuul.test.pricing.model.Tariff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PricingEngineBenchmark {
+    private static final int RIDES = 1024;
+
+    private PricingEngine pricingEngine;
+    private final LocalDateTime[] startTimes = new LocalDateTime[RIDES];
+    private final LocalDateTime[] endTimes = new LocalDateTime[RIDES];
+
+    @Setup
+    public void setup() {
+        pricingEngine = new PricingEngineImpl(() -> List.of(
+                Tariff.builder()
+                        .city("tallinn")
+                        .from(LocalTime.of(22, 0))
+                        .until(LocalTime.of(6, 0))
+                        .baseFee(new BigDecimal("2.00"))
+                        .additionalMinuteRate(new BigDecimal("0.40"))
+                        .build(),
+                Tariff.builder()
+                        .vehicleClass("premium")
+                        .baseFee(new BigDecimal("3.00"))
+                        .includedMinutes(5)
+                        .includedMinuteRate(new BigDecimal("1.00"))
+                        .additionalMinuteRate(new BigDecimal("0.50"))
+                        .build()));
+
+        var start = LocalDateTime.of(2025, 2, 11, 0, 0);
+        for (int i = 0; i < RIDES; i++) {
+            startTimes[i] = start.plusMinutes(i * 7L);
+            endTimes[i] = startTimes[i].plusMinutes(3 + i % 40);
+        }
+    }
+
+    @Benchmark
+    public long repriceCents() {
+        long total = 0;
+        for (int i = 0; i < RIDES; i++) {
+            total += pricingEngine.calculateCostCents("tallinn", "premium", startTimes[i], endTimes[i]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal repriceWithBigDecimalBoundary() {
+        var total = BigDecimal.ZERO;
+        for (int i = 0; i < RIDES; i++) {
+            total = total.add(pricingEngine.calculateCost("tallinn", "premium", startTimes[i], endTimes[i]));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal repriceWithPerCallBigDecimals() {
+        var total = BigDecimal.ZERO;
+        for (int i = 0; i < RIDES; i++) {
+            var totalMinutes = Duration.between(startTimes[i], endTimes[i]).toMinutes();
+            var firstPartCost = BigDecimal.valueOf(0.5).multiply(BigDecimal.valueOf(Math.min(totalMinutes, 10)));
+            var extraPartCost = BigDecimal.valueOf(0.3).multiply(BigDecimal.valueOf(Math.max(0, totalMinutes - 10)));
+            total = total.add(BigDecimal.valueOf(1.0).add(firstPartCost).add(extraPartCost).setScale(2, RoundingMode.HALF_UP));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,15 @@
+package com.tuul.test.auth.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+public class AuthenticatedUser {
+    private UUID userId;
+    private Instant expiresAt;
+    private boolean operator;
+}
@@ -1,13 +1,14 @@
 package com.tuul.test.auth.service;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.auth.model.Token;
 import com.tuul.test.user.model.User;
 
+import java.util.Optional;
+
 public interface AuthService {
 
     Token generateJwtToken(User user);
 
-    boolean validateJwtToken(String token);
-
-    String getUserIdFromJwtToken(String token);
+    Optional<AuthenticatedUser> verifyJwtToken(String token);
 }
@@ -1,34 +1,55 @@
 package com.tuul.test.auth.service;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.auth.model.Token;
 import com.tuul.test.user.model.User;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 class AuthServiceImpl implements AuthService {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String OPERATOR_CLAIM = "operator";
+
     private final Clock clock;
-    private final String jwtSecret;
+    private final Key signingKey;
+    private final JwtParser jwtParser;
     private final long jwtExpirationMs;
+    private final Set<String> operatorEmails;
 
     public AuthServiceImpl(Clock clock,
                            @Value("${jwt.secret}") String jwtSecret,
-                           @Value("${jwt.expiration}") long jwtExpirationMs) {
+                           @Value("${jwt.expiration}") long jwtExpirationMs,
+                           @Value("${jwt.operator-emails:}") Set<String> operatorEmails) {
         this.clock = clock;
-        this.jwtSecret = jwtSecret;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        // JwtParser is immutable and thread-safe, so a single instance serves every request
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .setClock(() -> Date.from(Instant.now(clock)))
+                .build();
         this.jwtExpirationMs = jwtExpirationMs;
+        this.operatorEmails = operatorEmails.stream()
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     @Override
@@ -36,11 +57,15 @@ class AuthServiceImpl implements AuthService {
         Instant now = Instant.now(clock);
         Instant expiryDate = now.plusMillis(jwtExpirationMs);
 
-        String token = Jwts.builder()
+        var builder = Jwts.builder()
                 .setSubject(user.getId().toString())
                 .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(expiryDate))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .setExpiration(Date.from(expiryDate));
+        if (user.getEmail() != null && operatorEmails.contains(user.getEmail().toLowerCase(Locale.ROOT))) {
+            builder.claim(OPERATOR_CLAIM, true);
+        }
+        String token = builder
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
 
         return Token.builder()
@@ -50,31 +75,29 @@ class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public boolean validateJwtToken(String token) {
+    public Optional<AuthenticatedUser> verifyJwtToken(String token) {
         try {
-            createJws(token);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(stripBearerPrefix(token)).getBody();
+            return Optional.of(AuthenticatedUser.builder()
+                    .userId(UUID.fromString(claims.getSubject()))
+                    .expiresAt(claims.getExpiration().toInstant())
+                    .operator(Boolean.TRUE.equals(claims.get(OPERATOR_CLAIM, Boolean.class)))
+                    .build());
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
         }
     }
 
-    @Override
-    public String getUserIdFromJwtToken(String token) {
-        Claims claims = createJws(token).getBody();
-        return claims.getSubject();
-    }
-
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
-    }
-
-    private Jws<Claims> createJws(String token) {
-        var jwtToken = token.replace("Bearer ", "").trim();
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .setClock(() -> Date.from(Instant.now(clock)))
-                .build()
-                .parseClaimsJws(jwtToken);
+    // substring returns the same instance when nothing is stripped, so bare tokens are not copied
+    static String stripBearerPrefix(String token) {
+        int start = token.startsWith(BEARER_PREFIX) ? BEARER_PREFIX.length() : 0;
+        int end = token.length();
+        while (start < end && token.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && token.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return token.substring(start, end);
     }
 }
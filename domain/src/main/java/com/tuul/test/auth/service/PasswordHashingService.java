@@ -0,0 +1,10 @@
+package com.tuul.test.auth.service;
+
+public interface PasswordHashingService {
+
+    String encode(String rawPassword);
+
+    boolean matches(String rawPassword, String encodedPassword);
+
+    boolean needsRehash(String encodedPassword);
+}
@@ -0,0 +1,15 @@
+package com.tuul.test.common.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class DatabaseTimeoutException extends DatabaseAccessException {
+    private final Duration deadline;
+
+    public DatabaseTimeoutException(String message, Duration deadline) {
+        super(message + " (no response within " + deadline.toMillis() + " ms)", null);
+        this.deadline = deadline;
+    }
+}
@@ -0,0 +1,14 @@
+package com.tuul.test.common.port;
+
+import java.time.Duration;
+
+public interface LeasePort {
+
+    /**
+     * Takes or renews the named lease for this instance until {@code duration} from now; false while another instance
+     * holds it and it has not expired.
+     */
+    boolean tryAcquire(String name, Duration duration);
+
+    void release(String name);
+}
@@ -0,0 +1,11 @@
+package com.tuul.test.common.port;
+
+public interface UnitOfWorkPort {
+
+    /**
+     * Runs {@code work} and applies the writes it issues together; a nested call joins the outermost unit. The open
+     * unit is tracked per thread, so writes must be issued synchronously from {@code work}: a write made from the
+     * callback of an asynchronous call started inside it runs on another thread and is applied on its own.
+     */
+    void execute(Runnable work);
+}
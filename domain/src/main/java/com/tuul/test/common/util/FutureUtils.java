@@ -0,0 +1,41 @@
+package com.tuul.test.common.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@UtilityClass
+public class FutureUtils {
+
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs a blocking call for a default {@code *Async} port method, returning what it throws as a failed future so
+     * that callers handling errors on the future see it.
+     */
+    public static <T> CompletableFuture<T> completed(Supplier<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public static CompletableFuture<Void> completed(Runnable call) {
+        return completed(() -> {
+            call.run();
+            return null;
+        });
+    }
+}
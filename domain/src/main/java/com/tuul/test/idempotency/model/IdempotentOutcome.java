@@ -0,0 +1,20 @@
+package com.tuul.test.idempotency.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How a request sent with an idempotency key ended: either it succeeded or it was rejected with a business rule
+ * violation. {@code request} identifies the operation and its arguments, so a key reused for another request is caught.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotentOutcome {
+    private String request;
+    private boolean succeeded;
+    private String errorMessage;
+}
@@ -0,0 +1,13 @@
+package com.tuul.test.idempotency.port;
+
+import com.tuul.test.idempotency.model.IdempotentOutcome;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public interface IdempotencyPort {
+
+    Optional<IdempotentOutcome> fetch(String key);
+
+    void save(String key, IdempotentOutcome outcome, Duration timeToLive);
+}
@@ -0,0 +1,34 @@
+package com.tuul.test.pricing.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * A tariff applies to rides starting between {@code from} (inclusive) and {@code until} (exclusive), wrapping past
+ * midnight when {@code until} is not after {@code from}. {@link #ANY} as city or vehicle class matches every value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class Tariff {
+    public static final String ANY = "*";
+
+    @Builder.Default
+    private String city = ANY;
+    @Builder.Default
+    private String vehicleClass = ANY;
+    @Builder.Default
+    private LocalTime from = LocalTime.MIDNIGHT;
+    @Builder.Default
+    private LocalTime until = LocalTime.MIDNIGHT;
+    private BigDecimal baseFee;
+    private int includedMinutes;
+    private BigDecimal includedMinuteRate;
+    private BigDecimal additionalMinuteRate;
+}
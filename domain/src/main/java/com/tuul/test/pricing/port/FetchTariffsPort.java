@@ -0,0 +1,9 @@
+package com.tuul.test.pricing.port;
+
+import com.tuul.test.pricing.model.Tariff;
+
+import java.util.List;
+
+public interface FetchTariffsPort {
+    List<Tariff> fetchTariffs();
+}
@@ -0,0 +1,19 @@
+package com.tuul.test.pricing.service;
+
+import com.tuul.test.pricing.model.Tariff;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public interface PricingEngine {
+    long calculateCostCents(String city, String vehicleClass, LocalDateTime startTime, LocalDateTime endTime);
+
+    default BigDecimal calculateCost(String city, String vehicleClass, LocalDateTime startTime, LocalDateTime endTime) {
+        return BigDecimal.valueOf(calculateCostCents(city, vehicleClass, startTime, endTime), 2);
+    }
+
+    // vehicles carry neither a city nor a class yet, so every ride is priced by the catch-all tariffs
+    default BigDecimal calculateRideCost(LocalDateTime startTime, LocalDateTime endTime) {
+        return calculateCost(Tariff.ANY, Tariff.ANY, startTime, endTime);
+    }
+}
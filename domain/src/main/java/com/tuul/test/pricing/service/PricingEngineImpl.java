@@ -0,0 +1,116 @@
+package com.tuul.test.pricing.service;
+
+import com.tuul.test.pricing.model.Tariff;
+import com.tuul.test.pricing.port.FetchTariffsPort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the configured tariffs once into a minute-of-day table per city and vehicle class, so pricing a ride is
+ * two map lookups, an array index and integer cent arithmetic. Within a table every minute is priced by the most
+ * specific tariff covering it, falling back to {@link #DEFAULT_TARIFF}.
+ */
+@Service
+public class PricingEngineImpl implements PricingEngine {
+    static final Tariff DEFAULT_TARIFF = Tariff.builder()
+            .baseFee(new BigDecimal("1.00"))
+            .includedMinutes(10)
+            .includedMinuteRate(new BigDecimal("0.50"))
+            .additionalMinuteRate(new BigDecimal("0.30"))
+            .build();
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final Map<String, Map<String, CompiledTariff[]>> tables = new HashMap<>();
+
+    public PricingEngineImpl(FetchTariffsPort fetchTariffsPort) {
+        var tariffs = new ArrayList<Tariff>();
+        tariffs.add(DEFAULT_TARIFF);
+        tariffs.addAll(fetchTariffsPort.fetchTariffs());
+
+        var cities = tariffs.stream().map(Tariff::getCity).collect(Collectors.toSet());
+        var vehicleClasses = tariffs.stream().map(Tariff::getVehicleClass).collect(Collectors.toSet());
+        for (var city : cities) {
+            Map<String, CompiledTariff[]> byClass = new HashMap<>();
+            for (var vehicleClass : vehicleClasses) {
+                byClass.put(vehicleClass, compile(city, vehicleClass, tariffs));
+            }
+            tables.put(city, byClass);
+        }
+    }
+
+    @Override
+    public long calculateCostCents(String city, String vehicleClass, LocalDateTime startTime, LocalDateTime endTime) {
+        var minutes = Duration.between(startTime, endTime).toMinutes();
+        var minuteOfDay = startTime.getHour() * 60 + startTime.getMinute();
+        return table(city, vehicleClass)[minuteOfDay].costCents(Math.max(0, minutes));
+    }
+
+    private CompiledTariff[] table(String city, String vehicleClass) {
+        var byClass = tables.getOrDefault(city, tables.get(Tariff.ANY));
+        return byClass.getOrDefault(vehicleClass, byClass.get(Tariff.ANY));
+    }
+
+    private static CompiledTariff[] compile(String city, String vehicleClass, List<Tariff> tariffs) {
+        var table = new CompiledTariff[MINUTES_PER_DAY];
+        var specificity = new int[MINUTES_PER_DAY];
+
+        for (var tariff : tariffs) {
+            var cityMatches = tariff.getCity().equals(city) || tariff.getCity().equals(Tariff.ANY);
+            var classMatches = tariff.getVehicleClass().equals(vehicleClass) || tariff.getVehicleClass().equals(Tariff.ANY);
+            if (!cityMatches || !classMatches) {
+                continue;
+            }
+
+            // the later of two equally specific tariffs wins, so configured tariffs override the default
+            var rank = 1 + (tariff.getCity().equals(Tariff.ANY) ? 0 : 2) + (tariff.getVehicleClass().equals(Tariff.ANY) ? 0 : 1);
+            var compiled = CompiledTariff.of(tariff);
+            var from = tariff.getFrom().toSecondOfDay() / 60;
+            var until = tariff.getUntil().toSecondOfDay() / 60;
+            var length = Math.floorMod(until - from - 1, MINUTES_PER_DAY) + 1;
+            for (int offset = 0; offset < length; offset++) {
+                var minute = (from + offset) % MINUTES_PER_DAY;
+                if (rank >= specificity[minute]) {
+                    specificity[minute] = rank;
+                    table[minute] = compiled;
+                }
+            }
+        }
+        return table;
+    }
+
+    private record CompiledTariff(long baseFeeCents, long includedMinutes, long includedMinuteCents, long additionalMinuteCents) {
+
+        static CompiledTariff of(Tariff tariff) {
+            return new CompiledTariff(
+                    toCents(tariff.getBaseFee()),
+                    tariff.getIncludedMinutes(),
+                    toCents(tariff.getIncludedMinuteRate()),
+                    toCents(tariff.getAdditionalMinuteRate()));
+        }
+
+        long costCents(long minutes) {
+            var included = Math.min(minutes, includedMinutes);
+            return baseFeeCents + included * includedMinuteCents + (minutes - included) * additionalMinuteCents;
+        }
+
+        private static long toCents(BigDecimal amount) {
+            if (amount == null) {
+                return 0;
+            }
+            try {
+                return amount.movePointRight(2).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Tariff amounts must be whole cents: " + amount, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tuul.test.reservation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Position in a listing of reservations ordered by start time and id: the next page starts strictly after this start
+ * time and reservation id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationCursor {
+    private LocalDateTime startTime;
+    private UUID reservationId;
+}
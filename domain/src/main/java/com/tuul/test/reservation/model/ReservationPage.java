@@ -0,0 +1,17 @@
+package com.tuul.test.reservation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationPage {
+    private List<Reservation> reservations;
+    private String nextCursor;
+}
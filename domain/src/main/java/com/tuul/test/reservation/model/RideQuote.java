@@ -0,0 +1,22 @@
+package com.tuul.test.reservation.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RideQuote {
+    private UUID reservationId;
+    private UUID vehicleId;
+    private LocalDateTime startTime;
+    private LocalDateTime quotedAt;
+    private BigDecimal cost;
+}
@@ -1,11 +1,61 @@
 package com.tuul.test.reservation.port;
 
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface FetchReservationPort {
     boolean existsActiveReservationForUserOrVehicle(UUID user, UUID vehicle);
     Optional<Reservation> fetchActiveReservation(UUID user, UUID vehicle);
+    Optional<Reservation> fetchActiveReservation(UUID user);
+
+    /**
+     * At most {@code limit} of the user's reservations ordered by start time and then id, both descending, starting
+     * strictly after {@code after}, or from the newest one when it is null.
+     */
+    List<Reservation> fetchReservations(UUID user, ReservationCursor after, int limit);
+
+    /**
+     * At most {@code limit} reservations of all users started in {@code [from, until)}, ordered by start time and then
+     * id, both ascending, starting strictly after {@code after}, or from the earliest one when it is null.
+     */
+    List<Reservation> fetchReservationsStartedBetween(LocalDateTime from, LocalDateTime until, ReservationCursor after, int limit);
+
+    /**
+     * At most {@code limit} still active reservations started before {@code before}, ordered by start time and then id,
+     * both ascending, starting strictly after {@code after}, or from the earliest one when it is null.
+     */
+    List<Reservation> fetchActiveReservationsStartedBefore(LocalDateTime before, ReservationCursor after, int limit);
+
+    default CompletableFuture<Boolean> existsActiveReservationForUserOrVehicleAsync(UUID user, UUID vehicle) {
+        return FutureUtils.completed(() -> existsActiveReservationForUserOrVehicle(user, vehicle));
+    }
+
+    default CompletableFuture<Optional<Reservation>> fetchActiveReservationAsync(UUID user, UUID vehicle) {
+        return FutureUtils.completed(() -> fetchActiveReservation(user, vehicle));
+    }
+
+    default CompletableFuture<Optional<Reservation>> fetchActiveReservationAsync(UUID user) {
+        return FutureUtils.completed(() -> fetchActiveReservation(user));
+    }
+
+    default CompletableFuture<List<Reservation>> fetchReservationsAsync(UUID user, ReservationCursor after, int limit) {
+        return FutureUtils.completed(() -> fetchReservations(user, after, limit));
+    }
+
+    default CompletableFuture<List<Reservation>> fetchReservationsStartedBetweenAsync(LocalDateTime from, LocalDateTime until,
+                                                                                    ReservationCursor after, int limit) {
+        return FutureUtils.completed(() -> fetchReservationsStartedBetween(from, until, after, limit));
+    }
+
+    default CompletableFuture<List<Reservation>> fetchActiveReservationsStartedBeforeAsync(LocalDateTime before,
+                                                                                         ReservationCursor after, int limit) {
+        return FutureUtils.completed(() -> fetchActiveReservationsStartedBefore(before, after, limit));
+    }
 }
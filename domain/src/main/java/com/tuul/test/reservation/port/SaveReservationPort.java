@@ -1,7 +1,21 @@
 package com.tuul.test.reservation.port;
 
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.reservation.model.Reservation;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface SaveReservationPort {
     Reservation save(Reservation reservation);
+
+    /**
+     * Saves a closed reservation only while the stored one is still active, so of a STOP and the reaper closing the
+     * same ride only one wins. Returns false, writing nothing, if it was already closed; if it is closed between this
+     * check and the commit of the enclosing unit of work, that commit fails instead.
+     */
+    boolean closeIfActive(Reservation reservation);
+
+    default CompletableFuture<Reservation> saveAsync(Reservation reservation) {
+        return FutureUtils.completed(() -> save(reservation));
+    }
 }
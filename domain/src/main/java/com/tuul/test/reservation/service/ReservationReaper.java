@@ -0,0 +1,9 @@
+package com.tuul.test.reservation.service;
+
+public interface ReservationReaper {
+
+    /**
+     * Closes active reservations older than the configured maximum ride duration and returns how many were closed.
+     */
+    int reapStaleReservations();
+}
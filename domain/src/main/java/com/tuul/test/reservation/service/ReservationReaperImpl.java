@@ -0,0 +1,193 @@
+package com.tuul.test.reservation.service;
+
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.port.LeasePort;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.common.util.FutureUtils;
+import com.tuul.test.pricing.service.PricingEngine;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.usage.port.SaveUsagePort;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closes reservations whose STOP never arrived, which would otherwise block their rider and vehicle forever. A stale
+ * ride is ended as if it had been stopped when it reached the maximum ride duration, and is priced, saved and
+ * recorded exactly like a STOP. Rides are fetched in bounded batches by whichever instance holds the reaper lease
+ * and each is closed in its own unit of work, guarded on still being active: a ride its rider stopped in the meantime
+ * is skipped, and a STOP racing the close fails only that ride's commit.
+ */
+@Slf4j
+@Service
+public class ReservationReaperImpl implements ReservationReaper {
+    static final String LEASE_NAME = "reservationReaper";
+    private static final String METRIC_PREFIX = "reservations.reaper";
+
+    private final FetchReservationPort fetchReservationPort;
+    private final SaveReservationPort saveReservationPort;
+    private final FetchVehiclePort fetchVehiclePort;
+    private final SaveVehiclePort saveVehiclePort;
+    private final SaveUsagePort saveUsagePort;
+    private final UnitOfWorkPort unitOfWorkPort;
+    private final LeasePort leasePort;
+    private final PricingEngine pricingEngine;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration maxRideDuration;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration leaseDuration;
+    private final Counter reapedRows;
+    private final Counter skippedRuns;
+    private final Counter conflicts;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runDuration;
+
+    public ReservationReaperImpl(FetchReservationPort fetchReservationPort,
+                                 SaveReservationPort saveReservationPort,
+                                 FetchVehiclePort fetchVehiclePort,
+                                 SaveVehiclePort saveVehiclePort,
+                                 SaveUsagePort saveUsagePort,
+                                 UnitOfWorkPort unitOfWorkPort,
+                                 LeasePort leasePort,
+                                 PricingEngine pricingEngine,
+                                 Clock clock,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${reservation.reaper.enabled:false}") boolean enabled,
+                                 @Value("${reservation.reaper.max-ride-duration:PT12H}") Duration maxRideDuration,
+                                 @Value("${reservation.reaper.batch-size:50}") int batchSize,
+                                 @Value("${reservation.reaper.max-batches-per-run:20}") int maxBatchesPerRun,
+                                 @Value("${reservation.reaper.lease-duration:PT2M}") Duration leaseDuration) {
+        this.fetchReservationPort = fetchReservationPort;
+        this.saveReservationPort = saveReservationPort;
+        this.fetchVehiclePort = fetchVehiclePort;
+        this.saveVehiclePort = saveVehiclePort;
+        this.saveUsagePort = saveUsagePort;
+        this.unitOfWorkPort = unitOfWorkPort;
+        this.leasePort = leasePort;
+        this.pricingEngine = pricingEngine;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxRideDuration = maxRideDuration;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.leaseDuration = leaseDuration;
+        this.reapedRows = meterRegistry.counter(METRIC_PREFIX + ".rows");
+        this.skippedRuns = meterRegistry.counter(METRIC_PREFIX + ".skipped");
+        this.conflicts = meterRegistry.counter(METRIC_PREFIX + ".conflicts");
+        this.rowsPerRun = DistributionSummary.builder(METRIC_PREFIX + ".run.rows")
+                .baseUnit("rows")
+                .register(meterRegistry);
+        this.runDuration = meterRegistry.timer(METRIC_PREFIX + ".run.duration");
+    }
+
+    @Scheduled(initialDelayString = "${reservation.reaper.interval:PT5M}", fixedDelayString = "${reservation.reaper.interval:PT5M}")
+    void scheduledReap() {
+        if (enabled) {
+            reapStaleReservations();
+        }
+    }
+
+    @Override
+    public int reapStaleReservations() {
+        if (!leasePort.tryAcquire(LEASE_NAME, leaseDuration)) {
+            skippedRuns.increment();
+            return 0;
+        }
+
+        var startedAt = System.nanoTime();
+        var reaped = 0;
+        try {
+            var startedBefore = LocalDateTime.now(clock).minus(maxRideDuration);
+            ReservationCursor after = null;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                var stale = fetchReservationPort.fetchActiveReservationsStartedBefore(startedBefore, after, batchSize);
+                if (stale.isEmpty()) {
+                    break;
+                }
+                var closed = close(stale);
+                reaped += closed;
+                reapedRows.increment(closed);
+
+                // renewing the lease between batches stops this run once another instance has taken it over
+                if (stale.size() < batchSize || !leasePort.tryAcquire(LEASE_NAME, leaseDuration)) {
+                    break;
+                }
+                var last = stale.get(stale.size() - 1);
+                after = ReservationCursor.builder()
+                        .startTime(last.getStartTime())
+                        .reservationId(last.getId())
+                        .build();
+            }
+        } finally {
+            leasePort.release(LEASE_NAME);
+            rowsPerRun.record(reaped);
+            runDuration.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        return reaped;
+    }
+
+    private int close(List<Reservation> stale) {
+        var vehicles = stale.stream()
+                .map(reservation -> fetchVehiclePort.fetchAsync(reservation.getVehicleId()))
+                .toList();
+        var closed = new ArrayList<Reservation>(stale.size());
+        for (int i = 0; i < stale.size(); i++) {
+            var reservation = stale.get(i);
+            var endTime = reservation.getStartTime().plus(maxRideDuration);
+            closed.add(reservation.toBuilder()
+                    .endTime(endTime)
+                    .endingLocation(FutureUtils.join(vehicles.get(i)).map(Vehicle::getCoordinates).orElse(null))
+                    .costOfReservation(pricingEngine.calculateRideCost(reservation.getStartTime(), endTime))
+                    .build());
+        }
+
+        int count = 0;
+        for (var reservation : closed) {
+            if (closeIfActive(reservation)) {
+                count++;
+            } else {
+                conflicts.increment();
+            }
+        }
+        return count;
+    }
+
+    private boolean closeIfActive(Reservation reservation) {
+        var applied = new AtomicBoolean();
+        try {
+            unitOfWorkPort.execute(() -> {
+                if (!saveReservationPort.closeIfActive(reservation)) {
+                    return;
+                }
+                saveVehiclePort.updatePoweredOn(reservation.getVehicleId(), false);
+                saveUsagePort.recordRide(reservation);
+                applied.set(true);
+            });
+        } catch (DatabaseAccessException e) {
+            log.warn("Failed to close stale reservation {}, the next run retries it if still active: {}", reservation.getId(), e.getMessage());
+            return false;
+        }
+        return applied.get();
+    }
+}
@@ -0,0 +1,20 @@
+package com.tuul.test.reservation.service;
+
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationPage;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface ReservationService {
+
+    ReservationPage fetchHistory(AuthenticatedUser authenticatedUser, String cursor, Integer limit);
+
+    /**
+     * Lazily pages through the reservations started in {@code [from, until)}, oldest first; only one page is held at
+     * a time. The stream must be closed.
+     */
+    Stream<Reservation> exportReservations(LocalDateTime from, LocalDateTime until);
+
+}
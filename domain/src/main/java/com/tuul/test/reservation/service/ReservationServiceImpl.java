@@ -0,0 +1,151 @@
+package com.tuul.test.reservation.service;
+
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.model.ReservationPage;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+public class ReservationServiceImpl implements ReservationService {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String EXPORT_METRIC_PREFIX = "reservations.export";
+
+    private final FetchReservationPort fetchReservationPort;
+    private final int exportPageSize;
+    private final Counter exportedRows;
+    private final Timer exportDuration;
+    private final DistributionSummary exportThroughput;
+
+    public ReservationServiceImpl(FetchReservationPort fetchReservationPort,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${reservation.export.page-size:500}") int exportPageSize) {
+        this.fetchReservationPort = fetchReservationPort;
+        this.exportPageSize = exportPageSize;
+        this.exportedRows = meterRegistry.counter(EXPORT_METRIC_PREFIX + ".rows");
+        this.exportDuration = meterRegistry.timer(EXPORT_METRIC_PREFIX + ".duration");
+        this.exportThroughput = DistributionSummary.builder(EXPORT_METRIC_PREFIX + ".throughput")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ReservationPage fetchHistory(AuthenticatedUser authenticatedUser, String cursor, Integer limit) {
+        var pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new BusinessViolationException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        var after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        // one extra row tells whether another page exists without a count query
+        var reservations = fetchReservationPort.fetchReservations(authenticatedUser.getUserId(), after, pageSize + 1);
+        if (reservations.size() <= pageSize) {
+            return ReservationPage.builder()
+                    .reservations(reservations)
+                    .build();
+        }
+
+        var page = reservations.subList(0, pageSize);
+        return ReservationPage.builder()
+                .reservations(page)
+                .nextCursor(encodeCursor(page.get(pageSize - 1)))
+                .build();
+    }
+
+    @Override
+    public Stream<Reservation> exportReservations(LocalDateTime from, LocalDateTime until) {
+        if (from == null || until == null || !from.isBefore(until)) {
+            throw new BusinessViolationException("Export range start must be before its end.");
+        }
+
+        var pages = new ExportIterator(from, until);
+        var startedAt = System.nanoTime();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    var elapsed = System.nanoTime() - startedAt;
+                    exportDuration.record(elapsed, TimeUnit.NANOSECONDS);
+                    exportThroughput.record(pages.rows * 1e9 / Math.max(elapsed, 1));
+                });
+    }
+
+    private class ExportIterator implements Iterator<Reservation> {
+        private final LocalDateTime from;
+        private final LocalDateTime until;
+        private Iterator<Reservation> page = List.<Reservation>of().iterator();
+        private ReservationCursor cursor;
+        private boolean lastPage;
+        private long rows;
+
+        ExportIterator(LocalDateTime from, LocalDateTime until) {
+            this.from = from;
+            this.until = until;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !lastPage) {
+                var reservations = fetchReservationPort.fetchReservationsStartedBetween(from, until, cursor, exportPageSize);
+                lastPage = reservations.size() < exportPageSize;
+                if (!reservations.isEmpty()) {
+                    var last = reservations.get(reservations.size() - 1);
+                    cursor = ReservationCursor.builder()
+                            .startTime(last.getStartTime())
+                            .reservationId(last.getId())
+                            .build();
+                }
+                page = reservations.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public Reservation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            rows++;
+            exportedRows.increment();
+            return page.next();
+        }
+    }
+
+    private static String encodeCursor(Reservation last) {
+        var value = last.getStartTime() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ReservationCursor decodeCursor(String cursor) {
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.indexOf(CURSOR_SEPARATOR);
+            return ReservationCursor.builder()
+                    .startTime(LocalDateTime.parse(value.substring(0, separator)))
+                    .reservationId(UUID.fromString(value.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new BusinessViolationException("Invalid cursor.");
+        }
+    }
+}
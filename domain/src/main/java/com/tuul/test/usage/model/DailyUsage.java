@@ -0,0 +1,27 @@
+package com.tuul.test.usage.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Rides, ride time and revenue of one vehicle, one user or the whole fleet on one day. A ride counts towards the day
+ * it started on, the same day the reservation export files it under.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class DailyUsage {
+    private UsageScope scope;
+    private UUID subjectId;
+    private LocalDate date;
+    private long rides;
+    private long rideSeconds;
+    private BigDecimal revenue;
+}
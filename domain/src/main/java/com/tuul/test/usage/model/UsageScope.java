@@ -0,0 +1,7 @@
+package com.tuul.test.usage.model;
+
+public enum UsageScope {
+    VEHICLE,
+    USER,
+    FLEET
+}
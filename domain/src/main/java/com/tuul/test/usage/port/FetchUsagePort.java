@@ -0,0 +1,16 @@
+package com.tuul.test.usage.port;
+
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface FetchUsagePort {
+    /**
+     * Usage of the subject on each day in {@code [from, until)} that had rides, ordered by date. The subject id is
+     * null for {@link UsageScope#FLEET}.
+     */
+    List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until);
+}
@@ -0,0 +1,10 @@
+package com.tuul.test.usage.port;
+
+import com.tuul.test.reservation.model.Reservation;
+
+public interface SaveUsagePort {
+    /**
+     * Adds a finished reservation to the daily usage of its vehicle, its user and the fleet.
+     */
+    void recordRide(Reservation reservation);
+}
@@ -0,0 +1,14 @@
+package com.tuul.test.usage.service;
+
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface UsageService {
+
+    List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until);
+
+}
@@ -0,0 +1,38 @@
+package com.tuul.test.usage.service;
+
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class UsageServiceImpl implements UsageService {
+    static final int MAX_DAYS = 366;
+
+    private final FetchUsagePort fetchUsagePort;
+
+    @Override
+    public List<DailyUsage> fetchDailyUsage(UsageScope scope, UUID subjectId, LocalDate from, LocalDate until) {
+        if (scope == null) {
+            throw new BusinessViolationException("Usage scope is required.");
+        }
+        if ((scope == UsageScope.FLEET) != (subjectId == null)) {
+            throw new BusinessViolationException("Subject id is required for vehicle and user usage only.");
+        }
+        if (from == null || until == null || !from.isBefore(until)) {
+            throw new BusinessViolationException("Usage range start must be before its end.");
+        }
+        if (ChronoUnit.DAYS.between(from, until) > MAX_DAYS) {
+            throw new BusinessViolationException("Usage range must not exceed " + MAX_DAYS + " days.");
+        }
+        return fetchUsagePort.fetchDailyUsage(scope, subjectId, from, until);
+    }
+}
@@ -1,9 +1,13 @@
 package com.tuul.test.user.port;
 
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.user.model.User;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface FetchUserPort {
 
@@ -11,11 +15,23 @@ public interface FetchUserPort {
 
     Optional<User> fetch(UUID id);
 
-    boolean existsByEmail(String email);
+    boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId);
 
-    boolean existsActiveVehicleById(UUID userId);
+    Map<UUID, UUID> fetchActiveVehicleIds(Collection<UUID> userIds);
 
-    boolean existsActiveVehicleUnderAnyUsers(UUID vehicleId);
+    default CompletableFuture<Optional<User>> findByEmailAsync(String email) {
+        return FutureUtils.completed(() -> findByEmail(email));
+    }
 
-    boolean existsActiveVehicleUnderUser(UUID userId, UUID vehicleId);
+    default CompletableFuture<Optional<User>> fetchAsync(UUID id) {
+        return FutureUtils.completed(() -> fetch(id));
+    }
+
+    default CompletableFuture<Boolean> existsActiveVehicleUnderUserAsync(UUID userId, UUID vehicleId) {
+        return FutureUtils.completed(() -> existsActiveVehicleUnderUser(userId, vehicleId));
+    }
+
+    default CompletableFuture<Map<UUID, UUID>> fetchActiveVehicleIdsAsync(Collection<UUID> userIds) {
+        return FutureUtils.completed(() -> fetchActiveVehicleIds(userIds));
+    }
 }
@@ -1,13 +1,37 @@
 package com.tuul.test.user.port;
 
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.user.model.User;
 import com.tuul.test.vehicle.model.ActiveVehicle;
+import com.tuul.test.vehicle.model.PairingResult;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface SaveUserPort {
 
-    User registerUser(User user);
+    Optional<User> registerUser(User user);
+
+    void updatePassword(UUID userId, String password);
+
+    PairingResult saveActiveVehicle(ActiveVehicle activeVehicle);
+
+    boolean deleteActiveVehicle(ActiveVehicle activeVehicle);
+
+    default CompletableFuture<Optional<User>> registerUserAsync(User user) {
+        return FutureUtils.completed(() -> registerUser(user));
+    }
+
+    default CompletableFuture<Void> updatePasswordAsync(UUID userId, String password) {
+        return FutureUtils.completed(() -> updatePassword(userId, password));
+    }
 
-    void saveActiveVehicle(ActiveVehicle activeVehicle);
+    default CompletableFuture<PairingResult> saveActiveVehicleAsync(ActiveVehicle activeVehicle) {
+        return FutureUtils.completed(() -> saveActiveVehicle(activeVehicle));
+    }
 
-    void deleteActiveVehicle(ActiveVehicle activeVehicle);
+    default CompletableFuture<Boolean> deleteActiveVehicleAsync(ActiveVehicle activeVehicle) {
+        return FutureUtils.completed(() -> deleteActiveVehicle(activeVehicle));
+    }
 }
@@ -1,5 +1,6 @@
 package com.tuul.test.user.service;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.auth.model.Token;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.model.UserWithDetails;
@@ -10,6 +11,6 @@ public interface UserService {
 
     Token authenticateUser(String email, String password);
 
-    UserWithDetails fetchDetails(String token);
+    UserWithDetails fetchDetails(AuthenticatedUser authenticatedUser);
 
 }
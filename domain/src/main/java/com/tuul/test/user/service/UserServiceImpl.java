@@ -1,8 +1,12 @@
 package com.tuul.test.user.service;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.auth.model.Token;
 import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.auth.service.PasswordHashingService;
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.model.UserWithDetails;
 import com.tuul.test.user.port.FetchUserPort;
@@ -11,11 +15,10 @@ import com.tuul.test.user.util.UserValidationUtil;
 import com.tuul.test.vehicle.model.Vehicle;
 import com.tuul.test.vehicle.port.FetchVehiclePort;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
@@ -23,14 +26,14 @@ public class UserServiceImpl implements UserService {
     private final FetchUserPort fetchUserPort;
     private final FetchVehiclePort fetchVehiclePort;
     private final AuthService authService;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
 
     @Override
     public User registerUser(User user) {
         UserValidationUtil.validateForRegister(user);
-        validateUserDoesNotExistByEmail(user);
         user = hashUserPassword(user);
-        return saveUserPort.registerUser(user);
+        return saveUserPort.registerUser(user)
+                .orElseThrow(() -> new BusinessViolationException("User with this email already exists."));
     }
 
     @Override
@@ -38,13 +41,13 @@ public class UserServiceImpl implements UserService {
         var user = fetchUserPort.findByEmail(email)
                 .orElseThrow(() -> new BusinessViolationException("User with email does not exist."));
         validateUserPasswordMatches(user.getPassword(), password);
+        rehashPasswordIfNeeded(user, password);
         return authService.generateJwtToken(user);
     }
 
     @Override
-    public UserWithDetails fetchDetails(String token) {
-        var userId = UUID.fromString(authService.getUserIdFromJwtToken(token));
-        var user = fetchUserPort.fetch(userId).orElseThrow(() -> new BusinessViolationException("User does not exist"));
+    public UserWithDetails fetchDetails(AuthenticatedUser authenticatedUser) {
+        var user = fetchUserPort.fetch(authenticatedUser.getUserId()).orElseThrow(() -> new BusinessViolationException("User does not exist"));
         Vehicle vehicle = null;
         if (user.getActiveVehicleId() != null) {
             vehicle = fetchVehiclePort.fetch(user.getActiveVehicleId()).orElse(null);
@@ -56,19 +59,25 @@ public class UserServiceImpl implements UserService {
     }
 
     private User hashUserPassword(User user) {
-        var hashedPassword = passwordEncoder.encode(user.getPassword());
+        var hashedPassword = passwordHashingService.encode(user.getPassword());
         return user.toBuilder().password(hashedPassword).build();
     }
 
-    private void validateUserDoesNotExistByEmail(User user) {
-        if (fetchUserPort.existsByEmail(user.getEmail())) {
-            throw new BusinessViolationException("User with this email already exists.");
+    private void validateUserPasswordMatches(String passwordInDb, String userEnteredPassword) {
+        if (!passwordHashingService.matches(userEnteredPassword, passwordInDb)) {
+            throw new BusinessViolationException("Invalid credentials.");
         }
     }
 
-    private void validateUserPasswordMatches(String passwordInDb, String userEnteredPassword) {
-        if (!passwordEncoder.matches(userEnteredPassword, passwordInDb)) {
-            throw new BusinessViolationException("Invalid credentials.");
+    private void rehashPasswordIfNeeded(User user, String userEnteredPassword) {
+        if (!passwordHashingService.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            saveUserPort.updatePassword(user.getId(), passwordHashingService.encode(userEnteredPassword));
+        } catch (ServiceOverloadedException | DatabaseAccessException e) {
+            // the login already succeeded, the rehash is retried on the next one
+            log.warn("Password rehash for user {} skipped: {}", user.getId(), e.getMessage());
         }
     }
 }
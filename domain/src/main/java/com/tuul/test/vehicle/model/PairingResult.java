@@ -0,0 +1,7 @@
+package com.tuul.test.vehicle.model;
+
+public enum PairingResult {
+    PAIRED,
+    USER_ALREADY_PAIRED,
+    VEHICLE_ALREADY_PAIRED
+}
@@ -1,13 +1,23 @@
 package com.tuul.test.vehicle.port;
 
+import com.tuul.test.common.util.FutureUtils;
 import com.tuul.test.vehicle.model.Vehicle;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface FetchVehiclePort {
 
     Optional<Vehicle> findByCode(String code);
 
     Optional<Vehicle> fetch(UUID id);
+
+    default CompletableFuture<Optional<Vehicle>> findByCodeAsync(String code) {
+        return FutureUtils.completed(() -> findByCode(code));
+    }
+
+    default CompletableFuture<Optional<Vehicle>> fetchAsync(UUID id) {
+        return FutureUtils.completed(() -> fetch(id));
+    }
 }
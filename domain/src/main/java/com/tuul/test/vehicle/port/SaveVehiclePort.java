@@ -0,0 +1,15 @@
+package com.tuul.test.vehicle.port;
+
+import com.tuul.test.common.util.FutureUtils;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface SaveVehiclePort {
+
+    void updatePoweredOn(UUID vehicleId, boolean poweredOn);
+
+    default CompletableFuture<Void> updatePoweredOnAsync(UUID vehicleId, boolean poweredOn) {
+        return FutureUtils.completed(() -> updatePoweredOn(vehicleId, poweredOn));
+    }
+}
@@ -1,12 +1,16 @@
 package com.tuul.test.vehicle.service;
 
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.reservation.model.RideQuote;
 import com.tuul.test.vehicle.model.VehicleCommand;
 
 public interface VehicleService {
 
-    void pair(String token, String code);
+    void pair(AuthenticatedUser authenticatedUser, String code);
 
-    void unpair(String token, String code);
+    void unpair(AuthenticatedUser authenticatedUser, String code);
 
-    void sendCommand(String token, String code, VehicleCommand command);
+    void sendCommand(AuthenticatedUser authenticatedUser, String code, VehicleCommand command);
+
+    RideQuote quoteRide(AuthenticatedUser authenticatedUser);
 }
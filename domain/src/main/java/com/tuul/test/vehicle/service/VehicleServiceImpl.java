@@ -1,78 +1,82 @@
 package com.tuul.test.vehicle.service;
 
-import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.pricing.service.PricingEngine;
 import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.RideQuote;
 import com.tuul.test.reservation.port.FetchReservationPort;
 import com.tuul.test.reservation.port.SaveReservationPort;
 import com.tuul.test.user.port.FetchUserPort;
 import com.tuul.test.user.port.SaveUserPort;
+import com.tuul.test.usage.port.SaveUsagePort;
 import com.tuul.test.vehicle.model.ActiveVehicle;
 import com.tuul.test.vehicle.model.Vehicle;
 import com.tuul.test.vehicle.model.VehicleCommand;
 import com.tuul.test.vehicle.port.FetchVehiclePort;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Clock;
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class VehicleServiceImpl implements VehicleService {
-    private final AuthService authService;
     private final FetchVehiclePort fetchVehiclePort;
     private final FetchUserPort fetchUserPort;
     private final SaveUserPort saveUserPort;
     private final SaveReservationPort saveReservationPort;
     private final FetchReservationPort fetchReservationPort;
+    private final SaveVehiclePort saveVehiclePort;
+    private final SaveUsagePort saveUsagePort;
+    private final UnitOfWorkPort unitOfWorkPort;
+    private final PricingEngine pricingEngine;
     private final Clock clock;
 
     @Override
-    public void pair(String token, String code) {
-        var userId = UUID.fromString(authService.getUserIdFromJwtToken(token));
+    public void pair(AuthenticatedUser authenticatedUser, String code) {
+        var userId = authenticatedUser.getUserId();
 
         var vehicle = fetchVehiclePort.findByCode(code)
                 .orElseThrow(() -> new BusinessViolationException("Vehicle with code not found."));
 
-        if (fetchUserPort.existsActiveVehicleById(userId)) {
-            throw new BusinessViolationException("User already paired with a vehicle.");
-        }
-
-        if (fetchUserPort.existsActiveVehicleUnderAnyUsers(vehicle.getId())) {
-            throw new BusinessViolationException("Vehicle already paired with another user.");
-        }
-
-        saveUserPort.saveActiveVehicle(ActiveVehicle.builder()
+        var result = saveUserPort.saveActiveVehicle(ActiveVehicle.builder()
                 .userId(userId)
                 .vehicleId(vehicle.getId())
                 .build());
+
+        switch (result) {
+            case USER_ALREADY_PAIRED -> throw new BusinessViolationException("User already paired with a vehicle.");
+            case VEHICLE_ALREADY_PAIRED -> throw new BusinessViolationException("Vehicle already paired with another user.");
+            case PAIRED -> { }
+        }
     }
 
     @Override
-    public void unpair(String token, String code) {
-        var userId = UUID.fromString(authService.getUserIdFromJwtToken(token));
+    public void unpair(AuthenticatedUser authenticatedUser, String code) {
+        var userId = authenticatedUser.getUserId();
 
         var vehicle = fetchVehiclePort.findByCode(code)
                 .orElseThrow(() -> new BusinessViolationException("Vehicle with code not found."));
 
-        if (!fetchUserPort.existsActiveVehicleUnderUser(userId, vehicle.getId())) {
-            throw new BusinessViolationException("Vehicle not paired with user.");
-        }
-
-        saveUserPort.deleteActiveVehicle(ActiveVehicle.builder()
+        var unpaired = saveUserPort.deleteActiveVehicle(ActiveVehicle.builder()
                 .userId(userId)
                 .vehicleId(vehicle.getId())
                 .build());
+
+        if (!unpaired) {
+            throw new BusinessViolationException("Vehicle not paired with user.");
+        }
     }
 
     @Override
-    public void sendCommand(String token, String code, VehicleCommand command) {
-        var userId = UUID.fromString(authService.getUserIdFromJwtToken(token));
+    public void sendCommand(AuthenticatedUser authenticatedUser, String code, VehicleCommand command) {
+        var userId = authenticatedUser.getUserId();
 
         var vehicle = fetchVehiclePort.findByCode(code)
                 .orElseThrow(() -> new BusinessViolationException("Vehicle with code not found."));
@@ -86,7 +90,33 @@ public class VehicleServiceImpl implements VehicleService {
         } else {
             reservation = endReservation(userId, vehicle);
         }
-        saveReservationPort.save(reservation);
+        unitOfWorkPort.execute(() -> {
+            if (command == VehicleCommand.START) {
+                saveReservationPort.save(reservation);
+            } else if (!saveReservationPort.closeIfActive(reservation)) {
+                // another STOP or the reaper closed the ride since it was read, and already recorded its usage
+                throw new BusinessViolationException("Active reservation not found.");
+            }
+            saveVehiclePort.updatePoweredOn(vehicle.getId(), command == VehicleCommand.START);
+            if (command == VehicleCommand.STOP) {
+                saveUsagePort.recordRide(reservation);
+            }
+        });
+    }
+
+    @Override
+    public RideQuote quoteRide(AuthenticatedUser authenticatedUser) {
+        var reservation = fetchReservationPort.fetchActiveReservation(authenticatedUser.getUserId())
+                .orElseThrow(() -> new BusinessViolationException("Active reservation not found."));
+        var now = LocalDateTime.now(clock);
+
+        return RideQuote.builder()
+                .reservationId(reservation.getId())
+                .vehicleId(reservation.getVehicleId())
+                .startTime(reservation.getStartTime())
+                .quotedAt(now)
+                .cost(calculateCost(reservation.getStartTime(), now))
+                .build();
     }
 
     private Reservation startReservation(UUID userId, Vehicle vehicle) {
@@ -114,18 +144,6 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     private BigDecimal calculateCost(LocalDateTime startTime, LocalDateTime endTime) {
-        var totalMinutes = Duration.between(startTime, endTime).toMinutes();
-
-        var baseFee = BigDecimal.valueOf(1.0);
-        var firstTenMinuteRate = BigDecimal.valueOf(0.5);
-        var additionalMinuteRate = BigDecimal.valueOf(0.3);
-
-        var firstTenMinutes = Math.min(totalMinutes, 10);
-        var extraMinutes = Math.max(0, totalMinutes - 10);
-
-        var firstPartCost = firstTenMinuteRate.multiply(BigDecimal.valueOf(firstTenMinutes));
-        var extraPartCost = additionalMinuteRate.multiply(BigDecimal.valueOf(extraMinutes));
-
-        return baseFee.add(firstPartCost).add(extraPartCost).setScale(2, RoundingMode.HALF_UP);
+        return pricingEngine.calculateRideCost(startTime, endTime);
     }
 }
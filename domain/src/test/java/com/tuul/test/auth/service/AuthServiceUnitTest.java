@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -18,7 +20,7 @@ class AuthServiceUnitTest extends UnitTest {
     private static final long EXPIRATION_MS = 3600000;
 
     private final Clock fixedClock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
-    private final AuthService authService = new AuthServiceImpl(fixedClock, SECRET_KEY, EXPIRATION_MS);
+    private final AuthService authService = new AuthServiceImpl(fixedClock, SECRET_KEY, EXPIRATION_MS, Set.of());
 
     @Nested
     class when_generate_jwt_token {
@@ -37,42 +39,75 @@ class AuthServiceUnitTest extends UnitTest {
     }
 
     @Nested
-    class when_validate_jwt_token {
+    class when_verify_jwt_token {
 
         @Test
-        void given_valid_token_then_return_true() {
-            var user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+        void given_valid_token_then_return_authenticated_user() {
+            var userId = UUID.randomUUID();
+            var user = User.builder().id(userId).email("test@example.com").build();
             var token = authService.generateJwtToken(user);
 
-            var isValid = authService.validateJwtToken(token.getToken());
+            var authenticatedUser = authService.verifyJwtToken(token.getToken());
+
+            assertThat(authenticatedUser).isPresent();
+            assertThat(authenticatedUser.get().getUserId()).isEqualTo(userId);
+            assertThat(authenticatedUser.get().getExpiresAt())
+                    .isEqualTo(Instant.now(fixedClock).plusMillis(EXPIRATION_MS).truncatedTo(ChronoUnit.SECONDS));
+        }
+
+        @Test
+        void given_operator_email_then_return_operator() {
+            var operatorAuthService = new AuthServiceImpl(fixedClock, SECRET_KEY, EXPIRATION_MS, Set.of("Ops@Example.com"));
+            var operator = User.builder().id(UUID.randomUUID()).email("ops@example.com").build();
+            var rider = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+
+            var operatorUser = operatorAuthService.verifyJwtToken(operatorAuthService.generateJwtToken(operator).getToken());
+            var riderUser = operatorAuthService.verifyJwtToken(operatorAuthService.generateJwtToken(rider).getToken());
 
-            assertThat(isValid).isTrue();
+            assertThat(operatorUser).hasValueSatisfying(user -> assertThat(user.isOperator()).isTrue());
+            assertThat(riderUser).hasValueSatisfying(user -> assertThat(user.isOperator()).isFalse());
         }
 
         @Test
-        void given_expired_token_then_return_false() {
-            var expiredAuthService = new AuthServiceImpl(fixedClock, SECRET_KEY, -1000L);
+        void given_expired_token_then_return_empty() {
+            var expiredAuthService = new AuthServiceImpl(fixedClock, SECRET_KEY, -1000L, Set.of());
             var user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
             var expiredToken = expiredAuthService.generateJwtToken(user);
 
-            var isValid = expiredAuthService.validateJwtToken(expiredToken.getToken());
+            var authenticatedUser = expiredAuthService.verifyJwtToken(expiredToken.getToken());
+
+            assertThat(authenticatedUser).isEmpty();
+        }
+
+        @Test
+        void given_malformed_token_then_return_empty() {
+            var authenticatedUser = authService.verifyJwtToken("invalid-token");
 
-            assertThat(isValid).isFalse();
+            assertThat(authenticatedUser).isEmpty();
         }
     }
 
     @Nested
-    class when_extracting_user_id_from_token {
+    class when_strip_bearer_prefix {
 
         @Test
-        void given_valid_token_then_return_user_id() {
-            var userId = UUID.randomUUID();
-            var user = User.builder().id(userId).email("test@example.com").build();
-            var token = authService.generateJwtToken(user);
+        void given_bare_token_then_return_same_instance() {
+            var token = "header.payload.signature";
 
-            String extractedUserId = authService.getUserIdFromJwtToken(token.getToken());
+            assertThat(AuthServiceImpl.stripBearerPrefix(token)).isSameAs(token);
+        }
+
+        @Test
+        void given_prefixed_token_with_whitespace_then_return_bare_token() {
+            assertThat(AuthServiceImpl.stripBearerPrefix("Bearer  header.payload.signature ")).isEqualTo("header.payload.signature");
+        }
+
+        @Test
+        void given_prefixed_token_then_verify_successfully() {
+            var user = User.builder().id(UUID.randomUUID()).email("test@example.com").build();
+            var token = authService.generateJwtToken(user);
 
-            assertThat(UUID.fromString(extractedUserId)).isEqualTo(userId);
+            assertThat(authService.verifyJwtToken("Bearer " + token.getToken())).isPresent();
         }
     }
 }
@@ -0,0 +1,86 @@
+package com.tuul.test.auth.service;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceUnitTest extends UnitTest {
+    private static final String PASSWORD = "securePassword";
+    private static final int STRENGTH = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingServiceImpl passwordHashingService = new PasswordHashingServiceImpl(meterRegistry, STRENGTH, 1, 0, 2);
+
+    @AfterEach
+    void afterEach() {
+        passwordHashingService.destroy();
+    }
+
+    @Nested
+    class when_encode_and_match {
+
+        @Test
+        void given_encoded_password_then_matches_raw_password() {
+            var encoded = passwordHashingService.encode(PASSWORD);
+
+            assertThat(passwordHashingService.matches(PASSWORD, encoded)).isTrue();
+            assertThat(passwordHashingService.matches("wrongPassword", encoded)).isFalse();
+            assertThat(meterRegistry.get("password.hashing.duration").tag("operation", "encode").timer().count()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class when_check_needs_rehash {
+
+        @Test
+        void given_hash_with_lower_strength_then_return_true() {
+            var weakHash = new BCryptPasswordEncoder(STRENGTH - 1).encode(PASSWORD);
+
+            assertThat(passwordHashingService.needsRehash(weakHash)).isTrue();
+        }
+
+        @Test
+        void given_hash_with_configured_strength_then_return_false() {
+            var hash = passwordHashingService.encode(PASSWORD);
+
+            assertThat(passwordHashingService.needsRehash(hash)).isFalse();
+        }
+    }
+
+    @Nested
+    class when_pool_is_saturated {
+
+        @Test
+        void given_no_free_worker_then_throw_service_overloaded_exception() throws Exception {
+            var started = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            var timer = meterRegistry.timer("test.blocking");
+            var blockingTask = CompletableFuture.runAsync(() -> passwordHashingService.execute(timer, () -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> passwordHashingService.encode(PASSWORD))
+                    .isInstanceOf(ServiceOverloadedException.class)
+                    .extracting("retryAfter")
+                    .isEqualTo(Duration.ofSeconds(2));
+            assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+
+            release.countDown();
+            blockingTask.get(5, TimeUnit.SECONDS);
+        }
+    }
+}
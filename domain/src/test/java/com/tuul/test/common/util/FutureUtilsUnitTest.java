@@ -0,0 +1,70 @@
+package com.tuul.test.common.util;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FutureUtilsUnitTest extends UnitTest {
+
+    private static final DatabaseAccessException FAILURE = new DatabaseAccessException("Failed to fetch", new RuntimeException());
+
+    @Nested
+    class when_completing_blocking_call {
+
+        @Test
+        void given_call_returns_then_complete_with_its_value() {
+            assertThat(FutureUtils.completed(() -> "value")).isCompletedWithValue("value");
+        }
+
+        @Test
+        void given_call_throws_then_return_failed_future() {
+            Supplier<String> call = () -> {
+                throw FAILURE;
+            };
+
+            var future = FutureUtils.completed(call);
+
+            assertThat(future).isCompletedExceptionally();
+            assertThatThrownBy(() -> FutureUtils.join(future)).isSameAs(FAILURE);
+        }
+
+        @Test
+        void given_void_call_throws_then_return_failed_future() {
+            Runnable call = () -> {
+                throw FAILURE;
+            };
+
+            assertThat(FutureUtils.completed(call).exceptionally(error -> null)).isCompletedWithValue(null);
+            assertThatThrownBy(() -> FutureUtils.join(FutureUtils.completed(call))).isSameAs(FAILURE);
+        }
+
+        @Test
+        void given_default_async_port_method_then_failure_reaches_future_handlers() {
+            FetchVehiclePort port = new FetchVehiclePort() {
+                @Override
+                public Optional<Vehicle> findByCode(String code) {
+                    throw FAILURE;
+                }
+
+                @Override
+                public Optional<Vehicle> fetch(UUID id) {
+                    throw FAILURE;
+                }
+            };
+
+            var handled = port.fetchAsync(UUID.randomUUID()).handle((vehicle, error) -> error);
+
+            assertThat(handled).isCompletedWithValue(FAILURE);
+        }
+    }
+}
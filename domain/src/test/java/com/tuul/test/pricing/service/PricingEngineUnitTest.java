@@ -0,0 +1,99 @@
+package com.tuul.test.pricing.service;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.pricing.model.Tariff;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingEngineUnitTest extends UnitTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 2, 11, 12, 0);
+    private static final LocalDateTime NIGHT = LocalDateTime.of(2025, 2, 11, 23, 0);
+
+    private static final Tariff TALLINN_NIGHT = Tariff.builder()
+            .city("tallinn")
+            .from(LocalTime.of(22, 0))
+            .until(LocalTime.of(6, 0))
+            .baseFee(new BigDecimal("2.00"))
+            .includedMinutes(0)
+            .additionalMinuteRate(new BigDecimal("0.40"))
+            .build();
+
+    private static final Tariff PREMIUM = Tariff.builder()
+            .vehicleClass("premium")
+            .baseFee(new BigDecimal("3.00"))
+            .includedMinutes(5)
+            .includedMinuteRate(new BigDecimal("1.00"))
+            .additionalMinuteRate(new BigDecimal("0.50"))
+            .build();
+
+    @Nested
+    class when_no_tariffs_configured {
+        private final PricingEngine pricingEngine = new PricingEngineImpl(List::of);
+
+        @Test
+        void given_ride_within_first_ten_minutes_then_charge_base_fee_and_first_minute_rate() {
+            var cost = pricingEngine.calculateCost(Tariff.ANY, Tariff.ANY, NOON, NOON.plusMinutes(4));
+
+            assertThat(cost).isEqualByComparingTo("3.00");
+        }
+
+        @Test
+        void given_ride_longer_than_ten_minutes_then_charge_additional_minute_rate() {
+            var cost = pricingEngine.calculateCost("riga", "standard", NOON, NOON.plusMinutes(15).plusSeconds(59));
+
+            assertThat(cost).isEqualByComparingTo("7.50");
+            assertThat(cost.scale()).isEqualTo(2);
+        }
+
+        @Test
+        void given_ride_under_a_minute_across_a_second_boundary_then_charge_no_started_minute() {
+            // 10:00:00.900 to 10:01:00.100 lasts 59.2 seconds, less than a whole minute
+            var start = NOON.withHour(10).withNano(900_000_000);
+            var cost = pricingEngine.calculateCost(Tariff.ANY, Tariff.ANY, start, start.plusSeconds(59).plusNanos(200_000_000));
+
+            assertThat(cost).isEqualByComparingTo("1.00");
+        }
+    }
+
+    @Nested
+    class when_tariffs_configured {
+        private final PricingEngine pricingEngine = new PricingEngineImpl(() -> List.of(TALLINN_NIGHT, PREMIUM));
+
+        @Test
+        void given_city_tariff_window_wrapping_midnight_then_apply_it_only_inside_window() {
+            var sixAm = NOON.withHour(6);
+
+            assertThat(pricingEngine.calculateCostCents("tallinn", "standard", NIGHT, NIGHT.plusMinutes(20))).isEqualTo(1000);
+            assertThat(pricingEngine.calculateCostCents("tallinn", "standard", NOON, NOON.plusMinutes(20))).isEqualTo(900);
+            assertThat(pricingEngine.calculateCostCents("tallinn", "standard", sixAm, sixAm.plusMinutes(20))).isEqualTo(900);
+        }
+
+        @Test
+        void given_vehicle_class_tariff_then_apply_it_in_every_city() {
+            assertThat(pricingEngine.calculateCostCents("riga", "premium", NOON, NOON.plusMinutes(20))).isEqualTo(1550);
+        }
+
+        @Test
+        void given_city_and_class_tariffs_then_city_tariff_wins_inside_its_window() {
+            assertThat(pricingEngine.calculateCostCents("tallinn", "premium", NIGHT, NIGHT.plusMinutes(20))).isEqualTo(1000);
+            assertThat(pricingEngine.calculateCostCents("tallinn", "premium", NOON, NOON.plusMinutes(20))).isEqualTo(1550);
+        }
+    }
+
+    @Test
+    void given_tariff_with_fractional_cents_then_reject_configuration() {
+        var tariff = PREMIUM.toBuilder().additionalMinuteRate(new BigDecimal("0.125")).build();
+
+        assertThatThrownBy(() -> new PricingEngineImpl(() -> List.of(tariff)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.tuul.test.reservation.service;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.model.Coordinates;
+import com.tuul.test.common.port.LeasePort;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.pricing.service.PricingEngineImpl;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.usage.port.SaveUsagePort;
+import com.tuul.test.vehicle.model.Vehicle;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class ReservationReaperUnitTest extends UnitTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 2, 11, 15, 30);
+    private static final Duration MAX_RIDE_DURATION = Duration.ofHours(12);
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(2);
+    private static final int BATCH_SIZE = 2;
+    private static final UUID VEHICLE_ID = UUID.randomUUID();
+    private static final Coordinates VEHICLE_COORDINATES = Coordinates.builder().latitude(59.437).longitude(24.7535).build();
+
+    private final FetchReservationPort fetchReservationPort = mock(FetchReservationPort.class);
+    private final SaveReservationPort saveReservationPort = mock(SaveReservationPort.class);
+    private final FetchVehiclePort fetchVehiclePort = mock(FetchVehiclePort.class);
+    private final SaveVehiclePort saveVehiclePort = mock(SaveVehiclePort.class);
+    private final SaveUsagePort saveUsagePort = mock(SaveUsagePort.class);
+    private final UnitOfWorkPort unitOfWorkPort = mock(UnitOfWorkPort.class);
+    private final LeasePort leasePort = mock(LeasePort.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReservationReaper reservationReaper = new ReservationReaperImpl(fetchReservationPort, saveReservationPort,
+            fetchVehiclePort, saveVehiclePort, saveUsagePort, unitOfWorkPort, leasePort, new PricingEngineImpl(List::of),
+            Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC), meterRegistry,
+            true, MAX_RIDE_DURATION, BATCH_SIZE, 20, LEASE_DURATION);
+
+    @BeforeEach
+    void setup() {
+        when(leasePort.tryAcquire(ReservationReaperImpl.LEASE_NAME, LEASE_DURATION)).thenReturn(true);
+        when(fetchVehiclePort.fetchAsync(VEHICLE_ID)).thenReturn(CompletableFuture.completedFuture(Optional.of(
+                Vehicle.builder().id(VEHICLE_ID).coordinates(VEHICLE_COORDINATES).build())));
+        when(saveReservationPort.closeIfActive(any())).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(unitOfWorkPort).execute(any());
+    }
+
+    @Nested
+    class when_reap_stale_reservations {
+
+        @Test
+        void given_stale_reservation_then_close_it_when_it_reached_maximum_ride_duration() {
+            var reservation = reservation(NOW.minusHours(13));
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), null, BATCH_SIZE))
+                    .thenReturn(List.of(reservation));
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(1);
+            // 1.00 + 10 min * 0.50 + 710 min * 0.30
+            verify(saveReservationPort).closeIfActive(argThat(closed ->
+                    closed.getEndTime().equals(reservation.getStartTime().plus(MAX_RIDE_DURATION)) &&
+                            closed.getEndingLocation().equals(VEHICLE_COORDINATES) &&
+                            closed.getCostOfReservation().compareTo(new BigDecimal("219.00")) == 0
+            ));
+            verify(saveVehiclePort).updatePoweredOn(VEHICLE_ID, false);
+            verify(saveUsagePort).recordRide(argThat(closed -> closed.getId().equals(reservation.getId())));
+            verify(leasePort).release(ReservationReaperImpl.LEASE_NAME);
+            assertThat(meterRegistry.counter("reservations.reaper.rows").count()).isEqualTo(1);
+            assertThat(meterRegistry.summary("reservations.reaper.run.rows").totalAmount()).isEqualTo(1);
+        }
+
+        @Test
+        void given_full_batch_then_continue_after_its_last_reservation() {
+            var first = reservation(NOW.minusHours(14));
+            var second = reservation(NOW.minusHours(13));
+            var cursor = ReservationCursor.builder().startTime(second.getStartTime()).reservationId(second.getId()).build();
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), null, BATCH_SIZE))
+                    .thenReturn(List.of(first, second));
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), cursor, BATCH_SIZE))
+                    .thenReturn(List.of());
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(2);
+            verify(saveReservationPort, times(2)).closeIfActive(any());
+            verify(unitOfWorkPort, times(2)).execute(any());
+            verify(fetchReservationPort).fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), cursor, BATCH_SIZE);
+        }
+
+        @Test
+        void given_reservation_stopped_by_its_rider_meanwhile_then_skip_it() {
+            var stopped = reservation(NOW.minusHours(14));
+            var stale = reservation(NOW.minusHours(13));
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), null, BATCH_SIZE))
+                    .thenReturn(List.of(stopped, stale));
+            when(saveReservationPort.closeIfActive(argThat(closed -> closed.getId().equals(stopped.getId())))).thenReturn(false);
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(1);
+            verify(saveVehiclePort, times(1)).updatePoweredOn(VEHICLE_ID, false);
+            verify(saveUsagePort).recordRide(argThat(closed -> closed.getId().equals(stale.getId())));
+            verify(saveUsagePort, never()).recordRide(argThat(closed -> closed.getId().equals(stopped.getId())));
+            assertThat(meterRegistry.counter("reservations.reaper.rows").count()).isEqualTo(1);
+            assertThat(meterRegistry.counter("reservations.reaper.conflicts").count()).isEqualTo(1);
+        }
+
+        @Test
+        void given_reservation_stopped_before_commit_then_close_the_others() {
+            var stopped = reservation(NOW.minusHours(14));
+            var stale = reservation(NOW.minusHours(13));
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(NOW.minus(MAX_RIDE_DURATION), null, BATCH_SIZE))
+                    .thenReturn(List.of(stopped, stale));
+            // the first unit of work runs its writes, then its commit fails on the stored ride having changed
+            doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(0).run();
+                throw new DatabaseAccessException("Failed to commit unit of work", new RuntimeException("FAILED_PRECONDITION"));
+            }).doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(0).run();
+                return null;
+            }).when(unitOfWorkPort).execute(any());
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(1);
+            verify(saveReservationPort, times(2)).closeIfActive(any());
+            assertThat(meterRegistry.counter("reservations.reaper.rows").count()).isEqualTo(1);
+            assertThat(meterRegistry.counter("reservations.reaper.conflicts").count()).isEqualTo(1);
+        }
+
+        @Test
+        void given_lease_lost_after_batch_then_stop_run() {
+            when(leasePort.tryAcquire(ReservationReaperImpl.LEASE_NAME, LEASE_DURATION)).thenReturn(true, false);
+            when(fetchReservationPort.fetchActiveReservationsStartedBefore(any(), any(), eq(BATCH_SIZE)))
+                    .thenReturn(List.of(reservation(NOW.minusHours(14)), reservation(NOW.minusHours(13))));
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(2);
+            verify(fetchReservationPort, times(1)).fetchActiveReservationsStartedBefore(any(), any(), anyInt());
+        }
+
+        @Test
+        void given_lease_held_by_another_instance_then_skip_run() {
+            when(leasePort.tryAcquire(ReservationReaperImpl.LEASE_NAME, LEASE_DURATION)).thenReturn(false);
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isZero();
+            verifyNoInteractions(fetchReservationPort, saveReservationPort);
+            verify(leasePort, never()).release(any());
+            assertThat(meterRegistry.counter("reservations.reaper.skipped").count()).isEqualTo(1);
+        }
+    }
+
+    private static Reservation reservation(LocalDateTime startTime) {
+        return Reservation.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .vehicleId(VEHICLE_ID)
+                .startTime(startTime)
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.tuul.test.reservation.service;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.model.ReservationCursor;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ReservationServiceUnitTest extends UnitTest {
+
+    private static final LocalDateTime START_TIME = LocalDateTime.of(2025, 2, 11, 12, 0);
+    private final UUID USER_ID = UUID.randomUUID();
+    private final AuthenticatedUser AUTHENTICATED_USER = AuthenticatedUser.builder().userId(USER_ID).build();
+
+    private static final int EXPORT_PAGE_SIZE = 2;
+
+    private final FetchReservationPort fetchReservationPort = mock(FetchReservationPort.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReservationService reservationService = new ReservationServiceImpl(fetchReservationPort, meterRegistry, EXPORT_PAGE_SIZE);
+
+    @Nested
+    class when_fetch_history {
+
+        @Test
+        void given_no_limit_then_fetch_default_page_size_plus_one() {
+            when(fetchReservationPort.fetchReservations(USER_ID, null, ReservationServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                    .thenReturn(reservations(3));
+
+            var page = reservationService.fetchHistory(AUTHENTICATED_USER, null, null);
+
+            assertThat(page.getReservations()).hasSize(3);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        void given_more_reservations_than_limit_then_return_cursor_continuing_after_last_one() {
+            var reservations = reservations(3);
+            when(fetchReservationPort.fetchReservations(USER_ID, null, 3)).thenReturn(reservations);
+
+            var page = reservationService.fetchHistory(AUTHENTICATED_USER, null, 2);
+
+            assertThat(page.getReservations()).containsExactlyElementsOf(reservations.subList(0, 2));
+            assertThat(page.getNextCursor()).isNotBlank();
+
+            var last = reservations.get(1);
+            var cursor = ReservationCursor.builder().startTime(last.getStartTime()).reservationId(last.getId()).build();
+            when(fetchReservationPort.fetchReservations(USER_ID, cursor, 3)).thenReturn(reservations.subList(2, 3));
+
+            var nextPage = reservationService.fetchHistory(AUTHENTICATED_USER, page.getNextCursor(), 2);
+
+            assertThat(nextPage.getReservations()).containsExactly(reservations.get(2));
+            assertThat(nextPage.getNextCursor()).isNull();
+        }
+
+        @Test
+        void given_limit_above_maximum_then_throw_exception() {
+            assertThatThrownBy(() -> reservationService.fetchHistory(AUTHENTICATED_USER, null, ReservationServiceImpl.MAX_PAGE_SIZE + 1))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Page size must be between 1 and 100.");
+            verifyNoInteractions(fetchReservationPort);
+        }
+
+        @Test
+        void given_malformed_cursor_then_throw_exception() {
+            assertThatThrownBy(() -> reservationService.fetchHistory(AUTHENTICATED_USER, "not-a-cursor", null))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Invalid cursor.");
+            verifyNoInteractions(fetchReservationPort);
+        }
+    }
+
+    @Nested
+    class when_export_reservations {
+        private final LocalDateTime from = START_TIME.minusDays(1);
+        private final LocalDateTime until = START_TIME.plusDays(1);
+
+        @Test
+        void given_more_reservations_than_page_size_then_page_through_them_with_cursor() {
+            var reservations = reservations(3);
+            var last = reservations.get(1);
+            var cursor = ReservationCursor.builder().startTime(last.getStartTime()).reservationId(last.getId()).build();
+            when(fetchReservationPort.fetchReservationsStartedBetween(from, until, null, EXPORT_PAGE_SIZE))
+                    .thenReturn(reservations.subList(0, 2));
+            when(fetchReservationPort.fetchReservationsStartedBetween(from, until, cursor, EXPORT_PAGE_SIZE))
+                    .thenReturn(reservations.subList(2, 3));
+
+            List<Reservation> exported;
+            try (var stream = reservationService.exportReservations(from, until)) {
+                exported = stream.toList();
+            }
+
+            assertThat(exported).containsExactlyElementsOf(reservations);
+            assertThat(meterRegistry.get("reservations.export.rows").counter().count()).isEqualTo(3);
+            assertThat(meterRegistry.get("reservations.export.throughput").summary().count()).isEqualTo(1);
+        }
+
+        @Test
+        void given_stream_not_consumed_then_fetch_nothing() {
+            try (var stream = reservationService.exportReservations(from, until)) {
+                verifyNoInteractions(fetchReservationPort);
+            }
+        }
+
+        @Test
+        void given_range_end_before_start_then_throw_exception() {
+            assertThatThrownBy(() -> reservationService.exportReservations(until, from))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Export range start must be before its end.");
+        }
+    }
+
+    private List<Reservation> reservations(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Reservation.builder()
+                        .id(UUID.randomUUID())
+                        .userId(USER_ID)
+                        .startTime(START_TIME.minusHours(i))
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.tuul.test.usage.service;
+
+import com.tuul.test.UnitTest;
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class UsageServiceUnitTest extends UnitTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 2, 1);
+    private static final LocalDate UNTIL = LocalDate.of(2025, 3, 1);
+    private final UUID VEHICLE_ID = UUID.randomUUID();
+
+    private final FetchUsagePort fetchUsagePort = mock(FetchUsagePort.class);
+    private final UsageService usageService = new UsageServiceImpl(fetchUsagePort);
+
+    @Nested
+    class when_fetch_daily_usage {
+
+        @Test
+        void given_vehicle_and_range_then_return_daily_usage() {
+            var usage = List.of(DailyUsage.builder().scope(UsageScope.VEHICLE).subjectId(VEHICLE_ID).date(FROM).rides(2).build());
+            when(fetchUsagePort.fetchDailyUsage(UsageScope.VEHICLE, VEHICLE_ID, FROM, UNTIL)).thenReturn(usage);
+
+            var result = usageService.fetchDailyUsage(UsageScope.VEHICLE, VEHICLE_ID, FROM, UNTIL);
+
+            assertThat(result).isEqualTo(usage);
+        }
+
+        @Test
+        void given_vehicle_scope_without_subject_then_throw_exception() {
+            assertThatThrownBy(() -> usageService.fetchDailyUsage(UsageScope.VEHICLE, null, FROM, UNTIL))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Subject id is required for vehicle and user usage only.");
+            verifyNoInteractions(fetchUsagePort);
+        }
+
+        @Test
+        void given_fleet_scope_with_subject_then_throw_exception() {
+            assertThatThrownBy(() -> usageService.fetchDailyUsage(UsageScope.FLEET, VEHICLE_ID, FROM, UNTIL))
+                    .isInstanceOf(BusinessViolationException.class);
+            verifyNoInteractions(fetchUsagePort);
+        }
+
+        @Test
+        void given_range_longer_than_maximum_then_throw_exception() {
+            assertThatThrownBy(() -> usageService.fetchDailyUsage(UsageScope.FLEET, null, FROM, FROM.plusDays(UsageServiceImpl.MAX_DAYS + 1)))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Usage range must not exceed 366 days.");
+            verifyNoInteractions(fetchUsagePort);
+        }
+    }
+}
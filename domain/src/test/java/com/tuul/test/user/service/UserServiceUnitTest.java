@@ -1,9 +1,13 @@
 package com.tuul.test.user.service;
 
 import com.tuul.test.UnitTest;
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.auth.model.Token;
 import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.auth.service.PasswordHashingService;
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.port.FetchUserPort;
 import com.tuul.test.user.port.SaveUserPort;
@@ -11,8 +15,8 @@ import com.tuul.test.vehicle.model.Vehicle;
 import com.tuul.test.vehicle.port.FetchVehiclePort;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,17 +29,19 @@ class UserServiceUnitTest extends UnitTest {
     private static final String EMAIL = "john@example.com";
     private static final String INVALID_EMAIL = "invalid-email";
     private static final String PASSWORD = "securePassword";
+    private static final String HASHED_PASSWORD = "hashedPassword";
+    private static final String REHASHED_PASSWORD = "rehashedPassword";
     private static final String NAME = "John Doe";
     private final UUID USER_ID = UUID.randomUUID();
-    private final String VALID_TOKEN = "valid-jwt-token";
-    private final String INVALID_TOKEN = "invalid-jwt-token";
+    private final AuthenticatedUser AUTHENTICATED_USER = AuthenticatedUser.builder().userId(USER_ID).build();
     private final UUID VEHICLE_ID = UUID.randomUUID();
 
     private final SaveUserPort saveUserPort = mock(SaveUserPort.class);
     private final FetchUserPort fetchUserPort = mock(FetchUserPort.class);
     private final AuthService authService = mock(AuthService.class);
     private final FetchVehiclePort fetchVehiclePort = mock(FetchVehiclePort.class);
-    private final UserService userService = new UserServiceImpl(saveUserPort, fetchUserPort, fetchVehiclePort, authService);
+    private final PasswordHashingService passwordHashingService = mock(PasswordHashingService.class);
+    private final UserService userService = new UserServiceImpl(saveUserPort, fetchUserPort, fetchVehiclePort, authService, passwordHashingService);
 
     @Nested
     class when_register_user {
@@ -45,28 +51,43 @@ class UserServiceUnitTest extends UnitTest {
             var inputUser = User.builder().email(EMAIL).password(PASSWORD).name(NAME).build();
             var registeredUser = inputUser.toBuilder().id(UUID.randomUUID()).build();
 
-            when(fetchUserPort.existsByEmail(EMAIL)).thenReturn(false);
-            when(saveUserPort.registerUser(any(User.class))).thenReturn(registeredUser);
+            when(passwordHashingService.encode(PASSWORD)).thenReturn(HASHED_PASSWORD);
+            when(saveUserPort.registerUser(any(User.class))).thenReturn(Optional.of(registeredUser));
 
             var result = userService.registerUser(inputUser);
 
             assertThat(result).isEqualTo(registeredUser);
-            verify(fetchUserPort).existsByEmail(EMAIL);
-            verify(saveUserPort).registerUser(any(User.class));
+            verify(saveUserPort).registerUser(argThat(user -> user.getPassword().equals(HASHED_PASSWORD)));
         }
 
         @Test
         void given_existing_email_then_throw_business_violation_exception() {
             var inputUser = User.builder().email(EMAIL).password(PASSWORD).name(NAME).build();
 
-            when(fetchUserPort.existsByEmail(EMAIL)).thenReturn(true);
+            when(passwordHashingService.encode(PASSWORD)).thenReturn(HASHED_PASSWORD);
+            when(saveUserPort.registerUser(any(User.class))).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> userService.registerUser(inputUser))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("User with this email already exists.");
+        }
+
+        @Test
+        void given_rehash_write_timed_out_then_still_return_jwt_token() {
+            var user = User.builder().id(USER_ID).email(EMAIL).password(HASHED_PASSWORD).name(NAME).build();
+            var token = Token.builder().token("dummy-jwt-token").build();
+
+            when(fetchUserPort.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(PASSWORD, HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.needsRehash(HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.encode(PASSWORD)).thenReturn(REHASHED_PASSWORD);
+            doThrow(new DatabaseTimeoutException("Failed to update password", Duration.ofSeconds(2)))
+                    .when(saveUserPort).updatePassword(USER_ID, REHASHED_PASSWORD);
+            when(authService.generateJwtToken(user)).thenReturn(token);
+
+            var result = userService.authenticateUser(EMAIL, PASSWORD);
 
-            verify(fetchUserPort).existsByEmail(EMAIL);
-            verifyNoInteractions(saveUserPort);
+            assertThat(result).isEqualTo(token);
         }
 
         @Test
@@ -83,10 +104,11 @@ class UserServiceUnitTest extends UnitTest {
 
         @Test
         void given_valid_credentials_then_return_jwt_token() {
-            var user = User.builder().id(UUID.randomUUID()).email(EMAIL).password(new BCryptPasswordEncoder().encode(PASSWORD)).name(NAME).build();
+            var user = User.builder().id(USER_ID).email(EMAIL).password(HASHED_PASSWORD).name(NAME).build();
             var token = Token.builder().token("dummy-jwt-token").build();
 
             when(fetchUserPort.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(PASSWORD, HASHED_PASSWORD)).thenReturn(true);
             when(authService.generateJwtToken(user)).thenReturn(token);
 
             var result = userService.authenticateUser(EMAIL, PASSWORD);
@@ -94,6 +116,41 @@ class UserServiceUnitTest extends UnitTest {
             assertThat(result).isEqualTo(token);
             verify(fetchUserPort).findByEmail(EMAIL);
             verify(authService).generateJwtToken(user);
+            verify(saveUserPort, never()).updatePassword(any(), any());
+        }
+
+        @Test
+        void given_password_hashed_with_outdated_strength_then_rehash_and_return_jwt_token() {
+            var user = User.builder().id(USER_ID).email(EMAIL).password(HASHED_PASSWORD).name(NAME).build();
+            var token = Token.builder().token("dummy-jwt-token").build();
+
+            when(fetchUserPort.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(PASSWORD, HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.needsRehash(HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.encode(PASSWORD)).thenReturn(REHASHED_PASSWORD);
+            when(authService.generateJwtToken(user)).thenReturn(token);
+
+            var result = userService.authenticateUser(EMAIL, PASSWORD);
+
+            assertThat(result).isEqualTo(token);
+            verify(saveUserPort).updatePassword(USER_ID, REHASHED_PASSWORD);
+        }
+
+        @Test
+        void given_rehash_rejected_by_overloaded_hashing_pool_then_still_return_jwt_token() {
+            var user = User.builder().id(USER_ID).email(EMAIL).password(HASHED_PASSWORD).name(NAME).build();
+            var token = Token.builder().token("dummy-jwt-token").build();
+
+            when(fetchUserPort.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(PASSWORD, HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.needsRehash(HASHED_PASSWORD)).thenReturn(true);
+            when(passwordHashingService.encode(PASSWORD)).thenThrow(new ServiceOverloadedException("Overloaded", Duration.ofSeconds(1)));
+            when(authService.generateJwtToken(user)).thenReturn(token);
+
+            var result = userService.authenticateUser(EMAIL, PASSWORD);
+
+            assertThat(result).isEqualTo(token);
+            verify(saveUserPort, never()).updatePassword(any(), any());
         }
 
         @Test
@@ -107,9 +164,10 @@ class UserServiceUnitTest extends UnitTest {
 
         @Test
         void given_invalid_password_then_throw_business_violation_exception() {
-            var user = User.builder().id(UUID.randomUUID()).email(EMAIL).password(new BCryptPasswordEncoder().encode("wrongPassword")).name(NAME).build();
+            var user = User.builder().id(UUID.randomUUID()).email(EMAIL).password(HASHED_PASSWORD).name(NAME).build();
 
             when(fetchUserPort.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(PASSWORD, HASHED_PASSWORD)).thenReturn(false);
 
             assertThatThrownBy(() -> userService.authenticateUser(EMAIL, PASSWORD))
                     .isInstanceOf(BusinessViolationException.class)
@@ -121,7 +179,7 @@ class UserServiceUnitTest extends UnitTest {
     class when_fetching_details {
 
         @Test
-        void given_valid_token_with_active_vehicle_then_return_user_with_vehicle_details() {
+        void given_authenticated_user_with_active_vehicle_then_return_user_with_vehicle_details() {
             var user = User.builder()
                     .id(USER_ID)
                     .email(EMAIL)
@@ -135,22 +193,20 @@ class UserServiceUnitTest extends UnitTest {
                     .stateOfCharge(85.0)
                     .build();
 
-            when(authService.getUserIdFromJwtToken(VALID_TOKEN)).thenReturn(USER_ID.toString());
             when(fetchUserPort.fetch(USER_ID)).thenReturn(Optional.of(user));
             when(fetchVehiclePort.fetch(VEHICLE_ID)).thenReturn(Optional.of(vehicle));
 
-            var result = userService.fetchDetails(VALID_TOKEN);
+            var result = userService.fetchDetails(AUTHENTICATED_USER);
 
             assertThat(result.getUser()).isEqualTo(user);
             assertThat(result.getActiveVehicle()).isEqualTo(vehicle);
 
-            verify(authService).getUserIdFromJwtToken(VALID_TOKEN);
             verify(fetchUserPort).fetch(USER_ID);
             verify(fetchVehiclePort).fetch(VEHICLE_ID);
         }
 
         @Test
-        void given_valid_token_without_active_vehicle_then_return_user_with_null_vehicle() {
+        void given_authenticated_user_without_active_vehicle_then_return_user_with_null_vehicle() {
             var user = User.builder()
                     .id(USER_ID)
                     .email(EMAIL)
@@ -158,35 +214,31 @@ class UserServiceUnitTest extends UnitTest {
                     .activeVehicleId(null)
                     .build();
 
-            when(authService.getUserIdFromJwtToken(VALID_TOKEN)).thenReturn(USER_ID.toString());
             when(fetchUserPort.fetch(USER_ID)).thenReturn(Optional.of(user));
 
-            var result = userService.fetchDetails(VALID_TOKEN);
+            var result = userService.fetchDetails(AUTHENTICATED_USER);
 
             assertThat(result.getUser()).isEqualTo(user);
             assertThat(result.getActiveVehicle()).isNull();
 
-            verify(authService).getUserIdFromJwtToken(VALID_TOKEN);
             verify(fetchUserPort).fetch(USER_ID);
             verify(fetchVehiclePort, never()).fetch(any());
         }
 
         @Test
-        void given_invalid_token_then_throw_business_violation_exception() {
-            when(authService.getUserIdFromJwtToken(INVALID_TOKEN)).thenReturn(USER_ID.toString());
+        void given_unknown_user_then_throw_business_violation_exception() {
             when(fetchUserPort.fetch(USER_ID)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> userService.fetchDetails(INVALID_TOKEN))
+            assertThatThrownBy(() -> userService.fetchDetails(AUTHENTICATED_USER))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("User does not exist");
 
-            verify(authService).getUserIdFromJwtToken(INVALID_TOKEN);
             verify(fetchUserPort).fetch(USER_ID);
             verifyNoInteractions(fetchVehiclePort);
         }
 
         @Test
-        void given_valid_token_but_vehicle_not_found_then_return_user_with_null_vehicle() {
+        void given_authenticated_user_but_vehicle_not_found_then_return_user_with_null_vehicle() {
             var user = User.builder()
                     .id(USER_ID)
                     .email(EMAIL)
@@ -194,16 +246,14 @@ class UserServiceUnitTest extends UnitTest {
                     .activeVehicleId(VEHICLE_ID)
                     .build();
 
-            when(authService.getUserIdFromJwtToken(VALID_TOKEN)).thenReturn(USER_ID.toString());
             when(fetchUserPort.fetch(USER_ID)).thenReturn(Optional.of(user));
             when(fetchVehiclePort.fetch(VEHICLE_ID)).thenReturn(Optional.empty());
 
-            var result = userService.fetchDetails(VALID_TOKEN);
+            var result = userService.fetchDetails(AUTHENTICATED_USER);
 
             assertThat(result.getUser()).isEqualTo(user);
             assertThat(result.getActiveVehicle()).isNull();
 
-            verify(authService).getUserIdFromJwtToken(VALID_TOKEN);
             verify(fetchUserPort).fetch(USER_ID);
             verify(fetchVehiclePort).fetch(VEHICLE_ID);
         }
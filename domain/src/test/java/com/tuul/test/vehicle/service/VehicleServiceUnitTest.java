@@ -1,18 +1,23 @@
 package com.tuul.test.vehicle.service;
 
 import com.tuul.test.UnitTest;
-import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.auth.model.AuthenticatedUser;
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.pricing.service.PricingEngine;
+import com.tuul.test.pricing.service.PricingEngineImpl;
 import com.tuul.test.reservation.model.Reservation;
 import com.tuul.test.reservation.port.FetchReservationPort;
 import com.tuul.test.reservation.port.SaveReservationPort;
 import com.tuul.test.user.port.FetchUserPort;
 import com.tuul.test.user.port.SaveUserPort;
+import com.tuul.test.usage.port.SaveUsagePort;
 import com.tuul.test.vehicle.model.ActiveVehicle;
+import com.tuul.test.vehicle.model.PairingResult;
 import com.tuul.test.vehicle.model.Vehicle;
 import com.tuul.test.vehicle.model.VehicleCommand;
 import com.tuul.test.vehicle.port.FetchVehiclePort;
-import org.junit.jupiter.api.BeforeEach;
+import com.tuul.test.vehicle.port.SaveVehiclePort;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
@@ -20,45 +25,44 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class VehicleServiceUnitTest extends UnitTest {
 
-    private static final String TOKEN = "dummy-jwt-token";
     private static final UUID USER_ID = UUID.randomUUID();
+    private static final AuthenticatedUser AUTHENTICATED_USER = AuthenticatedUser.builder().userId(USER_ID).build();
     private static final String VEHICLE_CODE = "code1";
     private static final UUID VEHICLE_ID = UUID.randomUUID();
     private static final Vehicle VEHICLE = Vehicle.builder().id(VEHICLE_ID).code(VEHICLE_CODE).build();
     private static final ActiveVehicle ACTIVE_VEHICLE = ActiveVehicle.builder().userId(USER_ID).vehicleId(VEHICLE_ID).build();
 
-    private final AuthService authService = mock(AuthService.class);
     private final FetchVehiclePort fetchVehiclePort = mock(FetchVehiclePort.class);
     private final FetchUserPort fetchUserPort = mock(FetchUserPort.class);
     private final SaveUserPort saveUserPort = mock(SaveUserPort.class);
     private final SaveReservationPort saveReservationPort = mock(SaveReservationPort.class);
     private final FetchReservationPort fetchReservationPort = mock(FetchReservationPort.class);
+    private final SaveVehiclePort saveVehiclePort = mock(SaveVehiclePort.class);
+    private final SaveUsagePort saveUsagePort = mock(SaveUsagePort.class);
+    private final UnitOfWorkPort unitOfWorkPort = Runnable::run;
+    private final PricingEngine pricingEngine = new PricingEngineImpl(List::of);
     private final Clock fixedClock = Clock.fixed(LocalDateTime.of(2025, 2, 11, 15, 30, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
-    private final VehicleService vehicleService = new VehicleServiceImpl(authService, fetchVehiclePort, fetchUserPort, saveUserPort, saveReservationPort, fetchReservationPort, fixedClock);
-
-    @BeforeEach
-    void beforeEach() {
-        when(authService.getUserIdFromJwtToken(TOKEN)).thenReturn(USER_ID.toString());
-    }
+    private final VehicleService vehicleService = new VehicleServiceImpl(fetchVehiclePort, fetchUserPort, saveUserPort, saveReservationPort, fetchReservationPort, saveVehiclePort, saveUsagePort, unitOfWorkPort, pricingEngine, fixedClock);
 
     @Nested
     class when_pair_vehicle {
 
         @Test
-        void given_valid_token_and_vehicle_code_then_pair_successfully() {
+        void given_authenticated_user_and_vehicle_code_then_pair_successfully() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
-            when(fetchUserPort.existsActiveVehicleById(USER_ID)).thenReturn(false);
-            when(fetchUserPort.existsActiveVehicleUnderAnyUsers(VEHICLE_ID)).thenReturn(false);
+            when(saveUserPort.saveActiveVehicle(ACTIVE_VEHICLE)).thenReturn(PairingResult.PAIRED);
 
-            vehicleService.pair(TOKEN, VEHICLE_CODE);
+            vehicleService.pair(AUTHENTICATED_USER, VEHICLE_CODE);
 
             verify(saveUserPort).saveActiveVehicle(ACTIVE_VEHICLE);
         }
@@ -67,7 +71,7 @@ class VehicleServiceUnitTest extends UnitTest {
         void given_invalid_vehicle_code_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> vehicleService.pair(TOKEN, VEHICLE_CODE))
+            assertThatThrownBy(() -> vehicleService.pair(AUTHENTICATED_USER, VEHICLE_CODE))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle with code not found.");
         }
@@ -75,9 +79,9 @@ class VehicleServiceUnitTest extends UnitTest {
         @Test
         void given_user_already_paired_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
-            when(fetchUserPort.existsActiveVehicleById(USER_ID)).thenReturn(true);
+            when(saveUserPort.saveActiveVehicle(ACTIVE_VEHICLE)).thenReturn(PairingResult.USER_ALREADY_PAIRED);
 
-            assertThatThrownBy(() -> vehicleService.pair(TOKEN, VEHICLE_CODE))
+            assertThatThrownBy(() -> vehicleService.pair(AUTHENTICATED_USER, VEHICLE_CODE))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("User already paired with a vehicle.");
         }
@@ -85,10 +89,9 @@ class VehicleServiceUnitTest extends UnitTest {
         @Test
         void given_vehicle_already_paired_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
-            when(fetchUserPort.existsActiveVehicleById(USER_ID)).thenReturn(false);
-            when(fetchUserPort.existsActiveVehicleUnderAnyUsers(VEHICLE_ID)).thenReturn(true);
+            when(saveUserPort.saveActiveVehicle(ACTIVE_VEHICLE)).thenReturn(PairingResult.VEHICLE_ALREADY_PAIRED);
 
-            assertThatThrownBy(() -> vehicleService.pair(TOKEN, VEHICLE_CODE))
+            assertThatThrownBy(() -> vehicleService.pair(AUTHENTICATED_USER, VEHICLE_CODE))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle already paired with another user.");
         }
@@ -98,11 +101,11 @@ class VehicleServiceUnitTest extends UnitTest {
     class when_unpair_vehicle {
 
         @Test
-        void given_valid_token_and_vehicle_code_then_unpair_successfully() {
+        void given_authenticated_user_and_vehicle_code_then_unpair_successfully() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
-            when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
+            when(saveUserPort.deleteActiveVehicle(ACTIVE_VEHICLE)).thenReturn(true);
 
-            vehicleService.unpair(TOKEN, VEHICLE_CODE);
+            vehicleService.unpair(AUTHENTICATED_USER, VEHICLE_CODE);
 
             verify(saveUserPort).deleteActiveVehicle(ACTIVE_VEHICLE);
         }
@@ -111,7 +114,7 @@ class VehicleServiceUnitTest extends UnitTest {
         void given_invalid_vehicle_code_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> vehicleService.unpair(TOKEN, VEHICLE_CODE))
+            assertThatThrownBy(() -> vehicleService.unpair(AUTHENTICATED_USER, VEHICLE_CODE))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle with code not found.");
         }
@@ -119,9 +122,9 @@ class VehicleServiceUnitTest extends UnitTest {
         @Test
         void given_user_not_paired_with_vehicle_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
-            when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(false);
+            when(saveUserPort.deleteActiveVehicle(ACTIVE_VEHICLE)).thenReturn(false);
 
-            assertThatThrownBy(() -> vehicleService.unpair(TOKEN, VEHICLE_CODE))
+            assertThatThrownBy(() -> vehicleService.unpair(AUTHENTICATED_USER, VEHICLE_CODE))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle not paired with user.");
         }
@@ -136,7 +139,7 @@ class VehicleServiceUnitTest extends UnitTest {
             when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
             when(fetchReservationPort.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).thenReturn(false);
 
-            vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.START);
+            vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.START);
 
             verify(saveReservationPort).save(argThat(reservation ->
                     reservation.getUserId().equals(USER_ID) &&
@@ -144,13 +147,15 @@ class VehicleServiceUnitTest extends UnitTest {
                             reservation.getStartTime().equals(LocalDateTime.now(fixedClock)) &&
                             reservation.getEndingLocation() == null
             ));
+            verify(saveVehiclePort).updatePoweredOn(VEHICLE_ID, true);
+            verifyNoInteractions(saveUsagePort);
         }
 
         @Test
         void given_vehicle_code_not_found_then_throw_business_violation_exception() {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.START))
+            assertThatThrownBy(() -> vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.START))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle with code not found.");
 
@@ -165,7 +170,7 @@ class VehicleServiceUnitTest extends UnitTest {
             when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
             when(fetchReservationPort.existsActiveReservationForUserOrVehicle(USER_ID, VEHICLE_ID)).thenReturn(true);
 
-            assertThatThrownBy(() -> vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.START))
+            assertThatThrownBy(() -> vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.START))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle or user already has active reservation.");
         }
@@ -175,7 +180,7 @@ class VehicleServiceUnitTest extends UnitTest {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
             when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(false);
 
-            assertThatThrownBy(() -> vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.START))
+            assertThatThrownBy(() -> vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.START))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Vehicle not paired with user.");
 
@@ -195,13 +200,39 @@ class VehicleServiceUnitTest extends UnitTest {
             when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
             when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
             when(fetchReservationPort.fetchActiveReservation(USER_ID, VEHICLE_ID)).thenReturn(Optional.of(activeReservation));
+            when(saveReservationPort.closeIfActive(any())).thenReturn(true);
 
-            vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.STOP);
+            vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.STOP);
 
-            verify(saveReservationPort).save(argThat(reservation ->
+            verify(saveReservationPort, never()).save(any());
+            verify(saveReservationPort).closeIfActive(argThat(reservation ->
                     reservation.getEndTime().equals(LocalDateTime.now(fixedClock)) &&
                             reservation.getCostOfReservation().compareTo(new BigDecimal("7.50")) == 0
             ));
+            verify(saveVehiclePort).updatePoweredOn(VEHICLE_ID, false);
+            verify(saveUsagePort).recordRide(argThat(reservation -> reservation.getEndTime().equals(LocalDateTime.now(fixedClock))));
+        }
+
+        @Test
+        void given_reservation_closed_since_it_was_read_then_do_not_record_ride_again() {
+            var activeReservation = Reservation.builder()
+                    .id(UUID.randomUUID())
+                    .userId(USER_ID)
+                    .vehicleId(VEHICLE_ID)
+                    .startTime(LocalDateTime.now(fixedClock).minusMinutes(15))
+                    .build();
+
+            when(fetchVehiclePort.findByCode(VEHICLE_CODE)).thenReturn(Optional.of(VEHICLE));
+            when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
+            when(fetchReservationPort.fetchActiveReservation(USER_ID, VEHICLE_ID)).thenReturn(Optional.of(activeReservation));
+            when(saveReservationPort.closeIfActive(any())).thenReturn(false);
+
+            assertThatThrownBy(() -> vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.STOP))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Active reservation not found.");
+
+            verify(saveVehiclePort, never()).updatePoweredOn(any(), anyBoolean());
+            verify(saveUsagePort, never()).recordRide(any());
         }
 
         @Test
@@ -210,10 +241,39 @@ class VehicleServiceUnitTest extends UnitTest {
             when(fetchUserPort.existsActiveVehicleUnderUser(USER_ID, VEHICLE_ID)).thenReturn(true);
             when(fetchReservationPort.fetchActiveReservation(USER_ID, VEHICLE_ID)).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> vehicleService.sendCommand(TOKEN, VEHICLE_CODE, VehicleCommand.STOP))
+            assertThatThrownBy(() -> vehicleService.sendCommand(AUTHENTICATED_USER, VEHICLE_CODE, VehicleCommand.STOP))
                     .isInstanceOf(BusinessViolationException.class)
                     .hasMessage("Active reservation not found.");
         }
     }
 
+    @Nested
+    class when_quote_ride {
+
+        @Test
+        void given_active_reservation_then_price_ride_until_now() {
+            var reservation = Reservation.builder()
+                    .id(UUID.randomUUID())
+                    .userId(USER_ID)
+                    .vehicleId(VEHICLE_ID)
+                    .startTime(LocalDateTime.now(fixedClock).minusMinutes(15))
+                    .build();
+            when(fetchReservationPort.fetchActiveReservation(USER_ID)).thenReturn(Optional.of(reservation));
+
+            var quote = vehicleService.quoteRide(AUTHENTICATED_USER);
+
+            assertThat(quote.getReservationId()).isEqualTo(reservation.getId());
+            assertThat(quote.getQuotedAt()).isEqualTo(LocalDateTime.now(fixedClock));
+            assertThat(quote.getCost()).isEqualByComparingTo("7.50");
+        }
+
+        @Test
+        void given_no_active_reservation_then_throw_exception() {
+            when(fetchReservationPort.fetchActiveReservation(USER_ID)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> vehicleService.quoteRide(AUTHENTICATED_USER))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Active reservation not found.");
+        }
+    }
 }
@@ -2,6 +2,7 @@ dependencies {
     implementation(project(":app"))
     implementation(project(":domain"))
     implementation(project(":adapters:web"))
+    testImplementation(project(":adapters:firestore"))
 
     implementation("org.springframework.boot:spring-boot-starter-web:_")
 
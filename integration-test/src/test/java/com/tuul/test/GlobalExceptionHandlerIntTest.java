@@ -1,6 +1,8 @@
 package com.tuul.test;
 
 import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.exception.DatabaseTimeoutException;
+import com.tuul.test.common.exception.ServiceOverloadedException;
 import com.tuul.test.common.exception.UnexpectedStateException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
@@ -8,10 +10,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Nested;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class GlobalExceptionHandlerIntTest extends IntegrationTest {
@@ -44,6 +49,27 @@ public class GlobalExceptionHandlerIntTest extends IntegrationTest {
             assertThat(response.getBody().timestamp()).isNotNull();
         }
 
+        @Test
+        void given_service_overloaded_exception_then_return_service_unavailable_with_retry_after() {
+            var response = restTemplate.getForEntity("/mock/overloaded", ErrorResponse.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().status()).isEqualTo(503);
+            assertThat(response.getBody().message()).isEqualTo("Service overloaded");
+        }
+
+        @Test
+        void given_database_timeout_exception_then_return_gateway_timeout() {
+            var response = restTemplate.getForEntity("/mock/timeout", ErrorResponse.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().status()).isEqualTo(504);
+            assertThat(response.getBody().message()).isEqualTo("The request timed out, please try again.");
+        }
+
         @Test
         void given_unexpected_state_exception_then_return_internal_server_error() {
             var response = restTemplate.getForEntity("/mock/unexpected", ErrorResponse.class);
@@ -78,6 +104,16 @@ public class GlobalExceptionHandlerIntTest extends IntegrationTest {
             throw new BusinessViolationException("Business rule violated");
         }
 
+        @GetMapping("/overloaded")
+        public void throwServiceOverloadedException() {
+            throw new ServiceOverloadedException("Service overloaded", Duration.ofSeconds(2));
+        }
+
+        @GetMapping("/timeout")
+        public void throwDatabaseTimeoutException() {
+            throw new DatabaseTimeoutException("Failed to fetch user", Duration.ofSeconds(2));
+        }
+
         @GetMapping("/unexpected")
         public void throwUnexpectedStateException() {
             throw new UnexpectedStateException("Unexpected state occurred");
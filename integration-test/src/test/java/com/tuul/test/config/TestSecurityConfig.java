@@ -1,7 +1,7 @@
 package com.tuul.test.config;
 
 import com.tuul.test.auth.config.JwtAuthenticationFilter;
-import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.auth.config.VerifiedTokenCache;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -17,7 +17,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 class TestSecurityConfig {
 
     @Autowired
-    private  AuthService authService;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Bean
     public SecurityFilterChain testSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -28,9 +28,10 @@ class TestSecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/user", "/user/login", "/mock/**").permitAll()
+                        .requestMatchers("/operator/**").hasRole(JwtAuthenticationFilter.OPERATOR_ROLE)
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtAuthenticationFilter(authService), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtAuthenticationFilter(verifiedTokenCache), UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(exception -> exception
                         .authenticationEntryPoint((request, response, authException) -> {
                             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unauthorized: Token missing or invalid");
@@ -0,0 +1,155 @@
+package com.tuul.test.operator.controller;
+
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.service.UserService;
+import com.tuul.test.vehicle.model.VehicleCommand;
+import com.tuul.test.vehicle.service.VehicleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OperatorControllerIntTest extends IntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private AuthService authService;
+
+    private static final String PASSWORD = "securePassword123";
+    private static final String EXPORT_URL = "/operator/reservations/export?from={from}&until={until}&format={format}";
+
+    private static final String USAGE_URL = "/operator/usage?scope={scope}&subjectId={subjectId}&from={from}&until={until}";
+
+    private final HttpHeaders operatorHeaders = new HttpHeaders();
+    private final HttpHeaders riderHeaders = new HttpHeaders();
+    private UUID riderId;
+
+    @BeforeEach
+    void setup() {
+        operatorHeaders.setBearerAuth(registerAndLogin("operator@example.com"));
+        var riderToken = registerAndLogin("rider@example.com");
+        riderHeaders.setBearerAuth(riderToken);
+
+        var rider = authService.verifyJwtToken(riderToken).orElseThrow();
+        riderId = rider.getUserId();
+        vehicleService.pair(rider, "code1");
+        for (int i = 0; i < 3; i++) {
+            vehicleService.sendCommand(rider, "code1", VehicleCommand.START);
+            vehicleService.sendCommand(rider, "code1", VehicleCommand.STOP);
+        }
+    }
+
+    @Nested
+    class when_export_reservations {
+        private final LocalDateTime from = LocalDateTime.now().minusDays(1);
+        private final LocalDateTime until = LocalDateTime.now().plusDays(1);
+
+        @Test
+        void given_ndjson_format_then_stream_one_json_line_per_reservation() {
+            ResponseEntity<String> response = restTemplate.exchange(EXPORT_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), String.class, from, until, "NDJSON");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().lines()).hasSize(3)
+                    .allSatisfy(line -> assertThat(line).startsWith("{\"id\":").contains("\"costOfReservation\":"));
+        }
+
+        @Test
+        void given_csv_format_then_stream_header_and_one_row_per_reservation() {
+            ResponseEntity<String> response = restTemplate.exchange(EXPORT_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), String.class, from, until, "CSV");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isNotNull();
+            var lines = response.getBody().lines().toList();
+            assertThat(lines).hasSize(4);
+            assertThat(lines.get(0)).startsWith("id,userId,vehicleId,startTime");
+            assertThat(lines.get(1).split(",", -1)).hasSize(10);
+        }
+
+        @Test
+        void given_range_outside_reservations_then_stream_nothing() {
+            ResponseEntity<String> response = restTemplate.exchange(EXPORT_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), String.class, from.minusDays(7), from, "NDJSON");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isNullOrEmpty();
+        }
+
+        @Test
+        void given_range_end_before_start_then_return_bad_request() {
+            ResponseEntity<String> response = restTemplate.exchange(EXPORT_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), String.class, until, from, "NDJSON");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Export range start must be before its end.");
+        }
+
+        @Test
+        void given_rider_token_then_return_forbidden() {
+            ResponseEntity<String> response = restTemplate.exchange(EXPORT_URL, HttpMethod.GET,
+                    new HttpEntity<>(riderHeaders), String.class, from, until, "NDJSON");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+    }
+
+    @Nested
+    class when_fetch_daily_usage {
+        private final LocalDate from = LocalDate.now().minusDays(1);
+        private final LocalDate until = LocalDate.now().plusDays(2);
+
+        @Test
+        void given_finished_rides_then_return_them_aggregated_per_day() {
+            ResponseEntity<DailyUsageDto[]> fleet = restTemplate.exchange(USAGE_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), DailyUsageDto[].class, "FLEET", "", from, until);
+            ResponseEntity<DailyUsageDto[]> user = restTemplate.exchange(USAGE_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), DailyUsageDto[].class, "USER", riderId, from, until);
+
+            assertThat(fleet.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(fleet.getBody()).singleElement().satisfies(day -> {
+                assertThat(day.rides()).isEqualTo(3);
+                assertThat(day.revenue()).isEqualByComparingTo("3.00");
+            });
+            assertThat(user.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(user.getBody()).singleElement().satisfies(day -> {
+                assertThat(day.subjectId()).isEqualTo(riderId);
+                assertThat(day.rides()).isEqualTo(3);
+            });
+        }
+
+        @Test
+        void given_user_scope_without_subject_then_return_bad_request() {
+            ResponseEntity<String> response = restTemplate.exchange(USAGE_URL, HttpMethod.GET,
+                    new HttpEntity<>(operatorHeaders), String.class, "USER", "", from, until);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Subject id is required for vehicle and user usage only.");
+        }
+    }
+
+    private String registerAndLogin(String email) {
+        userService.registerUser(User.builder().name("John Doe").email(email).password(PASSWORD).build());
+        return userService.authenticateUser(email, PASSWORD).getToken();
+    }
+}
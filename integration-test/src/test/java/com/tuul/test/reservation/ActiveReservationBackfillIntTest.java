@@ -0,0 +1,70 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActiveReservationBackfillIntTest extends IntegrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 2, 11, 12, 0);
+
+    @Autowired
+    private Firestore firestore;
+
+    private DocumentReference userRef;
+    private DocumentReference olderVehicleRef;
+    private DocumentReference latestVehicleRef;
+
+    @BeforeEach
+    void setup() throws ExecutionException, InterruptedException {
+        userRef = firestore.document("users/5d7b6f3e-2f0a-4c1b-9a57-0e6f0c3b1a11");
+        userRef.set(Map.of("name", "John Doe")).get();
+        olderVehicleRef = firestore.document("vehicles/550e8400-e29b-41d4-a716-446655440000");
+        latestVehicleRef = firestore.document("vehicles/550e8400-e29b-41d4-a716-446655440001");
+    }
+
+    @Nested
+    class when_backfilling {
+
+        @Test
+        void given_several_open_reservations_of_one_user_then_latest_keeps_the_pointers() throws ExecutionException, InterruptedException {
+            var ended = reservation("a-ended", olderVehicleRef, START.minusHours(2), START.minusHours(1));
+            var older = reservation("b-older", olderVehicleRef, START, null);
+            var latest = reservation("c-latest", latestVehicleRef, START.plusHours(1), null);
+
+            new ActiveReservationBackfillRunner(firestore, 1).run(null);
+
+            assertThat(ended.get().get().getBoolean("active")).isFalse();
+            assertThat(older.get().get().getBoolean("active")).isFalse();
+            assertThat(latest.get().get().getBoolean("active")).isTrue();
+            assertThat(userRef.get().get().get("activeReservation", DocumentReference.class)).isEqualTo(latest);
+            assertThat(latestVehicleRef.get().get().get("activeReservation", DocumentReference.class)).isEqualTo(latest);
+            assertThat(olderVehicleRef.get().get().contains("activeReservation")).isFalse();
+        }
+    }
+
+    private DocumentReference reservation(String id, DocumentReference vehicleRef, LocalDateTime start, LocalDateTime end)
+            throws ExecutionException, InterruptedException {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("user", userRef);
+        fields.put("vehicle", vehicleRef);
+        fields.put("startTime", ReservationSchema.toTimestamp(start));
+        if (end != null) {
+            fields.put("endTime", ReservationSchema.toTimestamp(end));
+        }
+        var reference = firestore.collection(ReservationSchema.COLLECTION_NAME).document(id);
+        reference.set(fields).get();
+        return reference;
+    }
+}
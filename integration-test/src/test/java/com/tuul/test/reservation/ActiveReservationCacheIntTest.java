@@ -0,0 +1,75 @@
+package com.tuul.test.reservation;
+
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.service.UserService;
+import com.tuul.test.vehicle.model.VehicleCommand;
+import com.tuul.test.vehicle.service.VehicleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActiveReservationCacheIntTest extends IntegrationTest {
+
+    private static final String EMAIL = "rider@example.com";
+    private static final String PASSWORD = "securePassword123";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private UnitOfWorkPort unitOfWorkPort;
+
+    @Autowired
+    private FetchReservationPort fetchReservationPort;
+
+    @Autowired
+    private SaveReservationPort saveReservationPort;
+
+    private AuthenticatedUser rider;
+
+    @BeforeEach
+    void startRide() {
+        userService.registerUser(User.builder().name("John Doe").email(EMAIL).password(PASSWORD).build());
+        rider = authService.verifyJwtToken(userService.authenticateUser(EMAIL, PASSWORD).getToken()).orElseThrow();
+        vehicleService.pair(rider, "code1");
+        vehicleService.sendCommand(rider, "code1", VehicleCommand.START);
+    }
+
+    @Nested
+    class when_saving_in_unit_of_work {
+
+        @Test
+        void given_active_reservation_read_before_commit_then_evict_it_after_commit() {
+            var active = fetchReservationPort.fetchActiveReservation(rider.getUserId()).orElseThrow();
+            var finished = active.toBuilder()
+                    .endTime(active.getStartTime().plusMinutes(5))
+                    .costOfReservation(new BigDecimal("2.00"))
+                    .build();
+
+            unitOfWorkPort.execute(() -> {
+                saveReservationPort.save(finished);
+                // the batch has not committed yet, so Firestore still holds the ride as active
+                assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).contains(active);
+            });
+
+            assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).isEmpty();
+        }
+    }
+}
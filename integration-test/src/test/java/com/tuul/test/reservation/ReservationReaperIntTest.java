@@ -0,0 +1,187 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.auth.model.AuthenticatedUser;
+import com.tuul.test.auth.service.AuthService;
+import com.tuul.test.common.exception.BusinessViolationException;
+import com.tuul.test.common.exception.DatabaseAccessException;
+import com.tuul.test.common.port.UnitOfWorkPort;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import com.tuul.test.reservation.port.SaveReservationPort;
+import com.tuul.test.reservation.service.ReservationReaper;
+import com.tuul.test.usage.model.DailyUsage;
+import com.tuul.test.usage.model.UsageScope;
+import com.tuul.test.usage.port.FetchUsagePort;
+import com.tuul.test.user.model.User;
+import com.tuul.test.user.service.UserService;
+import com.tuul.test.vehicle.model.VehicleCommand;
+import com.tuul.test.vehicle.service.VehicleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+// every ride is already past a zero maximum ride duration
+@TestPropertySource(properties = "reservation.reaper.max-ride-duration=PT0S")
+public class ReservationReaperIntTest extends IntegrationTest {
+
+    private static final String EMAIL = "rider@example.com";
+    private static final String PASSWORD = "securePassword123";
+    private static final String LEASE = "leases/reservationReaper";
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private FetchReservationPort fetchReservationPort;
+
+    @Autowired
+    private SaveReservationPort saveReservationPort;
+
+    @Autowired
+    private UnitOfWorkPort unitOfWorkPort;
+
+    @Autowired
+    private FetchUsagePort fetchUsagePort;
+
+    @Autowired
+    private ReservationReaper reservationReaper;
+
+    private AuthenticatedUser rider;
+
+    @BeforeEach
+    void startRide() {
+        userService.registerUser(User.builder().name("John Doe").email(EMAIL).password(PASSWORD).build());
+        rider = authService.verifyJwtToken(userService.authenticateUser(EMAIL, PASSWORD).getToken()).orElseThrow();
+        vehicleService.pair(rider, "code1");
+        vehicleService.sendCommand(rider, "code1", VehicleCommand.START);
+    }
+
+    @Nested
+    class when_reaping_stale_reservations {
+
+        @Test
+        void given_ride_older_than_maximum_then_close_it_priced_like_a_stop() throws ExecutionException, InterruptedException {
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isEqualTo(1);
+            assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).isEmpty();
+            var closed = fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0);
+            assertThat(closed.getEndTime()).isEqualTo(closed.getStartTime());
+            assertThat(closed.getCostOfReservation()).isEqualByComparingTo("1.00");
+            assertThat(firestore.document(LEASE).get().get().exists()).isFalse();
+
+            vehicleService.sendCommand(rider, "code1", VehicleCommand.START);
+            assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).isPresent();
+        }
+
+        @Test
+        void given_lease_held_by_another_instance_then_leave_rides_open() throws ExecutionException, InterruptedException {
+            var expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+            firestore.document(LEASE).set(Map.of(
+                    "holder", "another-instance",
+                    "expiresAt", Timestamp.ofTimeSecondsAndNanos(expiresAt.getEpochSecond(), expiresAt.getNano())
+            )).get();
+
+            var reaped = reservationReaper.reapStaleReservations();
+
+            assertThat(reaped).isZero();
+            assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).isPresent();
+        }
+
+        @Test
+        void given_ride_stopped_after_it_was_fetched_then_skip_it() {
+            var reaperClose = reaperClose(fetchReservationPort.fetchActiveReservation(rider.getUserId()).orElseThrow());
+            vehicleService.sendCommand(rider, "code1", VehicleCommand.STOP);
+            var stopped = fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0);
+
+            var closed = saveReservationPort.closeIfActive(reaperClose);
+
+            assertThat(closed).isFalse();
+            assertThat(fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0)).isEqualTo(stopped);
+        }
+
+        @Test
+        void given_ride_stopped_before_close_commits_then_fail_the_close() {
+            var reaperClose = reaperClose(fetchReservationPort.fetchActiveReservation(rider.getUserId()).orElseThrow());
+
+            var thrown = catchThrowable(() -> unitOfWorkPort.execute(() -> {
+                assertThat(saveReservationPort.closeIfActive(reaperClose)).isTrue();
+                // the STOP commits on its own while the close is still pending in this unit of work
+                CompletableFuture.runAsync(() -> vehicleService.sendCommand(rider, "code1", VehicleCommand.STOP)).join();
+            }));
+
+            assertThat(thrown).isInstanceOf(DatabaseAccessException.class);
+            var stored = fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0);
+            assertThat(stored.getEndTime()).isNotNull().isNotEqualTo(reaperClose.getEndTime());
+            assertThat(fetchReservationPort.fetchActiveReservation(rider.getUserId())).isEmpty();
+        }
+    }
+
+    @Nested
+    class when_stopping_a_reaped_ride {
+
+        @Test
+        void given_stop_read_the_ride_before_the_reaper_closed_it_then_keep_the_reaper_close() {
+            var active = fetchReservationPort.fetchActiveReservation(rider.getUserId()).orElseThrow();
+            var stopClose = active.toBuilder()
+                    .endTime(active.getStartTime().plusMinutes(5))
+                    .endingLocation(active.getStartingLocation())
+                    .costOfReservation(new BigDecimal("3.50"))
+                    .build();
+            assertThat(reservationReaper.reapStaleReservations()).isEqualTo(1);
+            var reaped = fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0);
+
+            var closed = saveReservationPort.closeIfActive(stopClose);
+
+            assertThat(closed).isFalse();
+            assertThat(fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0)).isEqualTo(reaped);
+        }
+
+        @Test
+        void given_stop_after_the_reaper_closed_the_ride_then_record_its_usage_once() {
+            reservationReaper.reapStaleReservations();
+            var day = fetchReservationPort.fetchReservations(rider.getUserId(), null, 10).get(0).getStartTime().toLocalDate();
+
+            assertThatThrownBy(() -> vehicleService.sendCommand(rider, "code1", VehicleCommand.STOP))
+                    .isInstanceOf(BusinessViolationException.class)
+                    .hasMessage("Active reservation not found.");
+
+            assertThat(fetchUsagePort.fetchDailyUsage(UsageScope.USER, rider.getUserId(), day, day.plusDays(1)))
+                    .extracting(DailyUsage::getRides)
+                    .containsExactly(1L);
+        }
+    }
+
+    private static Reservation reaperClose(Reservation active) {
+        return active.toBuilder()
+                .endTime(active.getStartTime())
+                .endingLocation(active.getStartingLocation())
+                .costOfReservation(new BigDecimal("1.00"))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tuul.test.reservation;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.reservation.model.Reservation;
+import com.tuul.test.reservation.port.FetchReservationPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReservationSchemaMigrationIntTest extends IntegrationTest {
+
+    private static final UUID USER_ID = UUID.fromString("5d7b6f3e-2f0a-4c1b-9a57-0e6f0c3b1a11");
+    private static final UUID VEHICLE_ID = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+    private static final UUID LEGACY_ID = UUID.randomUUID();
+    private static final UUID CURRENT_ID = UUID.randomUUID();
+    private static final LocalDateTime LEGACY_START = LocalDateTime.of(2025, 2, 11, 12, 0, 5, 123_000_000);
+    private static final LocalDateTime CURRENT_START = LEGACY_START.plusHours(1);
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FetchReservationPort fetchReservationPort;
+
+    private DocumentReference legacyRef;
+
+    @BeforeEach
+    void setup() throws ExecutionException, InterruptedException {
+        var userRef = firestore.document("users/" + USER_ID);
+        var vehicleRef = firestore.document("vehicles/" + VEHICLE_ID);
+
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("user", userRef);
+        legacy.put("vehicle", vehicleRef);
+        legacy.put("startTime", LEGACY_START.toString());
+        legacy.put("endTime", LEGACY_START.plusMinutes(20).toString());
+        legacy.put("costOfReservation", "7.00");
+        legacyRef = firestore.collection(ReservationSchema.COLLECTION_NAME).document(LEGACY_ID.toString());
+        legacyRef.set(legacy).get();
+
+        Map<String, Object> current = new HashMap<>();
+        current.put("user", userRef);
+        current.put("vehicle", vehicleRef);
+        current.put("schemaVersion", 2L);
+        current.put("startTime", ReservationSchema.toTimestamp(CURRENT_START));
+        current.put("endTime", ReservationSchema.toTimestamp(CURRENT_START.plusMinutes(10)));
+        current.put("costCents", 500L);
+        firestore.collection(ReservationSchema.COLLECTION_NAME).document(CURRENT_ID.toString()).set(current).get();
+    }
+
+    @Nested
+    class when_reading_both_schema_versions {
+
+        @Test
+        void given_version_1_and_2_reservations_then_history_merges_them_newest_first() {
+            var reservations = fetchReservationPort.fetchReservations(USER_ID, null, 10);
+
+            assertThat(reservations).extracting(Reservation::getId).containsExactly(CURRENT_ID, LEGACY_ID);
+            assertThat(reservations.get(0).getCostOfReservation()).isEqualByComparingTo("5.00");
+            assertThat(reservations.get(1).getStartTime()).isEqualTo(LEGACY_START);
+            assertThat(reservations.get(1).getCostOfReservation()).isEqualByComparingTo("7.00");
+        }
+
+        @Test
+        void given_version_1_and_2_reservations_then_export_range_covers_both() {
+            var reservations = fetchReservationPort.fetchReservationsStartedBetween(
+                    LEGACY_START.minusMinutes(1), CURRENT_START.plusMinutes(1), null, 10);
+
+            assertThat(reservations).extracting(Reservation::getId).containsExactly(LEGACY_ID, CURRENT_ID);
+        }
+    }
+
+    @Nested
+    class when_migrating {
+
+        @Test
+        void given_version_1_reservation_then_rewrite_it_with_typed_fields_and_record_progress() throws ExecutionException, InterruptedException {
+            new ReservationSchemaMigrationRunner(firestore, 1).run(null);
+
+            var migrated = legacyRef.get().get();
+            assertThat(migrated.get("startTime")).isInstanceOf(Timestamp.class);
+            assertThat(migrated.get("endTime")).isInstanceOf(Timestamp.class);
+            assertThat(migrated.getLong("costCents")).isEqualTo(700L);
+            assertThat(migrated.contains("costOfReservation")).isFalse();
+            assertThat(migrated.getLong("schemaVersion")).isEqualTo(2L);
+
+            var checkpoint = firestore.document(ReservationSchemaMigrationRunner.CHECKPOINT).get().get();
+            assertThat(checkpoint.getLong("migrated")).isEqualTo(1L);
+            assertThat(checkpoint.contains("completedAt")).isTrue();
+
+            var reservations = fetchReservationPort.fetchReservations(USER_ID, null, 10);
+            assertThat(reservations).extracting(Reservation::getId).containsExactly(CURRENT_ID, LEGACY_ID);
+            assertThat(reservations.get(1).getStartTime()).isEqualTo(LEGACY_START);
+        }
+    }
+}
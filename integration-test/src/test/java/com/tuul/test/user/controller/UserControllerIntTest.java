@@ -1,7 +1,9 @@
 package com.tuul.test.user.controller;
 
 import com.tuul.test.IntegrationTest;
+import com.tuul.test.auth.service.AuthService;
 import com.tuul.test.user.service.UserService;
+import com.tuul.test.vehicle.model.VehicleCommand;
 import com.tuul.test.vehicle.service.VehicleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -23,6 +25,9 @@ public class UserControllerIntTest extends IntegrationTest {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private AuthService authService;
+
     private static final String NAME = "John Doe";
     private static final String EMAIL = "john.doe@example.com";
     private static final String PASSWORD = "securePassword123";
@@ -58,6 +63,16 @@ public class UserControllerIntTest extends IntegrationTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         }
 
+        @Test
+        void given_email_registered_with_different_case_then_returns_bad_request() {
+            var request = new SaveUserDto("Jane Doe", EMAIL.toUpperCase(), PASSWORD);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/user", request, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("User with this email already exists.");
+        }
+
         @Test
         void given_missing_password_then_returns_bad_request() {
             var request = new SaveUserDto("Jane Doe", "jane.doe@example.com", null);
@@ -114,7 +129,7 @@ public class UserControllerIntTest extends IntegrationTest {
 
         @Test
         void given_valid_token_with_active_vehicle_then_return_user_details() {
-            vehicleService.pair(token, "code1");
+            vehicleService.pair(authService.verifyJwtToken(token).orElseThrow(), "code1");
 
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(token);
@@ -161,4 +176,54 @@ public class UserControllerIntTest extends IntegrationTest {
         }
     }
 
+    @Nested
+    class when_fetching_reservations {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @BeforeEach
+        void rideThreeTimes() {
+            var loginRequest = new LoginUserDto(EMAIL, PASSWORD);
+            var token = restTemplate.postForEntity("/user/login", loginRequest, TokenDto.class).getBody().token();
+            headers.setBearerAuth(token);
+
+            var authenticatedUser = authService.verifyJwtToken(token).orElseThrow();
+            vehicleService.pair(authenticatedUser, "code1");
+            for (int i = 0; i < 3; i++) {
+                vehicleService.sendCommand(authenticatedUser, "code1", VehicleCommand.START);
+                vehicleService.sendCommand(authenticatedUser, "code1", VehicleCommand.STOP);
+            }
+        }
+
+        @Test
+        void given_limit_then_return_pages_newest_first_until_cursor_is_exhausted() {
+            ResponseEntity<ReservationPageDto> firstPage = restTemplate.exchange("/user/reservations?limit=2",
+                    HttpMethod.GET, new HttpEntity<>(headers), ReservationPageDto.class);
+
+            assertThat(firstPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(firstPage.getBody()).isNotNull();
+            assertThat(firstPage.getBody().reservations()).hasSize(2);
+            assertThat(firstPage.getBody().reservations().get(0).startTime())
+                    .isAfterOrEqualTo(firstPage.getBody().reservations().get(1).startTime());
+            assertThat(firstPage.getBody().nextCursor()).isNotBlank();
+
+            ResponseEntity<ReservationPageDto> secondPage = restTemplate.exchange(
+                    "/user/reservations?limit=2&cursor=" + firstPage.getBody().nextCursor(),
+                    HttpMethod.GET, new HttpEntity<>(headers), ReservationPageDto.class);
+
+            assertThat(secondPage.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(secondPage.getBody()).isNotNull();
+            assertThat(secondPage.getBody().reservations()).hasSize(1);
+            assertThat(secondPage.getBody().reservations().get(0).costOfReservation()).isNotNull();
+            assertThat(secondPage.getBody().nextCursor()).isNull();
+        }
+
+        @Test
+        void given_limit_above_maximum_then_return_bad_request() {
+            ResponseEntity<String> response = restTemplate.exchange("/user/reservations?limit=1000",
+                    HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Page size must be between 1 and 100.");
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package com.tuul.test.util;
+
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.common.util.FutureUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FirestoreProjectionsIntTest extends IntegrationTest {
+
+    @Autowired
+    private Firestore firestore;
+
+    private DocumentReference userRef;
+    private DocumentReference vehicleRef;
+
+    @BeforeEach
+    void setup() throws ExecutionException, InterruptedException {
+        vehicleRef = firestore.document("vehicles/550e8400-e29b-41d4-a716-446655440000");
+        userRef = firestore.document("users/5d7b6f3e-2f0a-4c1b-9a57-0e6f0c3b1a11");
+        userRef.set(Map.of(
+                "email", "john.doe@example.com",
+                "password", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3l/ZLt8S9TdMS1wA3xN8Gl6",
+                "name", "John Doe",
+                "activeVehicle", vehicleRef
+        )).get();
+    }
+
+    @Nested
+    class when_fetching_projected_fields {
+
+        @Test
+        void given_field_mask_then_only_requested_fields_are_transferred() {
+            var full = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(userRef.get(), "read failed"));
+            var projected = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(FirestoreProjections.getFields(userRef, "activeVehicle"), "read failed"));
+
+            assertThat(projected.getData()).containsOnlyKeys("activeVehicle");
+            assertThat(payloadBytes(projected)).isLessThan(payloadBytes(full));
+        }
+
+        @Test
+        void given_batch_read_with_field_mask_then_only_requested_fields_are_transferred() {
+            var snapshots = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(FirestoreProjections.getAllFields(firestore,
+                    new DocumentReference[]{userRef, vehicleRef}, "activeVehicle"), "read failed"));
+
+            assertThat(snapshots).hasSize(2);
+            assertThat(snapshots.get(0).getData()).containsOnlyKeys("activeVehicle");
+            assertThat(snapshots.get(1).getData()).isEmpty();
+        }
+
+        @Test
+        void given_query_with_projection_then_only_selected_fields_are_transferred() {
+            var query = firestore.collection("users").whereEqualTo("email", "john.doe@example.com");
+
+            var querySnapshot = FutureUtils.join(FirestoreUtils.safeFirestoreFuture(FirestoreProjections.queryFields(query, "email"), "query failed"));
+
+            assertThat(querySnapshot.getDocuments()).hasSize(1);
+            assertThat(querySnapshot.getDocuments().get(0).getData()).containsOnlyKeys("email");
+        }
+    }
+
+    private static int payloadBytes(DocumentSnapshot snapshot) {
+        return snapshot.getData().entrySet().stream()
+                .mapToInt(entry -> entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                        + String.valueOf(entry.getValue()).getBytes(StandardCharsets.UTF_8).length)
+                .sum();
+    }
+}
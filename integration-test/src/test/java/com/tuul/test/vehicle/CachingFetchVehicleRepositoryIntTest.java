@@ -0,0 +1,106 @@
+package com.tuul.test.vehicle;
+
+import com.google.cloud.firestore.Firestore;
+import com.tuul.test.IntegrationTest;
+import com.tuul.test.vehicle.port.FetchVehiclePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// the shared integration test profile disables the cache, see application.yaml
+@TestPropertySource(properties = "vehicle.cache.enabled=true")
+public class CachingFetchVehicleRepositoryIntTest extends IntegrationTest {
+
+    private static final String VEHICLE_CODE = "code1";
+    private static final String VEHICLE_PATH = "vehicles/550e8400-e29b-41d4-a716-446655440000";
+    private static final Duration LISTENER_TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private Firestore firestore;
+
+    @Autowired
+    private FetchVehiclePort fetchVehiclePort;
+
+    @MockitoSpyBean
+    private FetchVehicleRepository delegate;
+
+    @BeforeEach
+    void awaitReseedSeenByListener() {
+        awaitListener(() -> fetchVehiclePort.findByCode(VEHICLE_CODE).isPresent());
+        clearInvocations(delegate);
+    }
+
+    @Nested
+    class when_cache_enabled {
+
+        @Test
+        void given_cache_enabled_then_caching_repository_is_primary() {
+            assertThat(fetchVehiclePort).isInstanceOf(CachingFetchVehicleRepository.class);
+        }
+
+        @Test
+        void given_vehicle_looked_up_before_then_serve_it_from_memory() {
+            var vehicle = fetchVehiclePort.findByCode(VEHICLE_CODE).orElseThrow();
+
+            assertThat(fetchVehiclePort.fetch(vehicle.getId())).contains(vehicle);
+            verify(delegate, never()).findByCodeAsync(any());
+            verify(delegate, never()).fetchAsync(any());
+        }
+
+        @Test
+        void given_unknown_code_then_reject_it_without_a_read() {
+            assertThat(fetchVehiclePort.findByCode("unknown")).isEmpty();
+
+            verifyNoInteractions(delegate);
+        }
+    }
+
+    @Nested
+    class when_vehicle_changes_in_firestore {
+
+        @Test
+        void given_cached_vehicle_updated_then_listener_replaces_it() throws ExecutionException, InterruptedException {
+            firestore.document(VEHICLE_PATH).update(Map.of("stateOfCharge", 12)).get();
+
+            awaitListener(() -> fetchVehiclePort.findByCode(VEHICLE_CODE).orElseThrow().getStateOfCharge() == 12);
+            verify(delegate, never()).fetchAsync(any());
+        }
+
+        @Test
+        void given_vehicle_deleted_then_listener_drops_its_code() throws ExecutionException, InterruptedException {
+            firestore.document(VEHICLE_PATH).delete().get();
+
+            awaitListener(() -> fetchVehiclePort.findByCode(VEHICLE_CODE).isEmpty());
+            verify(delegate, never()).findByCodeAsync(any());
+        }
+    }
+
+    private static void awaitListener(BooleanSupplier condition) {
+        var deadline = Instant.now().plus(LISTENER_TIMEOUT);
+        while (!condition.getAsBoolean()) {
+            if (Instant.now().isAfter(deadline)) {
+                fail("Vehicle snapshot listener did not catch up within " + LISTENER_TIMEOUT);
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
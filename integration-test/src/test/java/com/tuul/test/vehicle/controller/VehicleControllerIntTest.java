@@ -1,5 +1,6 @@
 package com.tuul.test.vehicle.controller;
 
+import com.google.cloud.firestore.Firestore;
 import com.tuul.test.IntegrationTest;
 import com.tuul.test.user.model.User;
 import com.tuul.test.user.service.UserService;
@@ -11,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
 
+import java.util.concurrent.ExecutionException;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class VehicleControllerIntTest extends IntegrationTest {
@@ -21,6 +24,9 @@ public class VehicleControllerIntTest extends IntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private Firestore firestore;
+
     private static final String NAME = "John Doe";
     private static final String EMAIL = "john.doe@example.com";
     private static final String PASSWORD = "securePassword123";
@@ -80,6 +86,26 @@ public class VehicleControllerIntTest extends IntegrationTest {
 
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         }
+
+        @Test
+        void given_vehicle_paired_with_another_user_then_return_bad_request() {
+            var otherUser = User.builder()
+                    .name("Jane Doe")
+                    .email("jane.doe@example.com")
+                    .password(PASSWORD)
+                    .build();
+            userService.registerUser(otherUser);
+            var otherHeaders = new HttpHeaders();
+            otherHeaders.set("Authorization", "Bearer " + userService.authenticateUser("jane.doe@example.com", PASSWORD).getToken());
+            restTemplate.postForEntity("/vehicle/pair", new HttpEntity<>(new PairVehicleDto(VEHICLE_CODE), otherHeaders), Void.class);
+
+            HttpEntity<PairVehicleDto> request = new HttpEntity<>(new PairVehicleDto(VEHICLE_CODE), AUTH_HEADERS);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/vehicle/pair", request, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Vehicle already paired with another user.");
+        }
     }
 
     @Nested
@@ -164,6 +190,17 @@ public class VehicleControllerIntTest extends IntegrationTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         }
 
+        @Test
+        void given_active_reservation_then_second_start_returns_bad_request() {
+            var startCommand = new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE);
+            HttpEntity<VehicleCommandDto> startRequest = new HttpEntity<>(startCommand, AUTH_HEADERS);
+            restTemplate.postForEntity("/vehicle/command", startRequest, Void.class);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/vehicle/command", startRequest, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+
         @Test
         void given_invalid_token_then_return_unauthorized() {
             var commandRequest = new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE);
@@ -202,5 +239,93 @@ public class VehicleControllerIntTest extends IntegrationTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         }
     }
-}
 
+    @Nested
+    class when_quote_ride {
+
+        @BeforeEach
+        void pairVehicle() {
+            var pairRequest = new PairVehicleDto(VEHICLE_CODE);
+            HttpEntity<PairVehicleDto> request = new HttpEntity<>(pairRequest, AUTH_HEADERS);
+            restTemplate.postForEntity("/vehicle/pair", request, Void.class);
+        }
+
+        @Test
+        void given_active_reservation_then_return_running_cost() {
+            var startCommand = new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE);
+            restTemplate.postForEntity("/vehicle/command", new HttpEntity<>(startCommand, AUTH_HEADERS), Void.class);
+
+            ResponseEntity<RideQuoteDto> response = restTemplate.exchange("/vehicle/ride/quote", HttpMethod.GET,
+                    new HttpEntity<>(AUTH_HEADERS), RideQuoteDto.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().reservationId()).isNotNull();
+            assertThat(response.getBody().cost()).isEqualByComparingTo("1.00");
+        }
+
+        @Test
+        void given_stopped_reservation_then_return_bad_request() {
+            var startCommand = new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE);
+            restTemplate.postForEntity("/vehicle/command", new HttpEntity<>(startCommand, AUTH_HEADERS), Void.class);
+            restTemplate.exchange("/vehicle/ride/quote", HttpMethod.GET, new HttpEntity<>(AUTH_HEADERS), RideQuoteDto.class);
+            var stopCommand = new VehicleCommandDto(VehicleCommand.STOP, VEHICLE_CODE);
+            restTemplate.postForEntity("/vehicle/command", new HttpEntity<>(stopCommand, AUTH_HEADERS), Void.class);
+
+            ResponseEntity<String> response = restTemplate.exchange("/vehicle/ride/quote", HttpMethod.GET,
+                    new HttpEntity<>(AUTH_HEADERS), String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Active reservation not found.");
+        }
+    }
+
+    @Nested
+    class when_retry_with_idempotency_key {
+
+        @Test
+        void given_same_key_then_replay_pairing_without_pairing_again() throws ExecutionException, InterruptedException {
+            HttpEntity<PairVehicleDto> request = new HttpEntity<>(new PairVehicleDto(VEHICLE_CODE), idempotentHeaders("pair-1"));
+            restTemplate.postForEntity("/vehicle/pair", request, Void.class);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/vehicle/pair", request, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(firestore.collection("idempotencyKeys").get().get().size()).isEqualTo(1);
+        }
+
+        @Test
+        void given_same_key_then_replay_original_rejection() {
+            restTemplate.postForEntity("/vehicle/pair", new HttpEntity<>(new PairVehicleDto(VEHICLE_CODE), AUTH_HEADERS), Void.class);
+            HttpEntity<VehicleCommandDto> stopRequest = new HttpEntity<>(
+                    new VehicleCommandDto(VehicleCommand.STOP, VEHICLE_CODE), idempotentHeaders("stop-1"));
+            restTemplate.postForEntity("/vehicle/command", stopRequest, String.class);
+            var startCommand = new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE);
+            restTemplate.postForEntity("/vehicle/command", new HttpEntity<>(startCommand, AUTH_HEADERS), Void.class);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/vehicle/command", stopRequest, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Active reservation not found.");
+        }
+
+        @Test
+        void given_key_reused_for_different_request_then_return_bad_request() {
+            var headers = idempotentHeaders("reused-1");
+            restTemplate.postForEntity("/vehicle/pair", new HttpEntity<>(new PairVehicleDto(VEHICLE_CODE), headers), Void.class);
+            HttpEntity<VehicleCommandDto> startRequest = new HttpEntity<>(new VehicleCommandDto(VehicleCommand.START, VEHICLE_CODE), headers);
+
+            ResponseEntity<String> response = restTemplate.postForEntity("/vehicle/command", startRequest, String.class);
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Idempotency-Key was already used for a different request.");
+        }
+
+        private HttpHeaders idempotentHeaders(String key) {
+            var headers = new HttpHeaders();
+            headers.addAll(AUTH_HEADERS);
+            headers.set(VehicleController.IDEMPOTENCY_KEY_HEADER, key);
+            return headers;
+        }
+    }
+}
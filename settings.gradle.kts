@@ -14,4 +14,4 @@ plugins {
 
 
 rootProject.name = "tuul-be"
-include("app", "adapters:web", "domain", "adapters:firestore", "integration-test")
+include("app", "adapters:web", "domain", "adapters:firestore", "adapters:inmemory", "adapters:jdbc", "integration-test")